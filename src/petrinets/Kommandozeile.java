@@ -0,0 +1,466 @@
+package petrinets;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import petrinets.model.analyse.Analyseergebnis;
+import petrinets.model.analyse.Analysemetriken;
+import petrinets.model.analyse.Stapelanalyse;
+import petrinets.model.analyse.Stapelergebnis;
+import petrinets.model.analyse.SymbolischeAnalyse;
+import petrinets.model.analyse.Zustandsraumanalyse;
+import petrinets.model.analyse.Zustandsraumergebnis;
+import petrinets.model.speicher.AuslagernderSpeicher;
+import petrinets.model.speicher.BitstateSpeicher;
+import petrinets.model.speicher.FingerabdruckSpeicher;
+
+/**
+ * Diese Klasse enthält die main Methode für die Stapelanalyse ohne grafische
+ * Oberfläche.
+ *
+ * Aufruf: Kommandozeile [-format csv|json] [-ausgabe datei] [-threads n]
+ * [-reduktion | -symbolisch | -speicher mb | -bitstate mb | -fingerabdruck mb]
+ * [-zustaende n] [-metriken s] pfad...
+ *
+ * Ein Pfad kann eine PNML-Datei, ein Verzeichnis, das rekursiv nach
+ * PNML-Dateien durchsucht wird, oder ein Glob wie "netze/**&#47;*.pnml" sein.
+ * Für jedes Netz wird eine Zeile geschrieben, sobald sein Ergebnis und alle
+ * vorherigen vorliegen. Als json wird ein Objekt je Zeile geschrieben. Kann ein
+ * Netz nicht eingelesen oder analysiert werden, enthält seine Zeile nur den
+ * Dateinamen und die Spalte fehler, die übrigen Netze werden weiter analysiert.
+ *
+ * Ein Pfad, der keine PNML-Datei trifft, erhält ebenfalls eine Fehlerzeile mit
+ * dem Pfad als Dateinamen, das Programm endet dann mit Status 1.
+ *
+ * Die Dateien eines Pfades werden nach ihrem Pfad sortiert, die Reihenfolge
+ * der Zeilen hängt daher nicht vom Dateisystem ab. Aufgezählt werden sie erst
+ * während der Analyse, im Speicher liegen nur die Pfade des aktuellen
+ * Verzeichnisses oder Globs.
+ *
+ * Mit -reduktion werden je Markierung nur die Transitionen einer
+ * Stubborn-Menge geschaltet. Das Urteil bleibt gleich, Knoten- und Kantenzahl
+ * beziehen sich dann auf den reduzierten Graphen.
+ *
+ * Mit -symbolisch werden beschränkte Netze mit BDDs analysiert. Knoten- und
+ * Kantenzahl sind dann die Anzahlen der erreichbaren Markierungen und
+ * Übergänge, der Graph selbst wird nicht aufgebaut.
+ *
+ * Mit -speicher wird der Graph ebenfalls nicht aufgebaut, die besuchten
+ * Markierungen liegen in einem {@link AuslagernderSpeicher}, der je Netz
+ * höchstens mb Megabyte des Heaps belegt und den Rest in temporäre Dateien
+ * auslagert. Knoten- und Kantenzahl sind die Anzahlen der besuchten
+ * Markierungen und Übergänge, die Spalte bytes_je_zustand gibt an, wie viele
+ * Bytes der Speicher je Markierung belegt hat.
+ *
+ * -bitstate und -fingerabdruck durchsuchen den Zustandsraum ebenso, aber mit
+ * einem verlustbehafteten Speicher fester Größe ({@link BitstateSpeicher} oder
+ * {@link FingerabdruckSpeicher}). Die Spalte auslassung gibt die geschätzte
+ * Wahrscheinlichkeit an, dass dabei Markierungen übergangen wurden.
+ *
+ * Mit -zustaende bricht die Analyse eines Netzes, dessen Graph mehr als n
+ * Zustände erreicht, mit einem Fehler in seiner Zeile ab. Ohne Grenze kann ein
+ * einzelnes sehr großes Netz den Heap erschöpfen, es erhält dann ebenfalls eine
+ * Fehlerzeile, die gleichzeitig laufenden Netze aber unter Umständen auch. Für
+ * große Zustandsräume ist -speicher gedacht, der den Heap je Netz begrenzt.
+ *
+ * Mit -metriken wird alle s Sekunden eine Zeile mit dem Fortschritt der
+ * laufenden Analysen auf die Fehlerausgabe geschrieben, am Ende eine
+ * Zusammenfassung. Die {@link Analysemetriken} sind dann auch per JMX
+ * abrufbar.
+ */
+public class Kommandozeile {
+
+	private static final String CSV_KOPF = "datei,beschraenkt,knoten,kanten,pfadlaenge,pfad,m,m_strich,lade_ms,analyse_ms,bytes_je_zustand,auslassung,fehler";
+
+	private static final String AUFRUF = "Aufruf: Kommandozeile [-format csv|json] [-ausgabe datei] [-threads n]"
+			+ " [-reduktion | -symbolisch | -speicher mb | -bitstate mb | -fingerabdruck mb] [-zustaende n]"
+			+ " [-metriken s] pfad...";
+
+	public static void main(String[] args) {
+		String format = "csv";
+		String ausgabe = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean reduktion = false;
+		boolean symbolisch = false;
+		String speicher = null;
+		long megabyte = 0;
+		int verfahren = 0;
+		long metrikSekunden = 0;
+		long zustandsgrenze = 0;
+		ArrayList<String> pfade = new ArrayList<String>();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+				case "-format":
+					format = args[++i];
+					break;
+				case "-ausgabe":
+					ausgabe = args[++i];
+					break;
+				case "-threads":
+					threads = Integer.parseInt(args[++i]);
+					break;
+				case "-reduktion":
+					reduktion = true;
+					verfahren++;
+					break;
+				case "-symbolisch":
+					symbolisch = true;
+					verfahren++;
+					break;
+				case "-speicher":
+				case "-bitstate":
+				case "-fingerabdruck":
+					speicher = args[i];
+					megabyte = Long.parseLong(args[++i]);
+					if (megabyte < 1)
+						throw new NumberFormatException();
+					verfahren++;
+					break;
+				case "-zustaende":
+					zustandsgrenze = Long.parseLong(args[++i]);
+					if (zustandsgrenze < 1)
+						throw new NumberFormatException();
+					break;
+				case "-metriken":
+					metrikSekunden = Long.parseLong(args[++i]);
+					if (metrikSekunden < 1)
+						throw new NumberFormatException();
+					break;
+				default:
+					pfade.add(args[i]);
+				}
+			}
+		} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+			pfade.clear();
+		}
+		if (pfade.isEmpty() || !(format.equals("csv") || format.equals("json")) || threads < 1 || verfahren > 1) {
+			System.err.println(AUFRUF);
+			System.exit(2);
+		}
+
+		boolean json = format.equals("json");
+		try (PrintWriter out = oeffne(ausgabe)) {
+			if (!json) {
+				out.println(CSV_KOPF);
+				out.flush();
+			}
+			long budget = megabyte << 20;
+			String speicherArt = speicher;
+			Stapelanalyse stapel;
+			if (symbolisch)
+				stapel = new Stapelanalyse(threads, pn -> new SymbolischeAnalyse(pn));
+			else if ("-speicher".equals(speicher))
+				stapel = new Stapelanalyse(threads, pn -> new Zustandsraumanalyse(pn,
+						anzahlStellen -> new AuslagernderSpeicher(anzahlStellen, budget, null)));
+			else if ("-bitstate".equals(speicher))
+				stapel = new Stapelanalyse(threads, pn -> new Zustandsraumanalyse(pn,
+						anzahlStellen -> new BitstateSpeicher(anzahlStellen, budget)));
+			else if ("-fingerabdruck".equals(speicher))
+				stapel = new Stapelanalyse(threads, pn -> new Zustandsraumanalyse(pn,
+						anzahlStellen -> new FingerabdruckSpeicher(anzahlStellen, budget)));
+			else
+				stapel = new Stapelanalyse(threads, reduktion);
+			if (zustandsgrenze > 0)
+				stapel.setZustandsgrenze(zustandsgrenze);
+			Analysemetriken metriken = null;
+			if (metrikSekunden > 0) {
+				metriken = new Analysemetriken();
+				metriken.registriere();
+				stapel.setMetriken(metriken);
+				metriken.starteBericht(metrikSekunden * 1000, zeile -> System.err.println(zeile));
+			}
+			Dateien dateien = new Dateien(pfade);
+			stapel.analysiere(dateien, ergebnis -> {
+				if (ergebnis.getFehler() != null)
+					out.println(json ? fehlerAlsJson(ergebnis) : fehlerAlsCsv(ergebnis));
+				else
+					out.println(json ? alsJson(ergebnis) : alsCsv(ergebnis));
+				out.flush();
+				if (ergebnis.getErgebnis() instanceof Zustandsraumergebnis
+						&& ((Zustandsraumergebnis) ergebnis.getErgebnis()).istEingeschraenkt())
+					System.err.println("Zustandsspeicher eingeschränkt bei " + ergebnis.getErgebnis().getDateiname()
+							+ (speicherArt.equals("-speicher") ? ", es wurde im Heap weitergesucht."
+									: ", das Budget war erschöpft."));
+			});
+			if (metriken != null) {
+				metriken.beendeBericht();
+				System.err.println(metriken.zusammenfassung());
+			}
+			if (out.checkError()) {
+				System.err.println("Fehler beim Schreiben der Ausgabe.");
+				System.exit(1);
+			}
+			if (dateien.getOhneTreffer() > 0) {
+				System.err.println("Pfade ohne PNML-Datei: " + dateien.getOhneTreffer());
+				System.exit(1);
+			}
+		} catch (IOException | UncheckedIOException e) {
+			System.err.println("Fehler: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Öffnet die Ausgabe, ohne Dateiname die Standardausgabe.
+	 *
+	 * @param ausgabe Dateiname oder null
+	 * @return Writer für die Ausgabe
+	 * @throws IOException wenn die Datei nicht geöffnet werden kann
+	 */
+	private static PrintWriter oeffne(String ausgabe) throws IOException {
+		if (ausgabe == null)
+			return new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+		return new PrintWriter(
+				new BufferedWriter(new OutputStreamWriter(new FileOutputStream(ausgabe), StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Bringt ein Ergebnis in eine CSV-Zeile. Beschränkte Netze erhalten Knoten-
+	 * und Kantenzahl, unbeschränkte den Pfad und die Markierungen m und m'.
+	 *
+	 * @param s Ergebnis einer Datei
+	 * @return CSV-Zeile
+	 */
+	private static String alsCsv(Stapelergebnis s) {
+		Analyseergebnis e = s.getErgebnis();
+		StringBuilder sb = new StringBuilder();
+		sb.append(csvFeld(e.getDateiname())).append(',');
+		if (e.istBeschraenkt()) {
+			sb.append("ja,");
+			sb.append(e.getAnzahlZustaende()).append(',');
+			sb.append(e.getAnzahlUebergaenge()).append(",,,,,");
+		} else {
+			sb.append("nein,,,");
+			sb.append(e.getPfadTransitionen().size()).append(',');
+			sb.append(csvFeld(String.join(",", e.getPfadTransitionen()))).append(',');
+			sb.append(csvFeld(e.getPfadAnfang().toString())).append(',');
+			sb.append(csvFeld(e.getPfadEnde().toString())).append(',');
+		}
+		sb.append(millisekunden(s.getLadedauer())).append(',');
+		sb.append(millisekunden(s.getAnalysedauer())).append(',');
+		if (e instanceof Zustandsraumergebnis) {
+			sb.append(bytes((Zustandsraumergebnis) e)).append(',');
+			sb.append(auslassung((Zustandsraumergebnis) e));
+		} else
+			sb.append(',');
+		return sb.append(',').toString();
+	}
+
+	/**
+	 * Bringt den Fehler einer Datei in eine CSV-Zeile, in der nur Dateiname und
+	 * Fehler gefüllt sind.
+	 *
+	 * @param s gescheitertes Ergebnis einer Datei
+	 * @return CSV-Zeile
+	 */
+	private static String fehlerAlsCsv(Stapelergebnis s) {
+		return csvFeld(fehlerDatei(s)) + ",,,,,,,,,,,," + csvFeld(String.valueOf(s.getFehler()));
+	}
+
+	/**
+	 * Bringt ein Ergebnis in ein JSON-Objekt auf einer Zeile.
+	 *
+	 * @param s Ergebnis einer Datei
+	 * @return JSON-Zeile
+	 */
+	private static String alsJson(Stapelergebnis s) {
+		Analyseergebnis e = s.getErgebnis();
+		StringBuilder sb = new StringBuilder("{");
+		sb.append("\"datei\":").append(jsonString(e.getDateiname()));
+		sb.append(",\"beschraenkt\":").append(e.istBeschraenkt());
+		if (e.istBeschraenkt()) {
+			sb.append(",\"knoten\":").append(e.getAnzahlZustaende());
+			sb.append(",\"kanten\":").append(e.getAnzahlUebergaenge());
+		} else {
+			sb.append(",\"pfad\":[");
+			for (int i = 0; i < e.getPfadTransitionen().size(); i++) {
+				if (i > 0)
+					sb.append(',');
+				sb.append(jsonString(e.getPfadTransitionen().get(i)));
+			}
+			sb.append("],\"m\":").append(jsonString(e.getPfadAnfang().toString()));
+			sb.append(",\"m_strich\":").append(jsonString(e.getPfadEnde().toString()));
+		}
+		sb.append(",\"lade_ms\":").append(millisekunden(s.getLadedauer()));
+		sb.append(",\"analyse_ms\":").append(millisekunden(s.getAnalysedauer()));
+		if (e instanceof Zustandsraumergebnis) {
+			sb.append(",\"bytes_je_zustand\":").append(bytes((Zustandsraumergebnis) e));
+			sb.append(",\"auslassung\":").append(auslassung((Zustandsraumergebnis) e));
+		}
+		return sb.append('}').toString();
+	}
+
+	/**
+	 * Bringt den Fehler einer Datei in ein JSON-Objekt auf einer Zeile.
+	 *
+	 * @param s gescheitertes Ergebnis einer Datei
+	 * @return JSON-Zeile
+	 */
+	private static String fehlerAlsJson(Stapelergebnis s) {
+		return "{\"datei\":" + jsonString(fehlerDatei(s)) + ",\"fehler\":"
+				+ jsonString(String.valueOf(s.getFehler())) + "}";
+	}
+
+	/**
+	 * Gibt den Dateinamen für eine Fehlerzeile zurück, bei einem Pfad ohne
+	 * Datei den Pfad, wie er übergeben wurde.
+	 */
+	private static String fehlerDatei(Stapelergebnis s) {
+		return s.getDatei().isFile() ? s.getDatei().getName() : s.getDatei().getPath();
+	}
+
+	private static String bytes(Zustandsraumergebnis e) {
+		return String.format(java.util.Locale.ROOT, "%.1f", e.getBytesJeZustand());
+	}
+
+	private static String auslassung(Zustandsraumergebnis e) {
+		return String.format(java.util.Locale.ROOT, "%.3g", e.getAuslassungswahrscheinlichkeit());
+	}
+
+	private static String millisekunden(long nanos) {
+		return String.format(java.util.Locale.ROOT, "%.3f", nanos / 1e6);
+	}
+
+	private static String csvFeld(String s) {
+		if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0)
+			return s;
+		return '"' + s.replace("\"", "\"\"") + '"';
+	}
+
+	private static String jsonString(String s) {
+		StringBuilder sb = new StringBuilder("\"");
+		for (char c : s.toCharArray()) {
+			if (c == '"' || c == '\\')
+				sb.append('\\').append(c);
+			else if (c < 0x20)
+				sb.append(String.format("\\u%04x", (int) c));
+			else
+				sb.append(c);
+		}
+		return sb.append('"').toString();
+	}
+
+	/**
+	 * Zählt die PNML-Dateien der übergebenen Pfade erst beim Durchlaufen auf.
+	 * Verzeichnisse und Globs werden über {@link Files#walk} durchsucht und ihre
+	 * Dateien je Pfad sortiert. Trifft ein Pfad keine Datei, wird er selbst
+	 * aufgezählt, damit sein Einlesen scheitert und er eine Fehlerzeile erhält.
+	 */
+	private static final class Dateien implements Iterable<File> {
+
+		private final ArrayList<String> pfade;
+		private int ohneTreffer;
+
+		Dateien(ArrayList<String> pfade) {
+			this.pfade = pfade;
+		}
+
+		/**
+		 * Gibt die Anzahl der bisher aufgezählten Pfade ohne PNML-Datei zurück.
+		 *
+		 * @return Anzahl der Pfade ohne Treffer
+		 */
+		int getOhneTreffer() {
+			return ohneTreffer;
+		}
+
+		@Override
+		public Iterator<File> iterator() {
+			return new Iterator<File>() {
+				private int naechsterPfad = 0;
+				private String aktuellerPfad;
+				private boolean gefunden;
+				private Stream<Path> stream;
+				private Iterator<Path> aktuell;
+				private File naechste;
+
+				@Override
+				public boolean hasNext() {
+					while (naechste == null) {
+						if (aktuell != null && aktuell.hasNext()) {
+							naechste = aktuell.next().toFile();
+							gefunden = true;
+						} else {
+							if (stream != null) {
+								stream.close();
+								stream = null;
+								aktuell = null;
+							}
+							if (aktuellerPfad != null && !gefunden) {
+								naechste = new File(aktuellerPfad);
+								ohneTreffer++;
+							} else if (naechsterPfad == pfade.size()) {
+								return false;
+							} else {
+								aktuellerPfad = pfade.get(naechsterPfad++);
+								gefunden = false;
+								oeffne(aktuellerPfad);
+								continue;
+							}
+							aktuellerPfad = null;
+						}
+					}
+					return true;
+				}
+
+				@Override
+				public File next() {
+					if (!hasNext())
+						throw new NoSuchElementException();
+					File f = naechste;
+					naechste = null;
+					return f;
+				}
+
+				private void oeffne(String pfad) {
+					try {
+						int glob = ersteGlobStelle(pfad);
+						if (glob >= 0) {
+							int trenner = pfad.lastIndexOf('/', glob);
+							Path basis = Paths.get(trenner < 0 ? "." : pfad.substring(0, trenner + 1));
+							PathMatcher matcher = FileSystems.getDefault()
+									.getPathMatcher("glob:" + (trenner < 0 ? "./" + pfad : pfad));
+							stream = Files.walk(basis).filter(p -> Files.isRegularFile(p) && matcher.matches(p))
+									.sorted();
+						} else if (Files.isDirectory(Paths.get(pfad))) {
+							stream = Files.walk(Paths.get(pfad)).filter(p -> Files.isRegularFile(p)
+									&& p.getFileName().toString().toLowerCase().endsWith(".pnml")).sorted();
+						} else if (Files.isRegularFile(Paths.get(pfad))) {
+							stream = Stream.of(Paths.get(pfad));
+						} else {
+							return;
+						}
+						aktuell = stream.iterator();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+			};
+		}
+
+		private static int ersteGlobStelle(String pfad) {
+			for (int i = 0; i < pfad.length(); i++)
+				if ("*?[{".indexOf(pfad.charAt(i)) >= 0)
+					return i;
+			return -1;
+		}
+	}
+
+}
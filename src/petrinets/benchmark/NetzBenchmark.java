@@ -0,0 +1,288 @@
+package petrinets.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.function.IntSupplier;
+
+import petrinets.model.analyse.Beschraenktheitsanalyse;
+import petrinets.model.pn.Petrinetz;
+
+/**
+ * Benchmarks für das Laden, Schalten und Analysieren eines Petrinetzes. Gemessen
+ * werden je Datei:
+ *
+ * parse: Einlesen der PNML-Datei mit dem PNMLParser samt Aufbau des
+ * kompilierten Netzes, in Mikrosekunden je Datei.
+ *
+ * schalten: Schaltvorgänge je Sekunde über {@link Petrinetz#schalten(String)}
+ * einschließlich Aktualisierung der Aktivierungen und des EG.
+ *
+ * markierung: Aufrufe von {@link Petrinetz#getMarkierung()} je Sekunde.
+ *
+ * analyse: Laufzeit der {@link Beschraenktheitsanalyse}, wie sie die
+ * Oberfläche für ein geladenes Netz startet, in Mikrosekunden.
+ *
+ * Aufruf aus dem Projektverzeichnis: NetzBenchmark [-ergebnis datei.json]
+ * [-benchmark regex] [-aufwaermen n] [-messungen n] [-dauer ms] [dateien...]
+ *
+ * Ohne Dateien werden alle PNML-Dateien aus resources und resources/examples
+ * verwendet. Mit -benchmark lässt sich die Auswahl der Benchmarks
+ * einschränken, etwa auf "schalten". Jeder Benchmark läuft nach -aufwaermen
+ * verworfenen Durchgängen -messungen Durchgänge von je -dauer Millisekunden,
+ * Standard sind 3, 5 und 1000. Auf die Standardausgabe wird eine Zeile je
+ * Benchmark und Datei geschrieben, in die Ergebnisdatei, standardmäßig
+ * benchmark-ergebnis.json, ein JSON-Feld mit einem Objekt je Zeile samt den
+ * einzelnen Messungen. Zwei Läufe, etwa vor und nach einer Änderung, lassen
+ * sich so Datei für Datei vergleichen.
+ *
+ * Gemessen wird im selben Prozess ohne Fork und ohne die Schutzmaßnahmen von
+ * JMH, die Werte eignen sich für Vergleiche auf derselben Maschine. Das
+ * Programm braucht außer den Quellen der Anwendung keine Bibliotheken und wird
+ * mit ihnen übersetzt.
+ */
+public class NetzBenchmark {
+
+	private static final String[] BENCHMARKS = { "parse", "schalten", "markierung", "analyse" };
+
+	/**
+	 * Nach so vielen Schaltvorgängen wird das Netz zurückgesetzt, damit der EG
+	 * bei unbeschränkten Netzen nicht beliebig wächst.
+	 */
+	private static final int RUECKSETZEN_NACH = 10000;
+
+	private static final String AUFRUF = "Aufruf: NetzBenchmark [-ergebnis datei.json] [-benchmark regex]"
+			+ " [-aufwaermen n] [-messungen n] [-dauer ms] [dateien...]";
+
+	// nimmt die Ergebnisse der Operationen auf, damit der JIT sie nicht verwirft
+	private static volatile int senke;
+
+	private static int geschaltet;
+
+	public static void main(String[] args) throws IOException {
+		String ergebnis = "benchmark-ergebnis.json";
+		String auswahl = ".*";
+		int aufwaermen = 3;
+		int messungen = 5;
+		long dauer = 1000;
+		ArrayList<String> dateien = new ArrayList<String>();
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-ergebnis"))
+					ergebnis = args[++i];
+				else if (args[i].equals("-benchmark"))
+					auswahl = args[++i];
+				else if (args[i].equals("-aufwaermen"))
+					aufwaermen = Integer.parseInt(args[++i]);
+				else if (args[i].equals("-messungen"))
+					messungen = Integer.parseInt(args[++i]);
+				else if (args[i].equals("-dauer"))
+					dauer = Long.parseLong(args[++i]);
+				else
+					dateien.add(args[i]);
+			}
+		} catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+			messungen = 0;
+		}
+		if (aufwaermen < 0 || messungen < 1 || dauer < 1) {
+			System.err.println(AUFRUF);
+			System.exit(2);
+		}
+		if (dateien.isEmpty()) {
+			sammle(new File("resources"), dateien);
+			sammle(new File("resources/examples"), dateien);
+		}
+		if (dateien.isEmpty()) {
+			System.err.println("Keine PNML-Dateien gefunden, bitte im Projektverzeichnis starten.");
+			System.exit(1);
+		}
+
+		try (PrintWriter json = new PrintWriter(
+				new OutputStreamWriter(new FileOutputStream(ergebnis), StandardCharsets.UTF_8))) {
+			json.println("[");
+			boolean erstes = true;
+			System.out.println("Benchmark;Datei;Wert;Streuung;Einheit");
+			for (String datei : dateien) {
+				File pnml = new File(datei);
+				if (!pnml.isFile()) {
+					System.err.println("Die Datei " + pnml.getAbsolutePath() + " wurde nicht gefunden!");
+					continue;
+				}
+				Petrinetz pn = new Petrinetz(pnml, false);
+				for (String benchmark : BENCHMARKS) {
+					if (!benchmark.matches(auswahl))
+						continue;
+					boolean durchsatz = benchmark.equals("schalten") || benchmark.equals("markierung");
+					String einheit = durchsatz ? "ops/s" : "us/op";
+					double[] werte = new double[messungen];
+					for (int d = -aufwaermen; d < messungen; d++) {
+						double wert = durchgang(benchmark, pnml, pn, dauer, durchsatz);
+						if (d >= 0)
+							werte[d] = wert;
+					}
+					double mittel = mittelwert(werte);
+					double streuung = streuung(werte, mittel);
+
+					System.out.println(String.format(Locale.ROOT, "%s;%s;%.3f;%.3f;%s", benchmark, datei, mittel,
+							streuung, einheit));
+					if (!erstes)
+						json.println(",");
+					erstes = false;
+					json.print(alsJson(benchmark, datei, durchsatz, einheit, mittel, streuung, werte));
+				}
+			}
+			json.println();
+			json.println("]");
+			if (json.checkError()) {
+				System.err.println("Fehler beim Schreiben von " + ergebnis);
+				System.exit(1);
+			}
+		}
+	}
+
+	/**
+	 * Führt einen Durchgang eines Benchmarks aus und wiederholt dabei die
+	 * Operation, bis die Dauer abgelaufen ist.
+	 *
+	 * @param benchmark Name des Benchmarks
+	 * @param pnml      PNML-Datei des Netzes
+	 * @param pn        geladenes Netz
+	 * @param dauer     Dauer des Durchgangs in Millisekunden
+	 * @param durchsatz true für Operationen je Sekunde, sonst Mikrosekunden je
+	 *                  Operation
+	 * @return gemessener Wert
+	 */
+	private static double durchgang(String benchmark, File pnml, Petrinetz pn, long dauer, boolean durchsatz) {
+		IntSupplier operation;
+		switch (benchmark) {
+		case "parse":
+			operation = () -> new Petrinetz(pnml, false).getAktivierteTransitionen().size();
+			break;
+		case "schalten":
+			ruecksetzen(pn);
+			operation = () -> schalte(pn);
+			break;
+		case "markierung":
+			operation = () -> pn.getMarkierung().length();
+			break;
+		default:
+			operation = () -> new Beschraenktheitsanalyse(pn).analysiere().istBeschraenkt() ? 1 : 0;
+		}
+
+		// schnelle Operationen werden in Blöcken gezählt, damit das Lesen der
+		// Uhr die Messung nicht bestimmt
+		int block = durchsatz ? 256 : 1;
+		long anzahl = 0;
+		int summe = 0;
+		long start = System.nanoTime();
+		long ende = start + dauer * 1000000;
+		long jetzt;
+		do {
+			for (int i = 0; i < block; i++)
+				summe += operation.getAsInt();
+			anzahl += block;
+		} while ((jetzt = System.nanoTime()) < ende);
+		senke = summe;
+
+		double sekunden = (jetzt - start) / 1e9;
+		return durchsatz ? anzahl / sekunden : sekunden * 1e6 / anzahl;
+	}
+
+	/**
+	 * Schaltet reihum eine der aktivierten Transitionen. Ist keine aktiviert,
+	 * wird das Netz auf die Anfangsmarkierung zurückgesetzt.
+	 */
+	private static int schalte(Petrinetz pn) {
+		ArrayList<String> aktiviert = pn.getAktivierteTransitionen();
+		if (aktiviert.isEmpty() || geschaltet == RUECKSETZEN_NACH) {
+			ruecksetzen(pn);
+			return 0;
+		}
+		pn.schalten(aktiviert.get(geschaltet++ % aktiviert.size()));
+		return aktiviert.size();
+	}
+
+	private static void ruecksetzen(Petrinetz pn) {
+		pn.reset();
+		pn.resetEG();
+		geschaltet = 0;
+	}
+
+	private static double mittelwert(double[] werte) {
+		double summe = 0;
+		for (double w : werte)
+			summe += w;
+		return summe / werte.length;
+	}
+
+	/**
+	 * Gibt die Standardabweichung der Messungen zurück, bei einer Messung 0.
+	 */
+	private static double streuung(double[] werte, double mittel) {
+		if (werte.length < 2)
+			return 0;
+		double summe = 0;
+		for (double w : werte)
+			summe += (w - mittel) * (w - mittel);
+		return Math.sqrt(summe / (werte.length - 1));
+	}
+
+	private static String alsJson(String benchmark, String datei, boolean durchsatz, String einheit, double mittel,
+			double streuung, double[] werte) {
+		StringBuilder sb = new StringBuilder("  {");
+		sb.append("\"benchmark\":\"").append(benchmark).append('"');
+		sb.append(",\"datei\":").append(jsonString(datei));
+		sb.append(",\"modus\":\"").append(durchsatz ? "durchsatz" : "mittlere_zeit").append('"');
+		sb.append(",\"einheit\":\"").append(einheit).append('"');
+		sb.append(",\"wert\":").append(zahl(mittel));
+		sb.append(",\"streuung\":").append(zahl(streuung));
+		sb.append(",\"messungen\":[");
+		for (int i = 0; i < werte.length; i++) {
+			if (i > 0)
+				sb.append(',');
+			sb.append(zahl(werte[i]));
+		}
+		return sb.append("]}").toString();
+	}
+
+	private static String zahl(double wert) {
+		return String.format(Locale.ROOT, "%.3f", wert);
+	}
+
+	private static String jsonString(String s) {
+		StringBuilder sb = new StringBuilder("\"");
+		for (char c : s.toCharArray()) {
+			if (c == '"' || c == '\\')
+				sb.append('\\').append(c);
+			else if (c < 0x20)
+				sb.append(String.format("\\u%04x", (int) c));
+			else
+				sb.append(c);
+		}
+		return sb.append('"').toString();
+	}
+
+	/**
+	 * Fügt die PNML-Dateien des Verzeichnisses sortiert der Liste hinzu.
+	 *
+	 * @param verzeichnis zu durchsuchendes Verzeichnis
+	 * @param dateien     Liste der Pfade
+	 */
+	private static void sammle(File verzeichnis, ArrayList<String> dateien) {
+		File[] pnml = verzeichnis.listFiles((d, name) -> name.endsWith(".pnml"));
+		if (pnml == null)
+			return;
+		ArrayList<String> pfade = new ArrayList<String>();
+		for (File f : pnml)
+			pfade.add(verzeichnis.getPath() + "/" + f.getName());
+		pfade.sort(null);
+		dateien.addAll(pfade);
+	}
+
+}
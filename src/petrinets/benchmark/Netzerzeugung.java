@@ -0,0 +1,85 @@
+package petrinets.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+
+import petrinets.model.pn.Netzgenerator;
+
+/**
+ * Schreibt ein synthetisches Netz des {@link Netzgenerator}s als PNML-Datei,
+ * etwa als Eingabe für die Kommandozeile, den {@link NetzBenchmark} oder den
+ * {@link Skalierungsbenchmark}.
+ *
+ * Aufruf: Netzerzeugung familie parameter... [-ausgabe datei.pnml]
+ *
+ * postfach sender kapazitaet
+ * philosophen anzahl
+ * kreis laenge marken
+ * gabelung tiefe breite
+ * zufall stellen transitionen dichte marken beschraenkt startwert
+ *
+ * Ohne -ausgabe wird die Datei nach dem Netz benannt und im
+ * Arbeitsverzeichnis abgelegt.
+ */
+public class Netzerzeugung {
+
+	public static void main(String[] args) throws IOException {
+		String ausgabe = null;
+		int n = args.length;
+		if (n >= 2 && args[n - 2].equals("-ausgabe")) {
+			ausgabe = args[n - 1];
+			n -= 2;
+		}
+		if (n == 0)
+			beende("Keine Netzfamilie angegeben.");
+
+		Netzgenerator g = null;
+		try {
+			switch (args[0]) {
+			case "postfach":
+				pruefeAnzahl(n, 3);
+				g = Netzgenerator.postfach(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+				break;
+			case "philosophen":
+				pruefeAnzahl(n, 2);
+				g = Netzgenerator.philosophen(Integer.parseInt(args[1]));
+				break;
+			case "kreis":
+				pruefeAnzahl(n, 3);
+				g = Netzgenerator.kreis(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+				break;
+			case "gabelung":
+				pruefeAnzahl(n, 3);
+				g = Netzgenerator.gabelung(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+				break;
+			case "zufall":
+				pruefeAnzahl(n, 7);
+				g = Netzgenerator.zufall(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+						Double.parseDouble(args[3]), Integer.parseInt(args[4]), Boolean.parseBoolean(args[5]),
+						Long.parseLong(args[6]));
+				break;
+			default:
+				beende("Unbekannte Netzfamilie: " + args[0]);
+			}
+		} catch (IllegalArgumentException e) {
+			beende(e.getMessage());
+		}
+
+		File datei = new File(ausgabe != null ? ausgabe : g.getName() + ".pnml");
+		g.schreibePNML(datei);
+		System.out.println(datei.getPath() + ": " + g.getAnzahlStellen() + " Stellen, "
+				+ g.getAnzahlTransitionen() + " Transitionen, " + g.getAnzahlKanten() + " Kanten");
+	}
+
+	private static void pruefeAnzahl(int n, int erwartet) {
+		if (n != erwartet)
+			beende("Falsche Anzahl an Parametern.");
+	}
+
+	private static void beende(String meldung) {
+		System.err.println(meldung);
+		System.err.println("Aufruf: Netzerzeugung familie parameter... [-ausgabe datei.pnml]");
+		System.exit(1);
+	}
+
+}
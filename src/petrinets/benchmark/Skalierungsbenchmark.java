@@ -0,0 +1,115 @@
+package petrinets.benchmark;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+import petrinets.model.analyse.Analyseergebnis;
+import petrinets.model.analyse.Beschraenktheitsanalyse;
+import petrinets.model.analyse.ParalleleBeschraenktheitsanalyse;
+import petrinets.model.pn.Petrinetz;
+
+/**
+ * Misst die Laufzeit der {@link ParalleleBeschraenktheitsanalyse} für 1 bis N
+ * Threads und vergleicht Knoten- und Kantenzahl mit der sequentiellen
+ * {@link Beschraenktheitsanalyse}.
+ *
+ * Aufruf: Skalierungsbenchmark [-threads N] [-wiederholungen W] [-ohneVergleich]
+ * [dateien...]
+ *
+ * Mit -ohneVergleich wird die sequentielle Analyse übersprungen und nur die
+ * parallele gemessen.
+ *
+ * Das Programm braucht außer den Quellen der Anwendung keine Bibliotheken und
+ * wird mit ihnen übersetzt.
+ *
+ * Ohne Dateien werden die mitgelieferten Mailbox-Netze aus resources verwendet.
+ */
+public class Skalierungsbenchmark {
+
+	public static void main(String[] args) {
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		int wiederholungen = 5;
+		boolean vergleich = true;
+		ArrayList<File> dateien = new ArrayList<File>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-threads"))
+				maxThreads = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-wiederholungen"))
+				wiederholungen = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-ohneVergleich"))
+				vergleich = false;
+			else
+				dateien.add(new File(args[i]));
+		}
+		if (dateien.isEmpty()) {
+			File[] mailbox = new File("resources").listFiles((d, name) -> name.contains("Mailbox")
+					&& name.endsWith(".pnml"));
+			if (mailbox != null)
+				for (File f : mailbox)
+					dateien.add(f);
+			dateien.sort(null);
+		}
+
+		System.out.println("Netz;Threads;Knoten;Kanten;beschraenkt;ms;Speedup");
+		for (File datei : dateien) {
+			Petrinetz pn = ladeStill(datei);
+
+			int knoten = -1;
+			int kanten = -1;
+			if (vergleich) {
+				Analyseergebnis seq = new Beschraenktheitsanalyse(pn).analysiere();
+				knoten = seq.getErreichbarkeitsgraph().getAnzahlKnoten();
+				kanten = seq.getErreichbarkeitsgraph().getAnzahlUebergaenge();
+			}
+
+			double basis = 0;
+			for (int threads = 1; threads <= maxThreads; threads *= 2) {
+				ParalleleBeschraenktheitsanalyse analyse = new ParalleleBeschraenktheitsanalyse(pn, threads);
+
+				// Aufwärmen
+				Analyseergebnis ergebnis = analyse.analysiere();
+				long beste = Long.MAX_VALUE;
+				for (int w = 0; w < wiederholungen; w++) {
+					long start = System.nanoTime();
+					ergebnis = analyse.analysiere();
+					beste = Math.min(beste, System.nanoTime() - start);
+				}
+
+				if (vergleich && ergebnis.istBeschraenkt()
+						&& (ergebnis.getErreichbarkeitsgraph().getAnzahlKnoten() != knoten
+								|| ergebnis.getErreichbarkeitsgraph().getAnzahlUebergaenge() != kanten))
+					System.err.println("Abweichung zur sequentiellen Analyse: " + datei.getName());
+
+				double ms = beste / 1e6;
+				if (threads == 1)
+					basis = ms;
+				System.out.println(String.format("%s;%d;%d;%d;%s;%.3f;%.2f", datei.getName(), threads,
+						ergebnis.getErreichbarkeitsgraph().getAnzahlKnoten(),
+						ergebnis.getErreichbarkeitsgraph().getAnzahlUebergaenge(), ergebnis.istBeschraenkt(), ms,
+						basis / ms));
+				if (threads < maxThreads && threads * 2 > maxThreads)
+					threads = maxThreads / 2;
+			}
+		}
+	}
+
+	/**
+	 * Lädt ein Petrinetz, ohne die Meldungen des Parsers auszugeben.
+	 *
+	 * @param datei PNML-Datei
+	 * @return geladenes Petrinetz
+	 */
+	private static Petrinetz ladeStill(File datei) {
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		try {
+			return new Petrinetz(datei);
+		} finally {
+			System.setOut(out);
+		}
+	}
+
+}
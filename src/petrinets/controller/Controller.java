@@ -2,14 +2,31 @@ package petrinets.controller;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Formatter;
-import java.util.Iterator;
-import java.util.Stack;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 
 import org.graphstream.graph.Node;
 
+import petrinets.model.analyse.Analyseergebnis;
+import petrinets.model.analyse.Analysemetriken;
+import petrinets.model.analyse.Beschraenktheitsanalyse;
+import petrinets.model.analyse.Stapelanalyse;
+import petrinets.model.analyse.Stapelergebnis;
+import petrinets.model.analyse.SymbolischeAnalyse;
+import petrinets.model.analyse.SymbolischesErgebnis;
+import petrinets.model.analyse.Ueberdeckungsanalyse;
+import petrinets.model.analyse.Ueberdeckungsergebnis;
+import petrinets.model.eg.EGGruppierung;
+import petrinets.model.eg.Markierung;
 import petrinets.model.pn.Petrinetz;
 import petrinets.view.EGGraph;
+import petrinets.view.EGSchichtenlayout;
 import petrinets.view.PNGraph;
 import petrinets.view.Hauptfenster;
 
@@ -22,10 +39,27 @@ public class Controller {
 	private PNGraph pnGraph;
 	private EGGraph egGraph;
 	private Petrinetz petrinetz;
+	private Analysemetriken metriken;
+
+	// laufende Analyse im Hintergrund und ihre Fortschrittsanzeige
+	private SwingWorker<?, ?> laufendeAnalyse;
+	private Timer fortschrittTimer;
+	private int dateienFertig;
+	private int dateienGesamt;
+
+	/** Abstand der Aktualisierungen der Fortschrittsanzeige in Millisekunden */
+	private static final int FORTSCHRITT_INTERVALL = 200;
+
+	/** Anzahl der Knoten, ab der der EG nach einer Analyse in Schichten angeordnet wird */
+	private static final int LAYOUT_SCHWELLE = 500;
+
+	// laufende Berechnung des Schichtenlayouts
+	private SwingWorker<EGSchichtenlayout, Void> laufendesLayout;
 
 	/**
 	 * Im Konstruktor wird dem Controller der Hauptframe zur Kontrolle übergeben
-	 * und die beiden Graphstream-Graphen initialisiert.
+	 * und die beiden Graphstream-Graphen initialisiert. Die Metriken der
+	 * Beschränktheitsanalyse werden per JMX angemeldet.
 	 * 
 	 * @param frame das Hauptfensters
 	 */
@@ -33,6 +67,8 @@ public class Controller {
 		this.frame = frame;
 		pnGraph = new PNGraph("Petrinetz");
 		egGraph = new EGGraph("Erreichbarkeitsgraph", pnGraph);
+		metriken = new Analysemetriken();
+		metriken.registriere();
 	}
 
 	/**
@@ -56,28 +92,48 @@ public class Controller {
 	/**
 	 * Wird vom {@link Hauptfenster} beim Öffnen einer Datei aufgerufen.
 	 * Erstellt ein neues Petrinetz-Objekt und übergibt diesem die PNML-Datei.
-	 * Die Graphstream-Graphen werden ihren Model-Äquivalenten als Observer übergeben
+	 * Die Graphstream-Graphen werden ihren Model-Äquivalenten als Beobachter übergeben
 	 * und initial über die Veränderung informiert.
 	 * 
 	 * @param pnml geöffnete PNML-Datei
 	 */
 	public void parse(File pnml) {
 		
+		// Graphen vom bisherigen Petrinetz abmelden
+		trennePetrinetz();
+
 		// Petrinetz erstellen und die zu parsende Datei übergeben
 		petrinetz = new Petrinetz(pnml);
 		
-		// Observer für die Graphen anmelden
-		petrinetz.addObserver(pnGraph);
-		petrinetz.getEG().addObserver(egGraph);
+		// Beobachter für die Graphen anmelden, zugestellt wird im Event
+		// Dispatch Thread
+		petrinetz.getAenderungen().setZustellung(SwingUtilities::invokeLater);
+		petrinetz.getAenderungen().anmelden(pnGraph);
+		petrinetz.getEG().getAenderungen().setZustellung(SwingUtilities::invokeLater);
+		petrinetz.getEG().getAenderungen().anmelden(egGraph);
 		
-		// Observer zum initialisieren des Graphen veranlassen
-		petrinetz.notifyObservers("init");
-		petrinetz.getEG().notifyObservers("clear");
+		// Graphen sofort initialisieren, den PN-Graphen zuerst, da der
+		// EG-Graph die Labels der Transitionen aus ihm liest
+		petrinetz.meldeInhalt();
+		petrinetz.getAenderungen().zustellen();
+		petrinetz.getEG().meldeInhalt();
+		petrinetz.getEG().getAenderungen().zustellen();
 		
 		// Dateinamen auf TextArea schreiben
 		addTextToArea("\nPetrinetz erstellt: " + petrinetz.getDateiname() + "\n");
 	}
 
+	/**
+	 * Meldet die Graphen vom aktuellen Petrinetz ab, damit dessen noch
+	 * ausstehende Änderungen nicht mehr zugestellt werden.
+	 */
+	private void trennePetrinetz() {
+		if (petrinetz != null) {
+			petrinetz.getAenderungen().abmelden(pnGraph);
+			petrinetz.getEG().getAenderungen().abmelden(egGraph);
+		}
+	}
+
 	/**
 	 * Nutzt die addText Funktion des Frames, um in die TextArea zu schreiben.
 	 * Wahrscheinlich unnötig, weil nur eine Zeile Code.
@@ -137,13 +193,25 @@ public class Controller {
 
 	/**
 	 * Wird aufgerufen, wenn im Erreichbarkeitsgrapen geklickt wurde und
-	 * setzt das Petrinetz auf die entsprechende Markierung zurück
+	 * setzt das Petrinetz auf die entsprechende Markierung zurück. Ein
+	 * Gruppenknoten des zusammengefassten EG wird stattdessen aufgeklappt.
 	 * @param id ID der Node auf die geklickt wurde
 	 */
 	private void clickInEG(String id) {
+		Node n = egGraph.getNode(id);
+		if (n.hasAttribute("gruppe")) {
+			addTextToArea("Klappe " + n.getAttribute("ui.label") + " auf.\n");
+			egGraph.klappeAuf(n);
+			return;
+		}
+		Markierung m = n.getAttribute("markierung");
+		if (m.enthaeltOmega()) {
+			addTextToArea("Markierung " + id + " des Überdeckungsgraphen ist nicht erreichbar.\n");
+			return;
+		}
 		addTextToArea("Setze Petrinetz auf " + id + " zurück.\n");
-		petrinetz.resetTo(id);
-		egGraph.markiereKnoten(id);
+		petrinetz.resetTo(m);
+		egGraph.markiereKnoten(m);
 	}
 
 	/**
@@ -156,6 +224,8 @@ public class Controller {
 	 */
 	private void schalten(String t) {
 		petrinetz.schalten(t);
+		// neuen Übergang sofort zustellen, damit er markiert werden kann
+		petrinetz.getEG().getAenderungen().zustellen();
 		egGraph.markiereAktuellenUebergang(petrinetz.getEG().getAktuellerKnoten(), petrinetz.getEG().getFolgeKnoten(),
 				t);
 	}
@@ -210,6 +280,8 @@ public class Controller {
 		else {
 			resetPN();
 			addTextToArea("Lösche Erreichbarkeitsgraphen.\n");
+			if (laufendesLayout != null)
+				laufendesLayout.cancel(false);
 			petrinetz.resetEG();
 		}
 	}
@@ -220,164 +292,338 @@ public class Controller {
 	// Alles zur Beschränktheitsanalyse
 	// ********************************************************************
 
-	private Stack<String> markierungen;
-	private Stack<String> transitionen;
-	private Boolean beschraenkt;
-	private Boolean beendet;
-	private String pfadAnfang;
-	private String pfadEnde;
-
 	/**
 	 * Wird vom {@link Hauptfenster} aufgerufen, um ein geladenes Petrinetz auf
-	 * Beschränktheit zu überprüfen.
+	 * Beschränktheit zu überprüfen. Die Analyse läuft in einem
+	 * {@link SwingWorker}, die Anzahl der entdeckten Zustände wird in der
+	 * Fortschrittsanzeige gezeigt. Der in der Analyse aufgebaute EG wird
+	 * anschließend einmalig an die Anzeige übergeben, nach einem Abbruch der
+	 * bis dahin aufgebaute Teil.
 	 */
 	public void einzelAnalyse() {
 		if (petrinetz == null)
 			addTextToArea("Analysiere: Kein Petrinetz geladen.\n");
+		else if (laufendeAnalyse != null)
+			addTextToArea("Analysiere: Es läuft bereits eine Analyse.\n");
 		else {
-			analyse();
+			loescheEG();
+			addTextToArea("Analysiere: " + petrinetz.getDateiname() + "\n");
+
+			Petrinetz analysiert = petrinetz;
+			metriken.zuruecksetzen();
+			Beschraenktheitsanalyse verfahren = new Beschraenktheitsanalyse(analysiert);
+			verfahren.setMetriken(metriken);
+
+			SwingWorker<Analyseergebnis, Void> worker = new SwingWorker<Analyseergebnis, Void>() {
+				@Override
+				protected Analyseergebnis doInBackground() {
+					return verfahren.analysiere();
+				}
 
-			// Wenn unbeschränkt: Pfad visualisieren
-			if(!beschraenkt)
-				visualisierePfad();
-			
-			// Dialog aufrufen
-			frame.showAnalyseErgebnis(beschraenkt);
+				@Override
+				protected void done() {
+					beendeFortschritt();
+					try {
+						zeigeErgebnis(analysiert, get());
+					} catch (InterruptedException | ExecutionException e) {
+						addTextToArea("Fehler bei der Analyse: " + e.getCause() + "\n\n");
+					}
+				}
+			};
+			starteFortschritt(worker, 0, verfahren::abbrechen);
+			worker.execute();
 		}
 	}
 
 	/**
-	 * Startet die Beschränktheitsanalyse für das Aktuelle Netz
+	 * Gibt das Ergebnis einer Einzelanalyse aus. Wurde inzwischen ein anderes
+	 * Netz geladen, wird nur der Text ausgegeben.
+	 * 
+	 * @param analysiert analysiertes Petrinetz
+	 * @param ergebnis   Ergebnis der Analyse
 	 */
-	private void analyse() {
-		loescheEG();
-		addTextToArea("Analysiere: " + petrinetz.getDateiname() + "\n");
-
-		markierungen = new Stack<String>();
-		transitionen = new Stack<String>();
-
-		beschraenkt = true;
-		beendet = false;
-
-		// Solange das Petrinetz nicht beschränkt ist und
-		// die Analyse nicht beendet ist, führe Analyse durch
-		while (beschraenkt && !beendet) {
-			beendet = analysiereNetz(petrinetz);
+	private void zeigeErgebnis(Petrinetz analysiert, Analyseergebnis ergebnis) {
+		addTextToArea(metriken.zusammenfassung() + "\n");
+
+		if (ergebnis.istAbgebrochen()) {
+			addTextToArea("Analyse abgebrochen, der EG ist unvollständig ("
+					+ ergebnis.getErreichbarkeitsgraph().getAnzahlKnoten() + " Knoten).\n\n");
+			if (analysiert == petrinetz)
+				petrinetz.getEG().uebernehme(ergebnis.getErreichbarkeitsgraph());
+			return;
 		}
 
 		// Ausgabe ob beschränkt oder nicht
-		if (beschraenkt)
+		if (ergebnis.istBeschraenkt())
 			addTextToArea("Das Petrinetz ist beschränkt.\n\n");
 		else
 			addTextToArea("Das Petrinetz ist unbeschränkt.\n\n");
+		if (analysiert != petrinetz)
+			return;
+
+		// fertigen EG an die Anzeige übergeben, große EG ohne AutoLayout
+		petrinetz.getEG().uebernehme(ergebnis.getErreichbarkeitsgraph());
+		if (petrinetz.getEG().getAnzahlKnoten() > LAYOUT_SCHWELLE)
+			berechneLayout();
+
+		// Wenn unbeschränkt: Pfad visualisieren
+		if(!ergebnis.istBeschraenkt())
+			visualisierePfad(ergebnis);
+		
+		// Dialog aufrufen
+		frame.showAnalyseErgebnis(ergebnis.istBeschraenkt());
 	}
 
 	/**
-	 * Analysiert rekursiv auf Beschränktheit, indem nach und nach alle
-	 * aktivierten Transitionen in der Art einer Tiefensuche geschaltet werden.
+	 * Zeigt die Fortschrittsanzeige für eine Analyse im Hintergrund an und
+	 * aktualisiert sie regelmäßig aus den Metriken.
 	 * 
-	 * @param pn zu analysierendes Petrnietz in der aktuellen Konfiguration
+	 * @param worker  laufende Analyse
+	 * @param dateien Anzahl der Dateien einer Stapelanalyse, sonst 0
+	 * @param abbruch bricht die Analyse ab, null wenn sie nicht abbrechbar ist
+	 */
+	private void starteFortschritt(SwingWorker<?, ?> worker, int dateien, Runnable abbruch) {
+		laufendeAnalyse = worker;
+		dateienFertig = 0;
+		dateienGesamt = dateien;
+		frame.zeigeFortschritt(dateien, abbruch);
+		fortschrittTimer = new Timer(FORTSCHRITT_INTERVALL, (event) -> aktualisiereFortschritt());
+		fortschrittTimer.start();
+	}
+
+	private void aktualisiereFortschritt() {
+		// Verfahren ohne Zählung melden keine Zustände
+		long zustaende = metriken.getEntdeckteZustaende();
+		String text = zustaende == 0 ? "Analyse läuft"
+				: String.format("%d Zustände (%.0f/s)", zustaende, metriken.getZustaendeJeSekunde());
+		if (dateienGesamt > 0)
+			text = dateienFertig + " / " + dateienGesamt + " Dateien, " + text;
+		frame.setFortschritt(dateienFertig, text);
+	}
+
+	private void beendeFortschritt() {
+		fortschrittTimer.stop();
+		fortschrittTimer = null;
+		laufendeAnalyse = null;
+		frame.verbergeFortschritt();
+	}
+
+	/**
+	 * Wird vom {@link Hauptfenster} aufgerufen, um das geladene Petrinetz
+	 * symbolisch zu analysieren. Für ein beschränktes Netz werden nur die
+	 * Anzahlen der Markierungen, Übergänge und Verklemmungen in die TextArea
+	 * geschrieben, der EG wird nicht aufgebaut. Für ein unbeschränktes Netz wird
+	 * wie bei {@link #einzelAnalyse()} der Pfad angezeigt. Die Analyse läuft wie
+	 * dort in einem {@link SwingWorker} und kann abgebrochen werden.
 	 */
-	private boolean analysiereNetz(Petrinetz pn) {
-
-		// Die möglichen Transitionen werden nach und nach abgearbeitet
-		// Jede Rekursionsebene hat ihren eigenen Transitions-Stack
-		Stack<String> aktiveTransitionen = new Stack<String>();
-
-		// aktuelle Markierung des PN holen
-		String m = pn.getMarkierung();
-
-		// nur weitermachen, wenn die Markierung noch nicht vorhanden ist, 
-		// ansonsten Markierung nur auf Stack pushen, um Kreise korrekt zu 
-		// erkennen, aber Analyse an anderer Stelle fortführen
-		if (markierungen.contains(m)) {
-			markierungen.push(m);
-		} else {
-			// wenn m neu hinzugekommen ist: Pfad auf Beschränktheit überprüfen
-			beschraenkt = pfadOK(m);
-			markierungen.push(m);
-
-			// nur weitermachen, wenn noch beschränkt
-			if (beschraenkt) {
-
-				// aktivierte Transitionen auf den Stack packen
-				ArrayList<String> aktivierteTransitionen = pn.getAktivierteTransitionen();
-				Iterator<String> it = aktivierteTransitionen.iterator();
-				while (it.hasNext())
-					aktiveTransitionen.push(it.next());
-
-				// Transitionen schalten und Analyse rekursiv fortfahren
-				while (!aktiveTransitionen.empty()) {
-					transitionen.push(aktiveTransitionen.peek());
-					pn.schalten(aktiveTransitionen.pop());
-					// rekursiver Aufruf nach der Schaltung
-					analysiereNetz(pn);
-					// wenn unbeschränkt, mit false beenden
-					if (!beschraenkt)
-						return false;
-					// sonst Petrinetz und Pfad zurücksetzen auf diese Rekursionsebene
-					pn.resetTo(m);
-					while (!markierungen.peek().equals(m)) {
-						markierungen.pop();
-						transitionen.pop();
+	public void symbolischeAnalyse() {
+		if (petrinetz == null)
+			addTextToArea("Symbolische Analyse: Kein Petrinetz geladen.\n");
+		else if (laufendeAnalyse != null)
+			addTextToArea("Symbolische Analyse: Es läuft bereits eine Analyse.\n");
+		else {
+			loescheEG();
+			addTextToArea("Analysiere symbolisch: " + petrinetz.getDateiname() + "\n");
+
+			Petrinetz analysiert = petrinetz;
+			metriken.zuruecksetzen();
+			SymbolischeAnalyse verfahren = new SymbolischeAnalyse(analysiert);
+			verfahren.setMetriken(metriken);
+
+			SwingWorker<Analyseergebnis, Void> worker = new SwingWorker<Analyseergebnis, Void>() {
+				@Override
+				protected Analyseergebnis doInBackground() {
+					return verfahren.analysiere();
+				}
+
+				@Override
+				protected void done() {
+					beendeFortschritt();
+					try {
+						zeigeSymbolischesErgebnis(analysiert, get());
+					} catch (InterruptedException | ExecutionException e) {
+						addTextToArea("Fehler bei der Analyse: " + e.getCause() + "\n\n");
 					}
 				}
-			}
+			};
+			starteFortschritt(worker, 0, verfahren::abbrechen);
+			worker.execute();
 		}
-		return true;
 	}
 
 	/**
-	 * Vergleicht einen Knoten mit allen seinen Vorgängern.
+	 * Gibt das Ergebnis einer symbolischen Analyse aus. Wurde inzwischen ein
+	 * anderes Netz geladen, wird nur der Text ausgegeben.
 	 * 
-	 * @param m der mit dem Pfad zu vergleichende Knoten
-	 * @return true, wenn keine Unbeschränktheit festgestellt wurde, sonst false
+	 * @param analysiert analysiertes Petrinetz
+	 * @param ergebnis   Ergebnis der Analyse
 	 */
-	private Boolean pfadOK(String m) {
-		Stack<String> markierungenKopie = new Stack<String>();
-		markierungenKopie.addAll(markierungen);
-
-		while (!markierungenKopie.empty()) {
-			String s = markierungenKopie.pop();
-			if (erfuelltUnbeschraenktKriterium(m, s)) {
-				// Wenn unbeschränkt: Start- und Endknoten des Pfades setzen
-				pfadAnfang = s;
-				pfadEnde = m;
-				// Pfad nicht OK
-				return false;
+	private void zeigeSymbolischesErgebnis(Petrinetz analysiert, Analyseergebnis ergebnis) {
+		if (ergebnis.istAbgebrochen()) {
+			addTextToArea("Analyse abgebrochen.\n\n");
+			return;
+		}
+		if (ergebnis.istBeschraenkt()) {
+				addTextToArea("Markierungen / Übergänge: " + ergebnis.getAnzahlZustaende() + " / "
+						+ ergebnis.getAnzahlUebergaenge() + "\n");
+				addTextToArea("Verklemmungen: " + ergebnis.getAnzahlVerklemmungen() + "\n");
 			}
+		if (ergebnis instanceof SymbolischesErgebnis) {
+			SymbolischesErgebnis s = (SymbolischesErgebnis) ergebnis;
+			addTextToArea("Bits je Stelle: " + s.getBitsJeStelle() + ", Iterationen: " + s.getIterationen()
+					+ ", BDD-Knoten: " + s.getBddKnoten() + "\n");
+		}
+		if (ergebnis.getErreichbarkeitsgraph() != null && analysiert == petrinetz) {
+			petrinetz.getEG().uebernehme(ergebnis.getErreichbarkeitsgraph());
+			if (!ergebnis.istBeschraenkt())
+				visualisierePfad(ergebnis);
 		}
-		// Pfad OK
-		return true;
+		if (ergebnis.istBeschraenkt())
+			addTextToArea("Das Petrinetz ist beschränkt.\n\n");
+		else
+			addTextToArea("Das Petrinetz ist unbeschränkt.\n\n");
 	}
 
 	/**
-	 * Testet, ob ein String an jeder Stelle größer oder gleich dem anderen ist. Da
-	 * ein Vorkommen des selben Knotens bereits im Vorfeld ausgeschlossen wurde,
-	 * erfüllt dies dann das Unbeschränktheits-Kriterium.
+	 * Wird vom {@link Hauptfenster} aufgerufen, um den Überdeckungsgraphen des
+	 * geladenen Petrinetzes zu erstellen. Der Graph wird anstelle des EG
+	 * angezeigt, die Schranken der Stellen werden in die TextArea geschrieben.
+	 * Die Konstruktion läuft in einem {@link SwingWorker}, sie kann noch nicht
+	 * abgebrochen werden.
+	 */
+	public void ueberdeckungsAnalyse() {
+		if (petrinetz == null)
+			addTextToArea("Überdeckungsgraph: Kein Petrinetz geladen.\n");
+		else if (laufendeAnalyse != null)
+			addTextToArea("Überdeckungsgraph: Es läuft bereits eine Analyse.\n");
+		else {
+			loescheEG();
+			addTextToArea("Erstelle Überdeckungsgraph: " + petrinetz.getDateiname() + "\n");
+
+			Petrinetz analysiert = petrinetz;
+			metriken.zuruecksetzen();
+			Ueberdeckungsanalyse verfahren = new Ueberdeckungsanalyse(analysiert);
+
+			SwingWorker<Ueberdeckungsergebnis, Void> worker = new SwingWorker<Ueberdeckungsergebnis, Void>() {
+				@Override
+				protected Ueberdeckungsergebnis doInBackground() {
+					return verfahren.analysiere();
+				}
+
+				@Override
+				protected void done() {
+					beendeFortschritt();
+					try {
+						zeigeUeberdeckung(analysiert, get());
+					} catch (InterruptedException | ExecutionException e) {
+						addTextToArea("Fehler bei der Analyse: " + e.getCause() + "\n\n");
+					}
+				}
+			};
+			starteFortschritt(worker, 0, null);
+			worker.execute();
+		}
+	}
+
+	/**
+	 * Gibt das Ergebnis der Überdeckungsanalyse aus und zeigt den Graphen an,
+	 * sofern noch dasselbe Netz geladen ist.
+	 * 
+	 * @param analysiert analysiertes Petrinetz
+	 * @param ergebnis   Ergebnis der Analyse
+	 */
+	private void zeigeUeberdeckung(Petrinetz analysiert, Ueberdeckungsergebnis ergebnis) {
+		if (analysiert == petrinetz)
+			petrinetz.getEG().uebernehme(ergebnis.getGraph());
+
+		addTextToArea("Knoten / Kanten: " + ergebnis.getGraph().getAnzahlKnoten() + " / "
+				+ ergebnis.getGraph().getAnzahlUebergaenge() + "\n");
+		addTextToArea("Schranken: " + ergebnis.formatiereSchranken() + "\n");
+		if (ergebnis.istBeschraenkt())
+			addTextToArea("Das Petrinetz ist beschränkt.\n\n");
+		else
+			addTextToArea("Das Petrinetz ist unbeschränkt.\n\n");
+	}
+
+	/**
+	 * Wird vom {@link Hauptfenster} aufgerufen und stellt ein, wonach ein großer
+	 * EG zusammengefasst angezeigt wird.
 	 * 
-	 * @param s1 Aktuelle Markierung, die mit dem Pfad verglichen wird
-	 * @param s2 Markierung aus dem Pfad, mit der die aktuelle Markierung verglichen
-	 *           wird
-	 * @return true, wenn Unbeschränktheits-Kriterium erfüllt ist, sonst false
+	 * @param art Art der Gruppierung
+	 */
+	public void setGruppierung(EGGruppierung.Art art) {
+		egGraph.setGruppierungsArt(art);
+	}
+
+	/**
+	 * Wird vom {@link Hauptfenster} aufgerufen und klappt alle Gruppen des
+	 * zusammengefassten EG wieder zu.
 	 */
-	private Boolean erfuelltUnbeschraenktKriterium(String s1, String s2) {
-		char[] s1Chars = s1.toCharArray();
-		char[] s2Chars = s2.toCharArray();
-
-		// Gibt false zurück, wenn s1 an einer Stelle kleiner als s2 ist
-		for (int i = 0; i < s1Chars.length; i++)
-			if (s1Chars[i] < s2Chars[i])
-				return false;
-		// gibt true zurück, wenn s1 an jeder Stelle größer oder gleich s2 ist
-		return true;
+	public void klappeEGZu() {
+		egGraph.klappeZu();
+	}
+
+	/**
+	 * Ordnet den EG in Schichten nach dem Abstand vom Anfangsknoten an. Wird vom
+	 * {@link Hauptfenster} und nach der Analyse eines großen EG aufgerufen. Die
+	 * Struktur des EG wird hier übernommen, das Layout in einem
+	 * {@link SwingWorker} berechnet und danach mit ausgeschaltetem AutoLayout
+	 * angezeigt. Wurde inzwischen ein anderes Netz geladen, wird es verworfen.
+	 */
+	public void berechneLayout() {
+		if (petrinetz == null) {
+			addTextToArea("Schichtenlayout: Kein Petrinetz geladen.\n");
+			return;
+		}
+		if (laufendesLayout != null)
+			laufendesLayout.cancel(false);
+
+		Petrinetz angeordnet = petrinetz;
+		EGSchichtenlayout layout = new EGSchichtenlayout(petrinetz.getEG());
+		laufendesLayout = new SwingWorker<EGSchichtenlayout, Void>() {
+			@Override
+			protected EGSchichtenlayout doInBackground() {
+				return layout.berechne();
+			}
+
+			@Override
+			protected void done() {
+				if (laufendesLayout == this)
+					laufendesLayout = null;
+				if (isCancelled() || angeordnet != petrinetz)
+					return;
+				try {
+					// ausstehende Änderungen vorher zustellen, ein Neuaufbau
+					// würde das Layout sonst gleich wieder verwerfen
+					petrinetz.getEG().getAenderungen().zustellen();
+					egGraph.setSchichtenlayout(get());
+					frame.schalteAutoLayoutAus();
+				} catch (InterruptedException | ExecutionException e) {
+					addTextToArea("Fehler beim Schichtenlayout: " + e.getCause() + "\n\n");
+				}
+			}
+		};
+		laufendesLayout.execute();
 	}
 
 	/**
 	 * Wird nur bei der Einzelanalyse aufgerufen, wenn das PN
 	 * unbeschränkt ist. Visualisiert den Unbeschränkt-Pfad.
+	 * 
+	 * @param ergebnis Ergebnis der Analyse
 	 */
-	private void visualisierePfad() {
+	private void visualisierePfad(Analyseergebnis ergebnis) {
+		
+		// übernommenen EG sofort zustellen und die Gruppen des Pfades
+		// aufklappen, damit der Pfad im Graphen liegt
+		petrinetz.getEG().getAenderungen().zustellen();
+		ArrayList<Markierung> pfad = new ArrayList<Markierung>(ergebnis.getPfadMarkierungen());
+		pfad.add(ergebnis.getPfadAnfang());
+		pfad.add(ergebnis.getPfadEnde());
+		egGraph.zeige(pfad);
+
+		String pfadAnfang = ergebnis.getPfadAnfang().toString();
+		String pfadEnde = ergebnis.getPfadEnde().toString();
 		
 		egGraph.getNode(pfadEnde).addAttribute("ui.class", "pfadEnde");
 		
@@ -386,27 +632,39 @@ public class Controller {
 		else
 			egGraph.getNode(pfadAnfang).addAttribute("ui.class", "pfadAnfang");
 
-		String aktuellerKnoten = markierungen.pop();
-
+		ArrayList<Markierung> markierungen = ergebnis.getPfadMarkierungen();
+		
 		// Pfad rückwärts markieren
-		while(!markierungen.empty()){
-			String vorgaenger = markierungen.pop();
+		for (int i = markierungen.size() - 1; i > 0; i--) {
+			String aktuellerKnoten = markierungen.get(i).toString();
+			String vorgaenger = markierungen.get(i - 1).toString();
 			egGraph.getNode(aktuellerKnoten).getEdgeFrom(vorgaenger).addAttribute("ui.class", "pfad");
-			aktuellerKnoten = vorgaenger;
 		}
 		
 	}
 
 	/**
 	 * Wird vom {@link Hauptfenster} beim Auswählen der Stapelanalyse aufgerufen.
-	 * Startet die Stapelanalyse für einen Datei-Stapel und gibt das Ergebnis am Ende
-	 * der Stapelverarbeitung als übersichtliche Ausgabe in der TextArea aus. Dafür
-	 * wird die Visualisierung ausgeschaltet, die Dateien nacheinander über den
-	 * Parser geladen und mittels der Analyse-Funktion analysiert.
+	 * Startet die Stapelanalyse für einen Datei-Stapel und gibt das Ergebnis
+	 * zeilenweise als übersichtliche Ausgabe in der TextArea aus, sobald eine
+	 * Datei fertig ist. Dafür wird die Visualisierung ausgeschaltet und die
+	 * Dateien werden über die {@link Stapelanalyse} nebenläufig in eigenen
+	 * Sitzungen analysiert. Der Stapel läuft in einem {@link SwingWorker} und
+	 * kann über die Fortschrittsanzeige abgebrochen werden.
 	 * 
 	 * @param dateien zu analysierender DateiStapel
 	 */
 	public void stapelAnalyse(File[] dateien) {
+		if (laufendeAnalyse != null) {
+			addTextToArea("Stapelanalyse: Es läuft bereits eine Analyse.\n");
+			return;
+		}
+
+		// Graphische Darstellung löschen
+		trennePetrinetz();
+		petrinetz = null;
+		pnGraph.clear();
+		egGraph.clear();
 
 		StringBuilder sb = new StringBuilder();
 		Formatter formatter = new Formatter(sb);
@@ -417,49 +675,77 @@ public class Controller {
 		formatter.format("%-55.55s | %-11.11s | Knoten / Kanten bzw \n", "", "");
 		formatter.format("%-55.55s | %-11.11s | Pfadlänge:Pfad; m, m' \n", "Dateiname", "beschränkt");
 		formatter.format("%-55.55s | %-11.11s | %45.45s \n", line, line, line);
+		addTextToArea(formatter.toString());
+		formatter.close();
 
-		// Jede Datei aus dem übergebenen Array analysieren
-		for (File datei : dateien) {
-			parse(datei);
-			analyse();
-
-			// Ausgabe zum Formatter hinzufügen
-			if (beschraenkt) {
-				int anzahlKnoten = petrinetz.getEG().getAnzahlKnoten();
-				int anzahlUebergaenge = petrinetz.getEG().getAnzahlUebergaenge();
-				formatter.format("%-55.55s | %-11.11s | %d / %d \n", petrinetz.getDateiname(), "ja",
-						anzahlKnoten, anzahlUebergaenge);
+		metriken.zuruecksetzen();
+		Stapelanalyse stapel = new Stapelanalyse();
+		stapel.setMetriken(metriken);
+
+		SwingWorker<Void, Stapelergebnis> worker = new SwingWorker<Void, Stapelergebnis>() {
+			@Override
+			protected Void doInBackground() {
+				// Jede Datei in einer eigenen Sitzung nebenläufig analysieren,
+				// die Zeilen entstehen in der Reihenfolge der Dateien
+				stapel.analysiere(Arrays.asList(dateien), stapelergebnis -> publish(stapelergebnis));
+				return null;
 			}
-			else
-				formatter.format("%-55.55s | %-11.11s | %d:%-17s %-16s %s  \n", petrinetz.getDateiname(), "nein",
-						transitionen.size(), formatTransitionen(), pfadAnfang + ",", pfadEnde);
 
-			petrinetz.resetEG();
-		}
+			@Override
+			protected void process(List<Stapelergebnis> stapelergebnisse) {
+				for (Stapelergebnis stapelergebnis : stapelergebnisse)
+					addTextToArea(formatiereZeile(stapelergebnis));
+				dateienFertig += stapelergebnisse.size();
+			}
 
-		formatter.format("\n\n");
-		
-		// Tabelle in TextArea ausgeben
-		addTextToArea(formatter.toString());
-		formatter.close();
+			@Override
+			protected void done() {
+				beendeFortschritt();
+				try {
+					get();
+				} catch (InterruptedException | ExecutionException e) {
+					addTextToArea("Fehler bei der Stapelanalyse: " + e.getCause() + "\n");
+				}
+				if (stapel.istAbgebrochen())
+					addTextToArea("Stapelanalyse abgebrochen.\n");
+				addTextToArea("\n\n");
+			}
+		};
+		starteFortschritt(worker, dateien.length, stapel::abbrechen);
+		worker.execute();
+	}
 
-		// Graphische Darstellung löschen
-		petrinetz = null;
-		pnGraph.clear();
-		egGraph.clear();
+	/**
+	 * Formatiert das Ergebnis einer Datei als Zeile der Tabelle der
+	 * Stapelanalyse. Ist die Datei gescheitert, steht der Fehler in der Zeile.
+	 * 
+	 * @param stapelergebnis Ergebnis der Datei
+	 * @return Zeile mit Zeilenumbruch
+	 */
+	private String formatiereZeile(Stapelergebnis stapelergebnis) {
+		if (stapelergebnis.getFehler() != null)
+			return String.format("%-55.55s | %-11.11s | %s \n", stapelergebnis.getDatei().getName(), "Fehler",
+					stapelergebnis.getFehler());
+		Analyseergebnis ergebnis = stapelergebnis.getErgebnis();
+		if (ergebnis.istBeschraenkt()) {
+			int anzahlKnoten = ergebnis.getErreichbarkeitsgraph().getAnzahlKnoten();
+			int anzahlUebergaenge = ergebnis.getErreichbarkeitsgraph().getAnzahlUebergaenge();
+			return String.format("%-55.55s | %-11.11s | %d / %d \n", ergebnis.getDateiname(),
+					ergebnis.istAbgebrochen() ? "abgebrochen" : "ja", anzahlKnoten, anzahlUebergaenge);
+		}
+		else
+			return String.format("%-55.55s | %-11.11s | %d:%-17s %-16s %s  \n", ergebnis.getDateiname(), "nein",
+					ergebnis.getPfadTransitionen().size(), formatTransitionen(ergebnis.getPfadTransitionen()),
+					ergebnis.getPfadAnfang() + ",", ergebnis.getPfadEnde());
 	}
 
 	/**
-	 * Bringt den Transitions-Stack in das richtige Format für die Tabellenausgabe
-	 * @return printfähige Auflistung des Transitions-Stacks
+	 * Bringt die Transitionen des Pfades in das richtige Format für die Tabellenausgabe
+	 * @param transitionen Transitionen des Pfades
+	 * @return printfähige Auflistung der Transitionen
 	 */
-	private String formatTransitionen() {
-		String t = "(";
-		while (!transitionen.empty())
-			t += transitionen.remove(0) + ",";
-		t = t.substring(0, t.length() - 1);
-		t += ");";
-		return t;
+	private String formatTransitionen(ArrayList<String> transitionen) {
+		return "(" + String.join(",", transitionen) + ");";
 	}
 
 }
@@ -0,0 +1,167 @@
+package petrinets.model.analyse;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+
+import petrinets.model.eg.Erreichbarkeitsgraph;
+import petrinets.model.eg.Markierung;
+
+/**
+ * Ein Objekt dieser Klasse hält das Ergebnis einer
+ * {@link Beschraenktheitsanalyse}: ob das Netz beschränkt ist, den dabei
+ * aufgebauten Erreichbarkeitsgraphen und bei Unbeschränktheit den gefundenen
+ * Pfad von der Anfangsmarkierung zu m'.
+ *
+ * Die Anzahlen der Markierungen, Übergänge und Verklemmungen liefern alle
+ * Ergebnisse über dieselben Methoden, auch wenn ein Verfahren den EG nicht
+ * aufbaut.
+ */
+public class Analyseergebnis {
+
+	private final String dateiname;
+	private final boolean beschraenkt;
+	private final Erreichbarkeitsgraph eg;
+	private final ArrayList<Markierung> pfadMarkierungen;
+	private final ArrayList<String> pfadTransitionen;
+	private final Markierung pfadAnfang;
+	private final Markierung pfadEnde;
+	private boolean abgebrochen;
+
+	/**
+	 * Der Konstruktor wird am Ende der Analyse aufgerufen und setzt alle
+	 * Ergebnisse.
+	 * 
+	 * @param dateiname        Dateiname des analysierten Petrinetzes
+	 * @param beschraenkt      true, wenn das Netz beschränkt ist
+	 * @param eg               der während der Analyse aufgebaute EG, null wenn
+	 *                         das Verfahren keinen EG aufbaut
+	 * @param pfadMarkierungen Markierungen auf dem Pfad zu m', leer wenn beschränkt
+	 * @param pfadTransitionen Transitionen auf dem Pfad zu m', leer wenn beschränkt
+	 * @param pfadAnfang       Markierung m, null wenn beschränkt
+	 * @param pfadEnde         Markierung m', null wenn beschränkt
+	 */
+	protected Analyseergebnis(String dateiname, boolean beschraenkt, Erreichbarkeitsgraph eg,
+			ArrayList<Markierung> pfadMarkierungen, ArrayList<String> pfadTransitionen, Markierung pfadAnfang,
+			Markierung pfadEnde) {
+		this.dateiname = dateiname;
+		this.beschraenkt = beschraenkt;
+		this.eg = eg;
+		this.pfadMarkierungen = pfadMarkierungen;
+		this.pfadTransitionen = pfadTransitionen;
+		this.pfadAnfang = pfadAnfang;
+		this.pfadEnde = pfadEnde;
+	}
+
+	/**
+	 * Gibt den Dateinamen des analysierten Petrinetzes zurück.
+	 * 
+	 * @return Dateiname
+	 */
+	public String getDateiname() {
+		return dateiname;
+	}
+
+	/**
+	 * Gibt zurück, ob das Petrinetz beschränkt ist.
+	 * 
+	 * @return true, wenn beschränkt, sonst false
+	 */
+	public boolean istBeschraenkt() {
+		return beschraenkt;
+	}
+
+	/**
+	 * Gibt den während der Analyse aufgebauten EG zurück.
+	 * 
+	 * @return Erreichbarkeitsgraph oder null, wenn das Verfahren keinen EG
+	 *         aufbaut
+	 */
+	public Erreichbarkeitsgraph getErreichbarkeitsgraph() {
+		return eg;
+	}
+
+	/**
+	 * Gibt die Anzahl der gefundenen Markierungen zurück, hier die Knoten des
+	 * EG.
+	 * 
+	 * @return Anzahl der Markierungen
+	 */
+	public BigInteger getAnzahlZustaende() {
+		return BigInteger.valueOf(eg.getAnzahlKnoten());
+	}
+
+	/**
+	 * Gibt die Anzahl der Übergänge zwischen den gefundenen Markierungen zurück,
+	 * hier die Kanten des EG.
+	 * 
+	 * @return Anzahl der Übergänge
+	 */
+	public BigInteger getAnzahlUebergaenge() {
+		return BigInteger.valueOf(eg.getAnzahlUebergaenge());
+	}
+
+	/**
+	 * Gibt die Anzahl der gefundenen Markierungen zurück, unter denen keine
+	 * Transition aktiviert ist.
+	 * 
+	 * @return Anzahl der Verklemmungen
+	 */
+	public BigInteger getAnzahlVerklemmungen() {
+		return BigInteger.valueOf(eg.getAnzahlVerklemmungen());
+	}
+
+	/**
+	 * Gibt die Markierungen auf dem Pfad von der Anfangsmarkierung zu m' zurück.
+	 * 
+	 * @return Markierungen des Pfades, leer wenn beschränkt
+	 */
+	public ArrayList<Markierung> getPfadMarkierungen() {
+		return pfadMarkierungen;
+	}
+
+	/**
+	 * Gibt die Transitionen auf dem Pfad von der Anfangsmarkierung zu m' zurück.
+	 * 
+	 * @return Transitionen des Pfades, leer wenn beschränkt
+	 */
+	public ArrayList<String> getPfadTransitionen() {
+		return pfadTransitionen;
+	}
+
+	/**
+	 * Gibt die Markierung m zurück, die von m' überdeckt wird.
+	 * 
+	 * @return Markierung m, null wenn beschränkt
+	 */
+	public Markierung getPfadAnfang() {
+		return pfadAnfang;
+	}
+
+	/**
+	 * Gibt die Markierung m' zurück, die m überdeckt.
+	 * 
+	 * @return Markierung m', null wenn beschränkt
+	 */
+	public Markierung getPfadEnde() {
+		return pfadEnde;
+	}
+
+	/**
+	 * Kennzeichnet das Ergebnis als abgebrochen.
+	 */
+	void setAbgebrochen() {
+		abgebrochen = true;
+	}
+
+	/**
+	 * Gibt zurück, ob die Analyse vor ihrem Ende abgebrochen wurde. Der EG
+	 * enthält dann nur den bis dahin aufgebauten Teil, ein Netz gilt als
+	 * beschränkt, solange kein Pfad zu m' gefunden wurde.
+	 *
+	 * @return true, wenn die Analyse abgebrochen wurde
+	 */
+	public boolean istAbgebrochen() {
+		return abgebrochen;
+	}
+
+}
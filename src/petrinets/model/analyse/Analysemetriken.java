@@ -0,0 +1,278 @@
+package petrinets.model.analyse;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Sammelt Kennzahlen laufender Analysen, damit der Fortschritt einer langen
+ * Suche sichtbar wird. Die Zähler sind {@link LongAdder}, mehrere Threads und
+ * mehrere gleichzeitig laufende Analysen können daher ohne gegenseitiges
+ * Warten melden.
+ *
+ * Die Analyseverfahren zählen in einer eigenen {@link Erfassung} ohne
+ * Synchronisation und übertragen ihre Zähler nur alle
+ * {@value #MELDEINTERVALL} Schritte und am Ende. Tiefe, Anzahl der
+ * gespeicherten Zustände und belegte Bytes werden dabei als Momentaufnahme
+ * gemeldet, bei mehreren Analysen gilt die zuletzt gemeldete.
+ *
+ * Mit {@link #registriere()} werden die Metriken als MBean angemeldet, mit
+ * {@link #starteBericht(long, Consumer)} wird regelmäßig eine
+ * Zusammenfassung ausgegeben.
+ */
+public class Analysemetriken implements AnalysemetrikenMBean {
+
+	/** Name, unter dem die Metriken per JMX angemeldet werden */
+	public static final String OBJEKTNAME = "petrinets:type=Analysemetriken";
+
+	/** Anzahl der Schritte, nach denen eine Erfassung ihre Zähler überträgt */
+	public static final int MELDEINTERVALL = 4096;
+
+	// Mindestdauer eines Messfensters für die Rate in Nanosekunden
+	private static final long FENSTER = 500_000_000L;
+
+	private final LongAdder zustaende = new LongAdder();
+	private final LongAdder geschaltet = new LongAdder();
+	private final LongAdder ruecksprunge = new LongAdder();
+	private final AtomicInteger laufend = new AtomicInteger();
+
+	private volatile long tiefe;
+	private volatile long gespeichert;
+	private volatile long belegteBytes;
+
+	// Messfenster für die Rate
+	private long fensterAnfang = System.nanoTime();
+	private long fensterZustaende;
+	private double rate = -1;
+
+	private ScheduledExecutorService bericht;
+
+	/**
+	 * Zählt die Schritte einer einzelnen Analyse in einem Thread. Die Zähler
+	 * sind einfache Felder, die das Analyseverfahren direkt erhöht. Ohne
+	 * Metriken wird nichts übertragen. Arbeitet eine Analyse mit mehreren
+	 * Threads, erhält jeder über {@link #teil()} eine eigene Erfassung.
+	 */
+	static final class Erfassung {
+
+		private final Analysemetriken metriken;
+		private final boolean analyse;
+		private int schritte;
+
+		long zustaende;
+		long geschaltet;
+		long ruecksprunge;
+
+		/**
+		 * Erstellt eine Erfassung und zählt die Analyse als laufend.
+		 *
+		 * @param metriken Ziel der Meldungen oder null
+		 */
+		Erfassung(Analysemetriken metriken) {
+			this(metriken, true);
+		}
+
+		private Erfassung(Analysemetriken metriken, boolean analyse) {
+			this.metriken = metriken;
+			this.analyse = analyse;
+			if (metriken != null && analyse)
+				metriken.laufend.incrementAndGet();
+		}
+
+		/**
+		 * Erstellt eine Erfassung für einen weiteren Thread derselben Analyse.
+		 *
+		 * @return neue Erfassung mit denselben Metriken
+		 */
+		Erfassung teil() {
+			return new Erfassung(metriken, false);
+		}
+
+		/**
+		 * Zählt einen Schritt.
+		 *
+		 * @return true, wenn die Zähler übertragen werden sollen
+		 */
+		boolean faellig() {
+			if (metriken == null || ++schritte < MELDEINTERVALL)
+				return false;
+			schritte = 0;
+			return true;
+		}
+
+		/**
+		 * Überträgt die Zähler in die Metriken und setzt sie zurück.
+		 */
+		void uebertrage() {
+			if (metriken == null)
+				return;
+			metriken.zustaende.add(zustaende);
+			metriken.geschaltet.add(geschaltet);
+			metriken.ruecksprunge.add(ruecksprunge);
+			zustaende = 0;
+			geschaltet = 0;
+			ruecksprunge = 0;
+		}
+
+		/**
+		 * Meldet den aktuellen Stand der Suche.
+		 *
+		 * @param tiefe       Tiefe der Suche
+		 * @param gespeichert Anzahl der gespeicherten Zustände
+		 * @param bytes       vom Speicher belegte Bytes, 0 wenn unbekannt
+		 */
+		void meldeStand(long tiefe, long gespeichert, long bytes) {
+			if (metriken == null)
+				return;
+			metriken.tiefe = tiefe;
+			metriken.gespeichert = gespeichert;
+			metriken.belegteBytes = bytes;
+		}
+
+		/**
+		 * Überträgt die restlichen Zähler und zählt die Analyse als beendet.
+		 */
+		void schliesse() {
+			if (metriken == null)
+				return;
+			uebertrage();
+			if (analyse)
+				metriken.laufend.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Meldet die Metriken unter {@value #OBJEKTNAME} beim MBean-Server der
+	 * Plattform an. Ein dort schon angemeldetes Objekt wird ersetzt.
+	 */
+	public void registriere() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJEKTNAME);
+			if (server.isRegistered(name))
+				server.unregisterMBean(name);
+			server.registerMBean(this, name);
+		} catch (JMException e) {
+			System.err.println("Metriken konnten nicht per JMX angemeldet werden: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gibt regelmäßig eine {@link #zusammenfassung()} aus, bis
+	 * {@link #beendeBericht()} aufgerufen wird. Die Ausgabe läuft in einem
+	 * eigenen Daemon-Thread. Ein schon laufender Bericht wird beendet.
+	 *
+	 * @param intervall Abstand der Ausgaben in Millisekunden
+	 * @param ausgabe   erhält die Zeilen
+	 */
+	public synchronized void starteBericht(long intervall, Consumer<String> ausgabe) {
+		beendeBericht();
+		bericht = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "analysemetriken");
+			t.setDaemon(true);
+			return t;
+		});
+		bericht.scheduleAtFixedRate(() -> ausgabe.accept(zusammenfassung()), intervall, intervall,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Beendet die regelmäßige Ausgabe.
+	 */
+	public synchronized void beendeBericht() {
+		if (bericht != null) {
+			bericht.shutdownNow();
+			bericht = null;
+		}
+	}
+
+	/**
+	 * Fasst die Metriken in einer Zeile zusammen.
+	 *
+	 * @return Zusammenfassung
+	 */
+	public String zusammenfassung() {
+		return String.format("Zustände: %d (%.0f/s), geschaltet: %d, Tiefe: %d, gespeichert: %d (%.1f Bytes/Zustand),"
+				+ " Rücksprünge: %d", getEntdeckteZustaende(), getZustaendeJeSekunde(),
+				getGeschalteteTransitionen(), getTiefe(), getGespeicherteZustaende(), getBytesJeZustand(),
+				getRuecksprunge());
+	}
+
+	@Override
+	public long getEntdeckteZustaende() {
+		return zustaende.sum();
+	}
+
+	@Override
+	public long getGeschalteteTransitionen() {
+		return geschaltet.sum();
+	}
+
+	/**
+	 * Die Rate wird über ein Fenster von mindestens einer halben Sekunde
+	 * zwischen zwei Abfragen gemessen. Bis das erste Fenster voll ist, gilt die
+	 * Rate seit dem Zurücksetzen.
+	 */
+	@Override
+	public synchronized double getZustaendeJeSekunde() {
+		long jetzt = System.nanoTime();
+		long z = getEntdeckteZustaende();
+		long dauer = jetzt - fensterAnfang;
+		if (dauer >= FENSTER) {
+			rate = (z - fensterZustaende) * 1e9 / dauer;
+			fensterAnfang = jetzt;
+			fensterZustaende = z;
+		} else if (rate < 0)
+			return dauer > 0 ? (z - fensterZustaende) * 1e9 / dauer : 0;
+		return rate;
+	}
+
+	@Override
+	public long getTiefe() {
+		return tiefe;
+	}
+
+	@Override
+	public long getGespeicherteZustaende() {
+		return gespeichert;
+	}
+
+	@Override
+	public double getBytesJeZustand() {
+		long anzahl = gespeichert;
+		long bytes = belegteBytes;
+		return anzahl > 0 ? (double) bytes / anzahl : 0;
+	}
+
+	@Override
+	public long getRuecksprunge() {
+		return ruecksprunge.sum();
+	}
+
+	@Override
+	public int getLaufendeAnalysen() {
+		return laufend.get();
+	}
+
+	@Override
+	public synchronized void zuruecksetzen() {
+		zustaende.reset();
+		geschaltet.reset();
+		ruecksprunge.reset();
+		tiefe = 0;
+		gespeichert = 0;
+		belegteBytes = 0;
+		fensterAnfang = System.nanoTime();
+		fensterZustaende = 0;
+		rate = -1;
+	}
+
+}
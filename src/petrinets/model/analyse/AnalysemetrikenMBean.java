@@ -0,0 +1,54 @@
+package petrinets.model.analyse;
+
+/**
+ * Verwaltungsschnittstelle der {@link Analysemetriken}, über die sie per JMX,
+ * etwa in JConsole, beobachtet werden können.
+ */
+public interface AnalysemetrikenMBean {
+
+	/**
+	 * @return Anzahl der bisher entdeckten Zustände
+	 */
+	long getEntdeckteZustaende();
+
+	/**
+	 * @return Anzahl der bisher geschalteten Transitionen
+	 */
+	long getGeschalteteTransitionen();
+
+	/**
+	 * @return entdeckte Zustände je Sekunde seit der letzten Messung
+	 */
+	double getZustaendeJeSekunde();
+
+	/**
+	 * @return zuletzt gemeldete Tiefe der Tiefensuche
+	 */
+	long getTiefe();
+
+	/**
+	 * @return zuletzt gemeldete Anzahl der gespeicherten Zustände
+	 */
+	long getGespeicherteZustaende();
+
+	/**
+	 * @return zuletzt gemeldete Bytes je gespeichertem Zustand, 0 wenn unbekannt
+	 */
+	double getBytesJeZustand();
+
+	/**
+	 * @return Anzahl der Rücksprünge der Tiefensuche
+	 */
+	long getRuecksprunge();
+
+	/**
+	 * @return Anzahl der laufenden Analysen
+	 */
+	int getLaufendeAnalysen();
+
+	/**
+	 * Setzt alle Zähler auf 0 zurück.
+	 */
+	void zuruecksetzen();
+
+}
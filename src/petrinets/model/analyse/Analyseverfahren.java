@@ -0,0 +1,48 @@
+package petrinets.model.analyse;
+
+/**
+ * Gemeinsame Schnittstelle der Verfahren, die ein Petrinetz auf Beschränktheit
+ * analysieren. Der {@link petrinets.controller.Controller} und die
+ * {@link Stapelanalyse} arbeiten nur mit dieser Schnittstelle und können so
+ * zwischen expliziter und symbolischer Analyse wechseln.
+ */
+public interface Analyseverfahren {
+
+	/**
+	 * Führt die Analyse ausgehend von der Anfangsmarkierung durch.
+	 *
+	 * @return Ergebnis der Analyse
+	 */
+	Analyseergebnis analysiere();
+
+	/**
+	 * Übergibt Metriken, an die die Analyse ihren Fortschritt meldet. Verfahren
+	 * ohne eigene Zählung ignorieren sie.
+	 *
+	 * @param metriken Ziel der Meldungen, null zum Abschalten
+	 */
+	default void setMetriken(Analysemetriken metriken) {
+	}
+
+	/**
+	 * Bittet eine laufende Analyse, sich zu beenden. Unterstützt das Verfahren
+	 * den Abbruch, liefert {@link #analysiere()} nach wenigen Schritten das bis
+	 * dahin erreichte Ergebnis, das als abgebrochen gekennzeichnet ist. Der
+	 * Abbruch gilt auch für spätere Aufrufe. Kann aus jedem Thread aufgerufen
+	 * werden, Verfahren ohne Unterstützung laufen bis zum Ende.
+	 */
+	default void abbrechen() {
+	}
+
+	/**
+	 * Begrenzt die Anzahl der Zustände, die die Analyse im Heap ablegt.
+	 * Überschreitet die Analyse die Grenze, scheitert {@link #analysiere()} mit
+	 * einer {@link IllegalStateException} und gibt ihren Graphen frei. Verfahren,
+	 * deren Speicher ohnehin begrenzt ist, ignorieren die Grenze.
+	 *
+	 * @param grenze höchste Anzahl an Zuständen
+	 */
+	default void setZustandsgrenze(long grenze) {
+	}
+
+}
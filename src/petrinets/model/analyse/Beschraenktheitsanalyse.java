@@ -0,0 +1,302 @@
+package petrinets.model.analyse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Stack;
+
+import petrinets.model.eg.Erreichbarkeitsgraph;
+import petrinets.model.eg.Markierung;
+import petrinets.model.pn.KompiliertesNetz;
+import petrinets.model.pn.Petrinetz;
+
+/**
+ * Diese Klasse führt die Beschränktheitsanalyse eines Petrinetzes durch. Sie
+ * arbeitet ausschließlich auf dem {@link KompiliertesNetz} und einer eigenen
+ * Markierung, das Petrinetz selbst wird dabei nicht verändert. Der
+ * Erreichbarkeitsgraph wird abseits der Anzeige aufgebaut, während der Analyse
+ * werden keine Beobachter benachrichtigt.
+ *
+ * Jede Markierung wird nur bei ihrer Entdeckung expandiert und mit den
+ * Vorfahren auf ihrem Entdeckungspfad verglichen. Spätere Pfade zu einer
+ * bereits im EG vorhandenen Markierung werden nicht weiter verfolgt, die Suche
+ * ist daher linear in der Größe des EG. Warum dabei keine Unbeschränktheit
+ * übersehen wird, ist bei der {@link Zustandsraumanalyse} beschrieben.
+ *
+ * Die Klasse hängt weder von Swing noch von GraphStream ab und kann daher auch
+ * ohne grafische Oberfläche genutzt werden.
+ *
+ * Mit Reduktion werden je Markierung nur die aktivierten Transitionen einer
+ * Stubborn-Menge geschaltet (siehe {@link KompiliertesNetz#stubbornMenge}).
+ * Führt jede mögliche Menge auf eine Markierung des aktuellen Pfades, wird die
+ * Markierung vollständig expandiert, sodass auf keinem Kreis eine Transition
+ * dauerhaft übergangen wird. Der EG
+ * enthält dann nur einen Teil der erreichbaren Markierungen. Beschränktheit
+ * und Verklemmungsfreiheit werden wie ohne Reduktion erkannt.
+ */
+public class Beschraenktheitsanalyse implements Analyseverfahren {
+
+	private final KompiliertesNetz netz;
+	private final String dateiname;
+	private final Markierung anfangsmarkierung;
+	private final boolean reduktion;
+	private Analysemetriken metriken;
+	private volatile boolean abgebrochen;
+	private long zustandsgrenze = Long.MAX_VALUE;
+
+	private Erreichbarkeitsgraph eg;
+	private int[] marken;
+	private BitSet aktiviert;
+
+	// Suchebenen der Tiefensuche: Markierung, aktivierte und zu schaltende
+	// Transitionen und die nächste zu prüfende Transition, indiziert nach der
+	// Tiefe
+	private Markierung[] ebenenMarkierung;
+	private BitSet[] ebenenAktiviert;
+	private BitSet[] ebenenAuswahl;
+	private int[] ebenenCursor;
+	private int tiefe;
+
+	private Vorfahrenindex markierungen;
+	private Stack<String> transitionen;
+	private boolean beschraenkt;
+	private Markierung pfadAnfang;
+	private Markierung pfadEnde;
+	private Analysemetriken.Erfassung erfassung;
+
+	/**
+	 * Der Konstruktor übernimmt das kompilierte Netz und die Anfangsmarkierung
+	 * des übergebenen Petrinetzes.
+	 *
+	 * @param pn zu analysierendes Petrinetz
+	 */
+	public Beschraenktheitsanalyse(Petrinetz pn) {
+		this(pn, false);
+	}
+
+	/**
+	 * Der Konstruktor übernimmt das kompilierte Netz und die Anfangsmarkierung
+	 * des übergebenen Petrinetzes.
+	 *
+	 * @param pn        zu analysierendes Petrinetz
+	 * @param reduktion true, um nur Stubborn-Mengen zu schalten
+	 */
+	public Beschraenktheitsanalyse(Petrinetz pn, boolean reduktion) {
+		netz = pn.getKompiliertesNetz();
+		dateiname = pn.getDateiname();
+		anfangsmarkierung = pn.getAnfangsmarkierung();
+		this.reduktion = reduktion;
+	}
+
+	@Override
+	public void setMetriken(Analysemetriken metriken) {
+		this.metriken = metriken;
+	}
+
+	@Override
+	public void abbrechen() {
+		abgebrochen = true;
+	}
+
+	@Override
+	public void setZustandsgrenze(long grenze) {
+		zustandsgrenze = grenze;
+	}
+
+	/**
+	 * Startet die Beschränktheitsanalyse ausgehend von der Anfangsmarkierung.
+	 *
+	 * @return Ergebnis der Analyse
+	 */
+	@Override
+	public Analyseergebnis analysiere() {
+		eg = new Erreichbarkeitsgraph(anfangsmarkierung);
+		marken = new int[netz.getAnzahlStellen()];
+		anfangsmarkierung.kopiereNach(marken);
+		aktiviert = new BitSet(netz.getAnzahlTransitionen());
+		netz.pruefeAktivierung(marken, aktiviert);
+
+		markierungen = new Vorfahrenindex();
+		transitionen = new Stack<String>();
+		beschraenkt = true;
+		pfadAnfang = null;
+		pfadEnde = null;
+
+		ebenenMarkierung = new Markierung[64];
+		ebenenAktiviert = new BitSet[64];
+		ebenenAuswahl = new BitSet[64];
+		ebenenCursor = new int[64];
+		erfassung = new Analysemetriken.Erfassung(metriken);
+		try {
+			analysiereNetz();
+		} finally {
+			erfassung.meldeStand(tiefe, eg.getAnzahlKnoten(), 0);
+			erfassung.schliesse();
+			erfassung = null;
+		}
+		boolean unterbrochen = beschraenkt && tiefe > 0;
+		ebenenMarkierung = null;
+		ebenenAktiviert = null;
+		ebenenAuswahl = null;
+		ebenenCursor = null;
+
+		if (beschraenkt) {
+			Analyseergebnis ergebnis = new Analyseergebnis(dateiname, true, eg, new ArrayList<Markierung>(),
+					new ArrayList<String>(), null, null);
+			// bei einem Abbruch ist der EG nur ein Ausschnitt
+			if (unterbrochen)
+				ergebnis.setAbgebrochen();
+			return ergebnis;
+		}
+		return new Analyseergebnis(dateiname, false, eg, markierungen.getMarkierungen(),
+				new ArrayList<String>(transitionen), pfadAnfang, pfadEnde);
+	}
+
+	/**
+	 * Analysiert auf Beschränktheit, indem nach und nach alle aktivierten
+	 * Transitionen in der Art einer Tiefensuche geschaltet werden. Die Suche
+	 * läuft iterativ über einen expliziten Stapel von Suchebenen, ihre Tiefe ist
+	 * daher nur durch den Heap und nicht durch den Thread-Stack begrenzt.
+	 */
+	private void analysiereNetz() {
+		tiefe = 0;
+		betreteMarkierung(anfangsmarkierung, true);
+
+		while (beschraenkt && tiefe > 0 && !abgebrochen) {
+			int ebene = tiefe - 1;
+			Markierung m = ebenenMarkierung[ebene];
+			if (erfassung.faellig()) {
+				erfassung.uebertrage();
+				erfassung.meldeStand(tiefe, eg.getAnzahlKnoten(), 0);
+			}
+
+			// nächste noch nicht geschaltete Transition dieser Ebene suchen,
+			// die Transitionen werden absteigend abgearbeitet
+			int t = ebenenAuswahl[ebene].previousSetBit(ebenenCursor[ebene]);
+			if (t < 0) {
+				// Ebene vollständig abgearbeitet: zur vorherigen zurückkehren
+				ebenenMarkierung[ebene] = null;
+				ebenenAktiviert[ebene] = null;
+				ebenenAuswahl[ebene] = null;
+				tiefe--;
+				erfassung.ruecksprunge++;
+				continue;
+			}
+			ebenenCursor[ebene] = t - 1;
+
+			// Markierung und Pfad zurücksetzen auf diese Ebene
+			m.kopiereNach(marken);
+			aktiviert.clear();
+			aktiviert.or(ebenenAktiviert[ebene]);
+			while (!markierungen.peek().equals(m)) {
+				markierungen.pop();
+				transitionen.pop();
+			}
+
+			// Transition schalten und mit der Folgemarkierung fortfahren
+			String tID = netz.getTransitionID(t);
+			transitionen.push(tID);
+			netz.schalten(t, marken);
+			erfassung.geschaltet++;
+			netz.aktualisiereAktivierung(t, marken, aktiviert);
+			Markierung folge = new Markierung(marken);
+			boolean neu = !eg.getAlleKnoten().containsKey(folge);
+			eg.ergaenzeUebergang(m, folge, tID);
+			if (neu && eg.getAnzahlKnoten() > zustandsgrenze)
+				throw new IllegalStateException("Mehr als " + zustandsgrenze + " Zustände im EG");
+			betreteMarkierung(folge, neu);
+		}
+	}
+
+	/**
+	 * Nimmt die aktuelle Markierung in den Pfad auf. Ist sie neu im EG und das
+	 * Netz noch beschränkt, wird für sie eine neue Suchebene angelegt.
+	 *
+	 * @param m   die aktuelle Markierung
+	 * @param neu true, wenn die Markierung gerade erst entdeckt wurde
+	 */
+	private void betreteMarkierung(Markierung m, boolean neu) {
+		// nur weitermachen, wenn die Markierung noch nicht vorhanden ist,
+		// ansonsten Markierung nur auf Stack pushen, damit der Pfad beim
+		// Zurücksetzen auf die Ebene stimmt, aber Analyse an anderer Stelle
+		// fortführen
+		if (!neu) {
+			markierungen.push(m);
+			return;
+		}
+
+		// wenn m neu hinzugekommen ist: Pfad auf Beschränktheit überprüfen
+		beschraenkt = pfadOK(m);
+		markierungen.push(m);
+		if (!beschraenkt)
+			return;
+
+		if (tiefe == ebenenMarkierung.length) {
+			ebenenMarkierung = Arrays.copyOf(ebenenMarkierung, tiefe * 2);
+			ebenenAktiviert = Arrays.copyOf(ebenenAktiviert, tiefe * 2);
+			ebenenAuswahl = Arrays.copyOf(ebenenAuswahl, tiefe * 2);
+			ebenenCursor = Arrays.copyOf(ebenenCursor, tiefe * 2);
+		}
+		ebenenMarkierung[tiefe] = m;
+		ebenenAktiviert[tiefe] = (BitSet) aktiviert.clone();
+		ebenenAuswahl[tiefe] = reduktion ? reduziere(ebenenAktiviert[tiefe]) : ebenenAktiviert[tiefe];
+		ebenenCursor[tiefe] = netz.getAnzahlTransitionen() - 1;
+		tiefe++;
+		erfassung.zustaende++;
+	}
+
+	/**
+	 * Bestimmt die unter der aktuellen Markierung zu schaltenden Transitionen.
+	 * Gewählt wird die kleinste Stubborn-Menge, von der keine Folgemarkierung auf
+	 * dem aktuellen Pfad liegt. Gibt es keine solche, werden alle aktivierten
+	 * Transitionen zurückgegeben.
+	 *
+	 * @param alle alle unter der aktuellen Markierung aktivierten Transitionen
+	 * @return zu schaltende Transitionen
+	 */
+	private BitSet reduziere(BitSet alle) {
+		int anzahlAktiviert = alle.cardinality();
+		BitSet beste = alle;
+		int besteGroesse = anzahlAktiviert;
+		BitSet menge = new BitSet(netz.getAnzahlTransitionen());
+		int[] folge = new int[marken.length];
+
+		for (int start = alle.nextSetBit(0); start >= 0 && besteGroesse > 1; start = alle.nextSetBit(start + 1)) {
+			int groesse = netz.stubbornMenge(start, marken, alle, besteGroesse, menge);
+			if (groesse >= besteGroesse)
+				continue;
+
+			boolean kreis = false;
+			for (int t = menge.nextSetBit(0); t >= 0 && !kreis; t = menge.nextSetBit(t + 1)) {
+				System.arraycopy(marken, 0, folge, 0, marken.length);
+				netz.schalten(t, folge);
+				kreis = markierungen.enthaelt(new Markierung(folge));
+			}
+			if (!kreis) {
+				beste = (BitSet) menge.clone();
+				besteGroesse = groesse;
+			}
+		}
+		return beste;
+	}
+
+	/**
+	 * Vergleicht einen Knoten über den Vorfahrenindex mit seinen Vorgängern.
+	 *
+	 * @param m der mit dem Pfad zu vergleichende Knoten
+	 * @return true, wenn keine Unbeschränktheit festgestellt wurde, sonst false
+	 */
+	private boolean pfadOK(Markierung m) {
+		Markierung s = markierungen.findeUeberdecktenVorfahren(m);
+		if (s != null) {
+			// Wenn unbeschränkt: Start- und Endknoten des Pfades setzen
+			pfadAnfang = s;
+			pfadEnde = m;
+			// Pfad nicht OK
+			return false;
+		}
+		// Pfad OK
+		return true;
+	}
+
+}
@@ -0,0 +1,294 @@
+package petrinets.model.analyse;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+import petrinets.model.eg.Erreichbarkeitsgraph;
+import petrinets.model.eg.Markierung;
+import petrinets.model.pn.KompiliertesNetz;
+import petrinets.model.pn.Petrinetz;
+
+/**
+ * Diese Klasse baut den Erreichbarkeitsgraphen eines Petrinetzes parallel auf
+ * einem {@link ForkJoinPool} auf und prüft dabei auf Beschränktheit.
+ *
+ * Jede erreichbare Markierung wird genau einmal in eine nebenläufige Tabelle
+ * eingetragen und von dem Worker expandiert, der sie eingetragen hat. Neue
+ * Markierungen landen in der lokalen Warteschlange des Workers. Solange andere
+ * Worker wenig Arbeit haben, werden sie als eigene Aufgaben abgegeben und
+ * können von dort gestohlen werden.
+ *
+ * Unbeschränktheit liegt vor, wenn eine neue Markierung einen Vorfahren auf
+ * ihrem Entdeckungspfad echt überdeckt. Für beschränkte Netze entstehen
+ * dieselben Knoten und Kanten wie bei der {@link Beschraenktheitsanalyse}. Bei
+ * unbeschränkten Netzen wird die Suche beim ersten gefundenen Zeugen
+ * abgebrochen. Welcher Zeuge das ist, hängt von der Ausführungsreihenfolge ab,
+ * der Graph ist dann nur ein Ausschnitt.
+ */
+public class ParalleleBeschraenktheitsanalyse implements Analyseverfahren {
+
+	// Höchstzahl wartender Aufgaben, ab der neue Markierungen lokal bleiben
+	private static final int UEBERSCHUSS = 2;
+
+	private final KompiliertesNetz netz;
+	private final String dateiname;
+	private final Markierung anfangsmarkierung;
+	private final int parallelitaet;
+	private Analysemetriken metriken;
+	private volatile boolean abgebrochen;
+	private volatile boolean unterbrochen;
+
+	private ConcurrentHashMap<Markierung, Zustand> zustaende;
+	private AtomicReference<Zustand[]> zeuge;
+	private Analysemetriken.Erfassung erfassung;
+
+	/**
+	 * Ein Knoten des Suchbaums. Die Folgezustände setzt nur der Worker, der den
+	 * Zustand expandiert. Sie werden erst nach dem Ende aller Aufgaben gelesen.
+	 */
+	private static final class Zustand {
+		final Markierung markierung;
+		final Zustand eltern;
+		final int transition;
+		final long summe;
+		// kleinste Markensumme aller Vorfahren
+		final long minimaleSummeVorfahren;
+		int[] folgeTransitionen;
+		Zustand[] folgeZustaende;
+		boolean eingetragen;
+
+		Zustand(Markierung markierung, Zustand eltern, int transition) {
+			this.markierung = markierung;
+			this.eltern = eltern;
+			this.transition = transition;
+			long s = 0;
+			for (int i = 0; i < markierung.getAnzahlStellen(); i++)
+				s += markierung.getMarken(i);
+			this.summe = s;
+			this.minimaleSummeVorfahren = eltern == null ? Long.MAX_VALUE
+					: Math.min(eltern.summe, eltern.minimaleSummeVorfahren);
+		}
+	}
+
+	/**
+	 * Der Konstruktor übernimmt das kompilierte Netz und die Anfangsmarkierung
+	 * des übergebenen Petrinetzes und nutzt alle verfügbaren Prozessoren.
+	 *
+	 * @param pn zu analysierendes Petrinetz
+	 */
+	public ParalleleBeschraenktheitsanalyse(Petrinetz pn) {
+		this(pn, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Der Konstruktor übernimmt das kompilierte Netz und die Anfangsmarkierung
+	 * des übergebenen Petrinetzes.
+	 *
+	 * @param pn            zu analysierendes Petrinetz
+	 * @param parallelitaet Anzahl der Worker-Threads
+	 */
+	public ParalleleBeschraenktheitsanalyse(Petrinetz pn, int parallelitaet) {
+		if (parallelitaet < 1)
+			throw new IllegalArgumentException("Mindestens ein Thread erforderlich: " + parallelitaet);
+		netz = pn.getKompiliertesNetz();
+		dateiname = pn.getDateiname();
+		anfangsmarkierung = pn.getAnfangsmarkierung();
+		this.parallelitaet = parallelitaet;
+	}
+
+	@Override
+	public void setMetriken(Analysemetriken metriken) {
+		this.metriken = metriken;
+	}
+
+	@Override
+	public void abbrechen() {
+		abgebrochen = true;
+	}
+
+	/**
+	 * Baut den Erreichbarkeitsgraphen parallel auf und prüft auf Beschränktheit.
+	 *
+	 * @return Ergebnis der Analyse
+	 */
+	@Override
+	public Analyseergebnis analysiere() {
+		zustaende = new ConcurrentHashMap<Markierung, Zustand>();
+		zeuge = new AtomicReference<Zustand[]>();
+		unterbrochen = false;
+
+		Zustand start = new Zustand(anfangsmarkierung, null, -1);
+		zustaende.put(anfangsmarkierung, start);
+
+		erfassung = new Analysemetriken.Erfassung(metriken);
+		erfassung.zustaende++;
+		ForkJoinPool pool = new ForkJoinPool(parallelitaet);
+		try {
+			pool.invoke(new Expansion(null, start));
+		} finally {
+			pool.shutdown();
+			erfassung.meldeStand(0, zustaende.size(), 0);
+			erfassung.schliesse();
+			erfassung = null;
+		}
+
+		// Graph nach dem Ende aller Aufgaben in einem Thread zusammensetzen,
+		// in Breitensuche, damit jeder Vorgänger schon im Graphen liegt
+		Erreichbarkeitsgraph eg = new Erreichbarkeitsgraph(anfangsmarkierung);
+		ArrayDeque<Zustand> offen = new ArrayDeque<Zustand>();
+		start.eingetragen = true;
+		offen.add(start);
+		while (!offen.isEmpty()) {
+			Zustand z = offen.poll();
+			if (z.folgeZustaende == null)
+				continue;
+			for (int i = 0; i < z.folgeZustaende.length; i++) {
+				Zustand f = z.folgeZustaende[i];
+				eg.ergaenzeUebergang(z.markierung, f.markierung, netz.getTransitionID(z.folgeTransitionen[i]));
+				if (!f.eingetragen) {
+					f.eingetragen = true;
+					offen.add(f);
+				}
+			}
+		}
+		zustaende = null;
+
+		Zustand[] z = zeuge.get();
+		if (z == null) {
+			Analyseergebnis ergebnis = new Analyseergebnis(dateiname, true, eg, new ArrayList<Markierung>(),
+					new ArrayList<String>(), null, null);
+			// bei einem Abbruch ist der EG nur ein Ausschnitt
+			if (unterbrochen)
+				ergebnis.setAbgebrochen();
+			return ergebnis;
+		}
+
+		// Pfad vom Anfangsknoten bis zum überdeckenden Knoten rekonstruieren
+		ArrayList<Markierung> markierungen = new ArrayList<Markierung>();
+		ArrayList<String> transitionen = new ArrayList<String>();
+		for (Zustand k = z[1]; k != null; k = k.eltern) {
+			markierungen.add(k.markierung);
+			if (k.eltern != null)
+				transitionen.add(netz.getTransitionID(k.transition));
+		}
+		Collections.reverse(markierungen);
+		Collections.reverse(transitionen);
+		return new Analyseergebnis(dateiname, false, eg, markierungen, transitionen, z[0].markierung,
+				z[1].markierung);
+	}
+
+	/**
+	 * Eine Aufgabe, die ausgehend von einem Zustand expandiert, bis ihre lokale
+	 * Warteschlange leer ist. Abgegebene Aufgaben werden nicht abgewartet,
+	 * sondern melden ihr Ende an die abgebende Aufgabe. So wächst der Stack auch
+	 * bei sehr langen Pfaden nicht.
+	 */
+	private final class Expansion extends CountedCompleter<Void> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Zustand anfang;
+
+		Expansion(Expansion abgebende, Zustand anfang) {
+			super(abgebende);
+			this.anfang = anfang;
+		}
+
+		@Override
+		public void compute() {
+			int anzahlStellen = netz.getAnzahlStellen();
+			int[] marken = new int[anzahlStellen];
+			int[] folge = new int[anzahlStellen];
+			ArrayList<Integer> transitionen = new ArrayList<Integer>();
+			ArrayList<Zustand> folgeZustaende = new ArrayList<Zustand>();
+
+			Analysemetriken.Erfassung teil = erfassung.teil();
+
+			ArrayDeque<Zustand> lokal = new ArrayDeque<Zustand>();
+			lokal.push(anfang);
+			while (!lokal.isEmpty() && zeuge.get() == null) {
+				if (abgebrochen) {
+					unterbrochen = true;
+					break;
+				}
+				if (teil.faellig()) {
+					teil.uebertrage();
+					teil.meldeStand(0, zustaende.size(), 0);
+				}
+				Zustand z = lokal.pop();
+				z.markierung.kopiereNach(marken);
+				transitionen.clear();
+				folgeZustaende.clear();
+
+				for (int t = 0; t < netz.getAnzahlTransitionen(); t++) {
+					if (!netz.istAktiviert(t, marken))
+						continue;
+					System.arraycopy(marken, 0, folge, 0, anzahlStellen);
+					netz.schalten(t, folge);
+					teil.geschaltet++;
+					Markierung m = new Markierung(folge);
+
+					Zustand neu = new Zustand(m, z, t);
+					Zustand vorhanden = zustaende.putIfAbsent(m, neu);
+					if (vorhanden == null) {
+						teil.zustaende++;
+						pruefeVorfahren(neu);
+						if (getSurplusQueuedTaskCount() < UEBERSCHUSS) {
+							addToPendingCount(1);
+							new Expansion(this, neu).fork();
+						} else
+							lokal.push(neu);
+					} else {
+						neu = vorhanden;
+					}
+					transitionen.add(t);
+					folgeZustaende.add(neu);
+				}
+
+				int[] ft = new int[transitionen.size()];
+				for (int i = 0; i < ft.length; i++)
+					ft[i] = transitionen.get(i);
+				z.folgeTransitionen = ft;
+				z.folgeZustaende = folgeZustaende.toArray(new Zustand[0]);
+			}
+
+			teil.schliesse();
+			tryComplete();
+		}
+	}
+
+	/**
+	 * Sucht auf dem Entdeckungspfad eines neuen Zustands einen Vorfahren, den er
+	 * echt überdeckt, und hinterlegt ihn gegebenenfalls als Zeugen. Ein solcher
+	 * Vorfahre hat immer eine echt kleinere Markensumme. Die Suche endet, sobald
+	 * kein weiter oben liegender Vorfahre eine kleinere Summe hat, bei Netzen
+	 * mit konstanter Markensumme also sofort.
+	 *
+	 * @param neu neu eingetragener Zustand
+	 */
+	private void pruefeVorfahren(Zustand neu) {
+		for (Zustand v = neu; v.minimaleSummeVorfahren < neu.summe;) {
+			v = v.eltern;
+			if (v.summe < neu.summe && ueberdeckt(neu.markierung, v.markierung)) {
+				zeuge.compareAndSet(null, new Zustand[] { v, neu });
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Testet, ob m1 an jeder Stelle mindestens so viele Marken wie m2 hat.
+	 */
+	private static boolean ueberdeckt(Markierung m1, Markierung m2) {
+		for (int s = 0; s < m1.getAnzahlStellen(); s++)
+			if (m1.getMarken(s) < m2.getMarken(s))
+				return false;
+		return true;
+	}
+
+}
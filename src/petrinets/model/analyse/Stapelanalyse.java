@@ -0,0 +1,272 @@
+package petrinets.model.analyse;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import petrinets.model.pn.Petrinetz;
+
+/**
+ * Diese Klasse analysiert mehrere PNML-Dateien nebenläufig auf Beschränktheit.
+ * Jede Datei wird in einer eigenen Sitzung mit eigenem {@link Petrinetz}
+ * geladen und analysiert, gemeinsame Zustände gibt es nicht.
+ *
+ * Das Einlesen der Dateien läuft auf einem eigenen Pool, der vor allem auf
+ * Ein- und Ausgabe wartet. Die Analyse läuft auf einem Pool mit einem Thread
+ * je Prozessor. Die Ergebnisse werden in der Reihenfolge der Eingabe
+ * weitergereicht. Es sind höchstens einige Dateien je Thread gleichzeitig in
+ * Bearbeitung, der Speicherbedarf hängt daher nicht von der Anzahl der
+ * Dateien ab.
+ *
+ * Scheitert das Einlesen oder die Analyse einer Datei mit einer Exception,
+ * einem {@link OutOfMemoryError} oder einem {@link StackOverflowError}, erhält
+ * sie ein {@link Stapelergebnis} mit dem Fehler an ihrer Stelle und der Stapel
+ * läuft weiter. Der Graph der Datei wird dabei freigegeben. Andere
+ * {@link Error}s brechen den Stapel ab. Da sich die gleichzeitig laufenden
+ * Analysen den Heap teilen, kann ein zu großes Netz auch andere Dateien
+ * scheitern lassen. Mit {@link #setZustandsgrenze(long)} bricht eine
+ * Datei vorher mit einem Fehler ab, Verfahren mit eigenem begrenzten Speicher
+ * wie die {@link Zustandsraumanalyse} brauchen keine Grenze.
+ *
+ * Mit {@link #abbrechen()} werden keine weiteren Dateien mehr begonnen und die
+ * laufenden Analysen abgebrochen. Die Ergebnisse der schon begonnenen Dateien
+ * werden noch weitergereicht, abgebrochene sind als solche gekennzeichnet.
+ */
+public class Stapelanalyse {
+
+	// Dateien in Bearbeitung je Analyse-Thread
+	private static final int FENSTER_JE_THREAD = 4;
+
+	private final int rechenThreads;
+	private final int leseThreads;
+	private final Function<Petrinetz, Analyseverfahren> verfahren;
+	private Analysemetriken metriken;
+	private long zustandsgrenze = Long.MAX_VALUE;
+	private volatile boolean abgebrochen;
+	private final Set<Analyseverfahren> laufend = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Der Konstruktor erstellt eine Stapelanalyse mit einem Analyse-Thread je
+	 * Prozessor.
+	 */
+	public Stapelanalyse() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Der Konstruktor erstellt eine Stapelanalyse mit der übergebenen Anzahl an
+	 * Analyse-Threads. Zum Einlesen werden doppelt so viele Threads genutzt.
+	 *
+	 * @param rechenThreads Anzahl der Analyse-Threads
+	 */
+	public Stapelanalyse(int rechenThreads) {
+		this(rechenThreads, false);
+	}
+
+	/**
+	 * Der Konstruktor erstellt eine Stapelanalyse mit der übergebenen Anzahl an
+	 * Analyse-Threads. Zum Einlesen werden doppelt so viele Threads genutzt.
+	 *
+	 * @param rechenThreads Anzahl der Analyse-Threads
+	 * @param reduktion     true, um die Netze mit Stubborn-Mengen zu analysieren
+	 */
+	public Stapelanalyse(int rechenThreads, boolean reduktion) {
+		this(rechenThreads, pn -> new Beschraenktheitsanalyse(pn, reduktion));
+	}
+
+	/**
+	 * Der Konstruktor erstellt eine Stapelanalyse mit der übergebenen Anzahl an
+	 * Analyse-Threads und einem eigenen Analyseverfahren. Die Fabrik wird für
+	 * jedes Netz einmal aufgerufen.
+	 *
+	 * @param rechenThreads Anzahl der Analyse-Threads
+	 * @param verfahren     erstellt das Analyseverfahren für ein Netz
+	 */
+	public Stapelanalyse(int rechenThreads, Function<Petrinetz, Analyseverfahren> verfahren) {
+		if (rechenThreads < 1)
+			throw new IllegalArgumentException("Mindestens ein Thread erforderlich: " + rechenThreads);
+		this.rechenThreads = rechenThreads;
+		this.leseThreads = 2 * rechenThreads;
+		this.verfahren = verfahren;
+	}
+
+	/**
+	 * Übergibt Metriken, an die alle Analysen des Stapels ihren Fortschritt
+	 * melden. Muss vor {@link #analysiere(Iterable, Consumer)} gesetzt werden.
+	 *
+	 * @param metriken Ziel der Meldungen, null zum Abschalten
+	 */
+	public void setMetriken(Analysemetriken metriken) {
+		this.metriken = metriken;
+	}
+
+	/**
+	 * Begrenzt die Anzahl der Zustände, die jede Analyse des Stapels im Heap
+	 * ablegen darf (siehe {@link Analyseverfahren#setZustandsgrenze(long)}).
+	 * Muss vor {@link #analysiere(Iterable, Consumer)} gesetzt werden.
+	 *
+	 * @param grenze höchste Anzahl an Zuständen je Datei
+	 */
+	public void setZustandsgrenze(long grenze) {
+		this.zustandsgrenze = grenze;
+	}
+
+	/**
+	 * Bricht den Stapel ab. Kann aus jedem Thread aufgerufen werden, der Abbruch
+	 * gilt auch für spätere Aufrufe von {@link #analysiere(Iterable, Consumer)}.
+	 */
+	public void abbrechen() {
+		abgebrochen = true;
+		for (Analyseverfahren v : laufend)
+			v.abbrechen();
+	}
+
+	/**
+	 * Gibt zurück, ob der Stapel abgebrochen wurde.
+	 *
+	 * @return true, wenn abgebrochen
+	 */
+	public boolean istAbgebrochen() {
+		return abgebrochen;
+	}
+
+	/**
+	 * Analysiert alle übergebenen Dateien und reicht jedes Ergebnis an den
+	 * Verbraucher weiter, sobald es und alle vor ihm liegenden Ergebnisse
+	 * vorliegen. Der Verbraucher wird immer im aufrufenden Thread aufgerufen.
+	 *
+	 * @param dateien     zu analysierende PNML-Dateien
+	 * @param verbraucher erhält die Ergebnisse in der Reihenfolge der Dateien
+	 */
+	public void analysiere(Iterable<File> dateien, Consumer<Stapelergebnis> verbraucher) {
+		ExecutorService lesePool = Executors.newFixedThreadPool(leseThreads, threadFabrik("stapel-lesen"));
+		ExecutorService rechenPool = Executors.newFixedThreadPool(rechenThreads, threadFabrik("stapel-analyse"));
+		ArrayDeque<CompletableFuture<Stapelergebnis>> offen = new ArrayDeque<CompletableFuture<Stapelergebnis>>();
+		int fenster = FENSTER_JE_THREAD * rechenThreads;
+		try {
+			for (File datei : dateien) {
+				if (abgebrochen)
+					break;
+				if (offen.size() >= fenster)
+					verbraucher.accept(warte(offen.poll()));
+				offen.add(CompletableFuture.supplyAsync(() -> lade(datei), lesePool)
+						.thenApplyAsync(geladen -> analysiere(datei, geladen), rechenPool)
+						.exceptionally(fehler -> fehlerergebnis(datei, fehler)));
+			}
+			while (!offen.isEmpty())
+				verbraucher.accept(warte(offen.poll()));
+		} finally {
+			for (CompletableFuture<Stapelergebnis> f : offen)
+				f.cancel(false);
+			lesePool.shutdownNow();
+			rechenPool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Ein eingelesenes Petrinetz mit der Dauer des Einlesens.
+	 */
+	private static final class Geladen {
+		final Petrinetz pn;
+		final long ladedauer;
+
+		Geladen(Petrinetz pn, long ladedauer) {
+			this.pn = pn;
+			this.ladedauer = ladedauer;
+		}
+	}
+
+	/**
+	 * Liest eine Datei ohne Meldungen des Parsers ein. Anders als in der
+	 * Oberfläche ist eine fehlende Datei ein Fehler und kein leeres Netz.
+	 */
+	private static Geladen lade(File datei) {
+		if (!datei.isFile())
+			throw new IllegalArgumentException("Keine PNML-Datei gefunden: " + datei.getPath());
+		long start = System.nanoTime();
+		Petrinetz pn = new Petrinetz(datei, false);
+		return new Geladen(pn, System.nanoTime() - start);
+	}
+
+	/**
+	 * Analysiert ein eingelesenes Petrinetz. Läuft die Analyse aus dem Heap
+	 * oder Stack, wird das Verfahren mit seinem Graphen freigegeben, bevor das
+	 * Fehlerergebnis angelegt wird.
+	 */
+	private Stapelergebnis analysiere(File datei, Geladen geladen) {
+		long start = System.nanoTime();
+		Analyseverfahren v = verfahren.apply(geladen.pn);
+		v.setMetriken(metriken);
+		v.setZustandsgrenze(zustandsgrenze);
+		laufend.add(v);
+		// ein Abbruch vor dem Eintragen hat v nicht mehr erreicht
+		if (abgebrochen)
+			v.abbrechen();
+		Analyseergebnis ergebnis = null;
+		Throwable fehler = null;
+		try {
+			ergebnis = v.analysiere();
+		} catch (OutOfMemoryError | StackOverflowError e) {
+			fehler = e;
+		} finally {
+			laufend.remove(v);
+		}
+		if (fehler != null) {
+			// Graph der Datei freigeben
+			v = null;
+			return new Stapelergebnis(datei, fehler);
+		}
+		return new Stapelergebnis(datei, ergebnis, geladen.ladedauer, System.nanoTime() - start);
+	}
+
+	/**
+	 * Erstellt das Ergebnis einer Datei, deren Einlesen oder Analyse gescheitert
+	 * ist. Ein {@link Error} außer {@link OutOfMemoryError} und
+	 * {@link StackOverflowError} wird weitergeworfen.
+	 */
+	private static Stapelergebnis fehlerergebnis(File datei, Throwable fehler) {
+		if (fehler instanceof CompletionException && fehler.getCause() != null)
+			fehler = fehler.getCause();
+		if (fehler instanceof Error && !(fehler instanceof OutOfMemoryError || fehler instanceof StackOverflowError))
+			throw (Error) fehler;
+		return new Stapelergebnis(datei, fehler);
+	}
+
+	/**
+	 * Wartet auf ein Ergebnis und reicht einen {@link Error} unverändert weiter.
+	 */
+	private static Stapelergebnis warte(CompletableFuture<Stapelergebnis> f) {
+		try {
+			return f.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * Erstellt eine Fabrik für Daemon-Threads, damit ein abgebrochener Stapel das
+	 * Beenden des Programms nicht verhindert.
+	 */
+	private static ThreadFactory threadFabrik(String name) {
+		ThreadFactory basis = Executors.defaultThreadFactory();
+		return r -> {
+			Thread t = basis.newThread(r);
+			t.setName(name + "-" + t.getName());
+			t.setDaemon(true);
+			return t;
+		};
+	}
+
+}
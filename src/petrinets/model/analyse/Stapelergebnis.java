@@ -0,0 +1,97 @@
+package petrinets.model.analyse;
+
+import java.io.File;
+
+/**
+ * Ein Objekt dieser Klasse hält das Ergebnis einer einzelnen Datei aus einer
+ * {@link Stapelanalyse} zusammen mit den gemessenen Laufzeiten. Konnte die
+ * Datei nicht eingelesen oder analysiert werden, enthält es stattdessen den
+ * Fehler.
+ */
+public class Stapelergebnis {
+
+	private final File datei;
+	private final Analyseergebnis ergebnis;
+	private final Throwable fehler;
+	private final long ladedauer;
+	private final long analysedauer;
+
+	/**
+	 * Der Konstruktor wird von der Stapelanalyse aufgerufen, sobald die Datei
+	 * analysiert ist.
+	 *
+	 * @param datei        analysierte Datei
+	 * @param ergebnis     Ergebnis der Beschränktheitsanalyse
+	 * @param ladedauer    Dauer des Einlesens in Nanosekunden
+	 * @param analysedauer Dauer der Analyse in Nanosekunden
+	 */
+	protected Stapelergebnis(File datei, Analyseergebnis ergebnis, long ladedauer, long analysedauer) {
+		this.datei = datei;
+		this.ergebnis = ergebnis;
+		this.fehler = null;
+		this.ladedauer = ladedauer;
+		this.analysedauer = analysedauer;
+	}
+
+	/**
+	 * Der Konstruktor wird von der Stapelanalyse aufgerufen, wenn das Einlesen
+	 * oder die Analyse der Datei mit einem Fehler abgebrochen ist.
+	 *
+	 * @param datei  betroffene Datei
+	 * @param fehler aufgetretener Fehler
+	 */
+	protected Stapelergebnis(File datei, Throwable fehler) {
+		this.datei = datei;
+		this.ergebnis = null;
+		this.fehler = fehler;
+		this.ladedauer = 0;
+		this.analysedauer = 0;
+	}
+
+	/**
+	 * Gibt die analysierte Datei zurück.
+	 *
+	 * @return analysierte Datei
+	 */
+	public File getDatei() {
+		return datei;
+	}
+
+	/**
+	 * Gibt das Ergebnis der Beschränktheitsanalyse zurück.
+	 *
+	 * @return Ergebnis der Analyse oder null, wenn ein Fehler aufgetreten ist
+	 */
+	public Analyseergebnis getErgebnis() {
+		return ergebnis;
+	}
+
+	/**
+	 * Gibt den Fehler zurück, an dem das Einlesen oder die Analyse der Datei
+	 * gescheitert ist.
+	 *
+	 * @return Fehler oder null, wenn ein Ergebnis vorliegt
+	 */
+	public Throwable getFehler() {
+		return fehler;
+	}
+
+	/**
+	 * Gibt die Dauer des Einlesens zurück.
+	 *
+	 * @return Dauer in Nanosekunden
+	 */
+	public long getLadedauer() {
+		return ladedauer;
+	}
+
+	/**
+	 * Gibt die Dauer der Analyse zurück.
+	 *
+	 * @return Dauer in Nanosekunden
+	 */
+	public long getAnalysedauer() {
+		return analysedauer;
+	}
+
+}
@@ -0,0 +1,470 @@
+package petrinets.model.analyse;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import petrinets.model.bdd.Bdd;
+import petrinets.model.eg.Markierung;
+import petrinets.model.pn.KompiliertesNetz;
+import petrinets.model.pn.Petrinetz;
+
+/**
+ * Diese Klasse analysiert ein Petrinetz symbolisch auf Beschränktheit. Jede
+ * Stelle wird als Bitvektor mit fester Breite kodiert, Mengen von Markierungen
+ * werden als {@link Bdd} dargestellt. Die erreichbaren Markierungen ergeben
+ * sich durch wiederholte Bildberechnung bis zum Fixpunkt, ohne sie einzeln
+ * aufzuzählen.
+ *
+ * Die Variablen liegen je Stelle zusammen, innerhalb einer Stelle wechseln sich
+ * die Bits der aktuellen und der folgenden Markierung ab, das höchstwertige
+ * Bit zuerst. Die Stellen und Transitionen werden in der Reihenfolge einer
+ * Tiefensuche entlang der Kanten ab den markierten Stellen angeordnet, damit
+ * benachbarte Stellen im BDD nahe beieinander liegen. Jede Transition wird
+ * als Relation über die Bits der Stellen kodiert, deren Markenzahl sie
+ * ändert, alle übrigen Stellen bleiben im Bild unverändert.
+ *
+ * Kann eine erreichbare Markierung eine Stelle über die kodierbare Schranke
+ * hinaus füllen, wird mit doppelter Breite neu begonnen. Reichen auch
+ * {@value #MAX_BITS} Bits nicht aus, übernimmt die
+ * {@link Beschraenktheitsanalyse}, die für unbeschränkte Netze den Pfad zu m'
+ * liefert. Sie übernimmt schon beim ersten Überlauf, wenn unter einer bis
+ * dahin erreichten Markierung eine Transition aktiviert ist, die keiner Stelle
+ * Marken entzieht und mindestens einer Stelle Marken hinzufügt. Ihr Schalten
+ * überdeckt die Markierung echt, das Netz ist also sicher unbeschränkt und
+ * größere Breiten würden nur bis zum nächsten Überlauf rechnen.
+ *
+ * Sonst wird nach dem ersten Überlauf die {@link Beschraenktheitsanalyse} mit
+ * höchstens {@value #PROBE_ZUSTAENDE} Zuständen versucht. Endet sie innerhalb
+ * dieser Grenze, ist ihr Urteil exakt und wird übernommen. Unbeschränkte Netze
+ * ohne rein zuführende Transition rechnen so nicht alle Breiten durch, erst
+ * wenn die Probe an der Grenze scheitert, wird symbolisch weitergerechnet.
+ *
+ * Abbruch, Metriken und Zustandsgrenze werden an die explizite Analyse
+ * weitergegeben. Der symbolische Teil prüft den Abbruch nach jeder
+ * Transition und liefert dann die bis dahin erreichten Markierungen.
+ */
+public class SymbolischeAnalyse implements Analyseverfahren {
+
+	/** größte Breite einer Stelle in Bits, bevor explizit weitergesucht wird */
+	public static final int MAX_BITS = 8;
+
+	/** Zustände, die die explizite Probe nach dem ersten Überlauf anlegen darf */
+	public static final int PROBE_ZUSTAENDE = 1 << 16;
+
+	// belegte BDD-Knoten, ab denen frühestens aufgeräumt wird
+	private static final int MUELL_SCHWELLE = 1 << 20;
+
+	private final Petrinetz pn;
+	private final KompiliertesNetz netz;
+	private final String dateiname;
+	private final Markierung anfangsmarkierung;
+	private Analysemetriken metriken;
+	private long zustandsgrenze = Long.MAX_VALUE;
+	private volatile boolean abgebrochen;
+	// laufende explizite Analyse, die einen Abbruch erhalten soll
+	private volatile Beschraenktheitsanalyse explizit;
+
+	// Kodierung der laufenden Berechnung
+	private Bdd bdd;
+	private int bits;
+
+	// Position jeder Stelle in der Variablenordnung, Stellen in dieser Ordnung
+	// und Reihenfolge, in der die Transitionen verkettet werden
+	private int[] rang;
+	private int[] stellen;
+	private int[] reihenfolge;
+
+	// true, wenn ein Überlauf die Unbeschränktheit bereits belegt
+	private boolean unbeschraenkt;
+
+	/**
+	 * Der Konstruktor übernimmt das kompilierte Netz und die Anfangsmarkierung
+	 * des übergebenen Petrinetzes.
+	 *
+	 * @param pn zu analysierendes Petrinetz
+	 */
+	public SymbolischeAnalyse(Petrinetz pn) {
+		this.pn = pn;
+		netz = pn.getKompiliertesNetz();
+		dateiname = pn.getDateiname();
+		anfangsmarkierung = pn.getAnfangsmarkierung();
+	}
+
+	@Override
+	public void setMetriken(Analysemetriken metriken) {
+		this.metriken = metriken;
+	}
+
+	@Override
+	public void abbrechen() {
+		abgebrochen = true;
+		Beschraenktheitsanalyse v = explizit;
+		if (v != null)
+			v.abbrechen();
+	}
+
+	@Override
+	public void setZustandsgrenze(long grenze) {
+		zustandsgrenze = grenze;
+	}
+
+	/**
+	 * Berechnet die erreichbaren Markierungen symbolisch mit wachsender
+	 * Bitbreite. Ist das Netz unbeschränkt oder reichen {@value #MAX_BITS} Bits
+	 * nicht aus, wird das Ergebnis der expliziten Analyse zurückgegeben, ebenso,
+	 * wenn die Probe nach dem ersten Überlauf das Netz entscheidet.
+	 *
+	 * @return Ergebnis der Analyse
+	 */
+	@Override
+	public Analyseergebnis analysiere() {
+		int maximum = 1;
+		for (int s = 0; s < anfangsmarkierung.getAnzahlStellen(); s++)
+			maximum = Math.max(maximum, anfangsmarkierung.getMarken(s));
+
+		ordne();
+		unbeschraenkt = false;
+		bits = 32 - Integer.numberOfLeadingZeros(maximum);
+		boolean geprobt = false;
+		while (bits <= MAX_BITS) {
+			SymbolischesErgebnis ergebnis = berechne();
+			bdd = null;
+			if (ergebnis != null)
+				return ergebnis;
+			if (unbeschraenkt || bits == MAX_BITS)
+				break;
+			if (!geprobt) {
+				geprobt = true;
+				Analyseergebnis probe = probe();
+				if (probe != null)
+					return probe;
+			}
+			bits = Math.min(2 * bits, MAX_BITS);
+		}
+		return explizit(metriken, zustandsgrenze);
+	}
+
+	/**
+	 * Versucht die explizite Analyse mit höchstens {@value #PROBE_ZUSTAENDE}
+	 * Zuständen. Die Probe meldet keine Metriken, sie zählt nicht als eigene
+	 * Analyse.
+	 *
+	 * @return exaktes Ergebnis oder null, wenn die Grenze erreicht wurde
+	 */
+	private Analyseergebnis probe() {
+		try {
+			return explizit(null, Math.min(PROBE_ZUSTAENDE, zustandsgrenze));
+		} catch (IllegalStateException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Führt die {@link Beschraenktheitsanalyse} aus, die bis zu ihrem Ende
+	 * einen Abbruch erhält.
+	 *
+	 * @param meldungen Ziel der Meldungen oder null
+	 * @param grenze    höchste Anzahl an Zuständen
+	 * @return Ergebnis der expliziten Analyse
+	 */
+	private Analyseergebnis explizit(Analysemetriken meldungen, long grenze) {
+		Beschraenktheitsanalyse v = new Beschraenktheitsanalyse(pn);
+		v.setMetriken(meldungen);
+		v.setZustandsgrenze(grenze);
+		explizit = v;
+		// ein Abbruch vor dem Eintragen hat v nicht mehr erreicht
+		if (abgebrochen)
+			v.abbrechen();
+		try {
+			return v.analysiere();
+		} finally {
+			explizit = null;
+		}
+	}
+
+	/**
+	 * Berechnet die erreichbaren Markierungen mit der aktuellen Bitbreite.
+	 *
+	 * @return Ergebnis oder null, wenn eine erreichbare Markierung die Schranke
+	 *         überschreiten kann. Ist das Netz dabei sicher unbeschränkt, wird
+	 *         zusätzlich {@link #unbeschraenkt} gesetzt. Nach einem Abbruch
+	 *         enthält das Ergebnis die bis dahin erreichten Markierungen.
+	 */
+	private SymbolischesErgebnis berechne() {
+		int anzahlStellen = netz.getAnzahlStellen();
+		int anzahlTransitionen = netz.getAnzahlTransitionen();
+		int anzahlVariablen = 2 * anzahlStellen * bits;
+		int schranke = (1 << bits) - 1;
+		bdd = new Bdd(anzahlVariablen);
+
+		// aktuelle Variablen werden gezählt, folgende auf sie umbenannt
+		boolean[] aktuell = new boolean[anzahlVariablen];
+		int[] umbenennung = new int[anzahlVariablen];
+		for (int v = 0; v < anzahlVariablen; v++) {
+			aktuell[v] = v % 2 == 0;
+			umbenennung[v] = v - v % 2;
+		}
+
+		// Relation, Aktivierung und Überlauf je Transition kodieren
+		int[] relation = new int[anzahlTransitionen];
+		int[] aktiviert = new int[anzahlTransitionen];
+		int[] ueberlauf = new int[anzahlTransitionen];
+		// Transitionen, die Marken nur hinzufügen
+		boolean[] zufuehrend = new boolean[anzahlTransitionen];
+		boolean[][] quantifiziert = new boolean[anzahlTransitionen][];
+		int[] vor = new int[anzahlStellen];
+		int[] aenderung = new int[anzahlStellen];
+		for (int t = 0; t < anzahlTransitionen; t++) {
+			int[] vorbereich = netz.getVorbereich(t);
+			int[] vorgewichte = netz.getVorgewichte(t);
+			int[] nachbereich = netz.getNachbereich(t);
+			int[] nachgewichte = netz.getNachgewichte(t);
+			for (int i = 0; i < vorbereich.length; i++) {
+				vor[vorbereich[i]] = vorgewichte[i];
+				aenderung[vorbereich[i]] -= vorgewichte[i];
+			}
+			for (int i = 0; i < nachbereich.length; i++)
+				aenderung[nachbereich[i]] += nachgewichte[i];
+
+			int a = Bdd.WAHR;
+			for (int s : vorbereich)
+				a = bdd.und(a, mindestens(s, vor[s]));
+			int r = a;
+			int u = Bdd.FALSCH;
+			quantifiziert[t] = new boolean[anzahlVariablen];
+			zufuehrend[t] = true;
+			for (int s = 0; s < anzahlStellen; s++) {
+				if (aenderung[s] == 0)
+					continue;
+				if (aenderung[s] < 0)
+					zufuehrend[t] = false;
+				r = bdd.und(r, addiere(s, aenderung[s]));
+				for (int j = 0; j < bits; j++)
+					quantifiziert[t][aktuelleVariable(s, j)] = true;
+				if (aenderung[s] > 0)
+					u = bdd.oder(u, mindestens(s, schranke + 1 - aenderung[s]));
+			}
+			relation[t] = r;
+			aktiviert[t] = a;
+			ueberlauf[t] = bdd.und(a, u);
+			zufuehrend[t] &= u != Bdd.FALSCH;
+
+			for (int s : vorbereich)
+				vor[s] = 0;
+			for (int s : vorbereich)
+				aenderung[s] = 0;
+			for (int s : nachbereich)
+				aenderung[s] = 0;
+		}
+
+		// Anfangsmarkierung als Würfel über den aktuellen Variablen
+		int anfang = Bdd.WAHR;
+		for (int r = anzahlStellen - 1; r >= 0; r--) {
+			int s = stellen[r];
+			int marken = anfangsmarkierung.getMarken(s);
+			if (marken > schranke)
+				return null;
+			for (int j = bits - 1; j >= 0; j--) {
+				int v = aktuelleVariable(s, j);
+				anfang = bitGesetzt(marken, j) ? bdd.knoten(v, Bdd.FALSCH, anfang)
+						: bdd.knoten(v, anfang, Bdd.FALSCH);
+			}
+		}
+
+		// Fixpunkt mit Verkettung: das Bild jeder Transition fließt sofort in
+		// die Menge ein, von der die nächste Transition ausgeht
+		int erreicht = anfang;
+		int vorher;
+		int iterationen = 0;
+		int schwelle = MUELL_SCHWELLE;
+		do {
+			vorher = erreicht;
+			for (int t : reihenfolge) {
+				if (abgebrochen)
+					break;
+				if (bdd.und(erreicht, ueberlauf[t]) != Bdd.FALSCH) {
+					for (int z = 0; z < anzahlTransitionen && !unbeschraenkt; z++)
+						unbeschraenkt = zufuehrend[z] && bdd.und(erreicht, aktiviert[z]) != Bdd.FALSCH;
+					return null;
+				}
+				int folge = bdd.relationalesProdukt(erreicht, relation[t], quantifiziert[t]);
+				erreicht = bdd.oder(erreicht, bdd.umbenennen(folge, umbenennung));
+
+				if (bdd.getAnzahlKnoten() > schwelle) {
+					int[] wurzeln = Arrays.copyOf(relation, 3 * anzahlTransitionen + 2);
+					System.arraycopy(aktiviert, 0, wurzeln, anzahlTransitionen, anzahlTransitionen);
+					System.arraycopy(ueberlauf, 0, wurzeln, 2 * anzahlTransitionen, anzahlTransitionen);
+					wurzeln[3 * anzahlTransitionen] = erreicht;
+					wurzeln[3 * anzahlTransitionen + 1] = vorher;
+					bdd.sammleMuell(wurzeln);
+					schwelle = Math.max(MUELL_SCHWELLE, 2 * bdd.getAnzahlKnoten());
+				}
+			}
+			iterationen++;
+		} while (erreicht != vorher && !abgebrochen);
+
+		int irgendeineAktiviert = Bdd.FALSCH;
+		BigInteger uebergaenge = BigInteger.ZERO;
+		for (int t = 0; t < anzahlTransitionen; t++) {
+			irgendeineAktiviert = bdd.oder(irgendeineAktiviert, aktiviert[t]);
+			uebergaenge = uebergaenge.add(bdd.anzahlBelegungen(bdd.und(erreicht, aktiviert[t]), aktuell));
+		}
+		BigInteger zustaende = bdd.anzahlBelegungen(erreicht, aktuell);
+		BigInteger verklemmungen = bdd.anzahlBelegungen(bdd.undNicht(erreicht, irgendeineAktiviert), aktuell);
+
+		SymbolischesErgebnis ergebnis = new SymbolischesErgebnis(dateiname, zustaende, uebergaenge, verklemmungen,
+				bits, iterationen, bdd.getHoechststand());
+		if (abgebrochen)
+			ergebnis.setAbgebrochen();
+		return ergebnis;
+	}
+
+	/**
+	 * Ordnet Stellen und Transitionen in der Reihenfolge einer Tiefensuche ab
+	 * den anfangs markierten Stellen. Von einer Stelle aus werden ihre
+	 * Verbraucher besucht, von einer Transition aus ihre Nachfolgerstellen. So
+	 * liegen die Stellen eines Kreises oder einer unabhängigen Komponente
+	 * zusammen. Nicht erreichte Stellen starten weitere Suchen in der
+	 * Reihenfolge des Netzes, nicht erreichte Transitionen werden zuletzt
+	 * angehängt.
+	 */
+	private void ordne() {
+		int anzahlStellen = netz.getAnzahlStellen();
+		int anzahlTransitionen = netz.getAnzahlTransitionen();
+
+		// Verbraucher je Stelle sammeln
+		int[] anzahlVerbraucher = new int[anzahlStellen];
+		for (int t = 0; t < anzahlTransitionen; t++)
+			for (int s : netz.getVorbereich(t))
+				anzahlVerbraucher[s]++;
+		int[][] verbraucher = new int[anzahlStellen][];
+		for (int s = 0; s < anzahlStellen; s++)
+			verbraucher[s] = new int[anzahlVerbraucher[s]];
+		for (int t = anzahlTransitionen - 1; t >= 0; t--)
+			for (int s : netz.getVorbereich(t))
+				verbraucher[s][--anzahlVerbraucher[s]] = t;
+
+		rang = new int[anzahlStellen];
+		Arrays.fill(rang, -1);
+		stellen = new int[anzahlStellen];
+		reihenfolge = new int[anzahlTransitionen];
+		boolean[] besucht = new boolean[anzahlTransitionen];
+		int eingeordnet = 0;
+		int naechsteTransition = 0;
+
+		// Stapel der noch zu besuchenden Stellen, die Nachfolger der ersten
+		// Transition werden zuerst besucht
+		int[] stapel = new int[16];
+		int hoehe = 0;
+		for (int runde = 0; runde < 2; runde++) {
+			for (int start = 0; start < anzahlStellen; start++) {
+				if (rang[start] >= 0 || (runde == 0 && anfangsmarkierung.getMarken(start) == 0))
+					continue;
+				stapel[hoehe++] = start;
+				while (hoehe > 0) {
+					int s = stapel[--hoehe];
+					if (rang[s] >= 0)
+						continue;
+					rang[s] = eingeordnet;
+					stellen[eingeordnet++] = s;
+					for (int t : verbraucher[s]) {
+						if (!besucht[t]) {
+							besucht[t] = true;
+							reihenfolge[naechsteTransition++] = t;
+						}
+					}
+					for (int k = verbraucher[s].length - 1; k >= 0; k--) {
+						int[] nachbereich = netz.getNachbereich(verbraucher[s][k]);
+						for (int n = nachbereich.length - 1; n >= 0; n--) {
+							if (rang[nachbereich[n]] >= 0)
+								continue;
+							if (hoehe == stapel.length)
+								stapel = Arrays.copyOf(stapel, 2 * hoehe);
+							stapel[hoehe++] = nachbereich[n];
+						}
+					}
+				}
+			}
+		}
+		for (int t = 0; t < anzahlTransitionen; t++)
+			if (!besucht[t])
+				reihenfolge[naechsteTransition++] = t;
+	}
+
+	/**
+	 * Kodiert, dass die Stelle mindestens c Marken trägt.
+	 *
+	 * @param s Index der Stelle
+	 * @param c untere Schranke
+	 * @return BDD über den aktuellen Variablen der Stelle
+	 */
+	private int mindestens(int s, int c) {
+		if (c <= 0)
+			return Bdd.WAHR;
+		if (c > (1 << bits) - 1)
+			return Bdd.FALSCH;
+
+		// vom niedrigsten Bit aufwärts: ist das Bit größer als das von c, ist
+		// die Stelle größer, ist es gleich, entscheiden die niedrigeren Bits
+		int r = Bdd.WAHR;
+		for (int j = bits - 1; j >= 0; j--) {
+			int v = aktuelleVariable(s, j);
+			r = bitGesetzt(c, j) ? bdd.knoten(v, Bdd.FALSCH, r) : bdd.knoten(v, r, Bdd.WAHR);
+		}
+		return r;
+	}
+
+	/**
+	 * Kodiert, dass die Stelle in der Folgemarkierung d Marken mehr trägt als in
+	 * der aktuellen, ohne die Schranke zu über- oder 0 zu unterschreiten. Die
+	 * Addition läuft als Addierwerk vom niedrigsten Bit aufwärts, negative
+	 * Änderungen werden im Zweierkomplement addiert.
+	 *
+	 * @param s Index der Stelle
+	 * @param d Änderung der Markenzahl, ungleich 0
+	 * @return BDD über den aktuellen und folgenden Variablen der Stelle
+	 */
+	private int addiere(int s, int d) {
+		if (Math.abs(d) > (1 << bits) - 1)
+			return Bdd.FALSCH;
+		int summand = d > 0 ? d : (1 << bits) + d;
+		// ohne Überlauf bei Addition, ohne Unterlauf bei Subtraktion
+		int erwarteterUebertrag = d > 0 ? 0 : 1;
+
+		// mitUebertrag[c]: die Bits ab j stimmen und geben den Übertrag c weiter
+		int[] mitUebertrag = { Bdd.WAHR, Bdd.FALSCH };
+		for (int j = bits - 1; j >= 0; j--) {
+			int x = aktuelleVariable(s, j);
+			int y = x + 1;
+			int summandBit = bitGesetzt(summand, j) ? 1 : 0;
+			int[] naechstes = { Bdd.FALSCH, Bdd.FALSCH };
+			for (int bit = 0; bit <= 1; bit++) {
+				for (int uebertrag = 0; uebertrag <= 1; uebertrag++) {
+					int summe = bit + summandBit + uebertrag;
+					int literale = bdd.und(bit == 1 ? bdd.variable(x) : bdd.nichtVariable(x),
+							(summe & 1) == 1 ? bdd.variable(y) : bdd.nichtVariable(y));
+					naechstes[summe >> 1] = bdd.oder(naechstes[summe >> 1],
+							bdd.und(literale, mitUebertrag[uebertrag]));
+				}
+			}
+			mitUebertrag = naechstes;
+		}
+		return mitUebertrag[erwarteterUebertrag];
+	}
+
+	/**
+	 * Index der aktuellen Variablen für Bit j der Stelle s, j = 0 ist das
+	 * höchstwertige Bit. Die folgende Variable liegt direkt dahinter.
+	 */
+	private int aktuelleVariable(int s, int j) {
+		return 2 * (rang[s] * bits + j);
+	}
+
+	/**
+	 * Prüft, ob Bit j einer Zahl gesetzt ist, j = 0 ist das höchstwertige Bit.
+	 */
+	private boolean bitGesetzt(int zahl, int j) {
+		return ((zahl >> (bits - 1 - j)) & 1) == 1;
+	}
+
+}
@@ -0,0 +1,113 @@
+package petrinets.model.analyse;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+
+import petrinets.model.eg.Markierung;
+
+/**
+ * Ein Objekt dieser Klasse hält das Ergebnis einer {@link SymbolischeAnalyse}
+ * für ein beschränktes Netz. Die erreichbaren Markierungen werden nicht
+ * aufgezählt und es gibt keinen Erreichbarkeitsgraphen. Die Anzahlen der
+ * Markierungen, Übergänge und Verklemmungen werden aus den BDDs gezählt.
+ */
+public class SymbolischesErgebnis extends Analyseergebnis {
+
+	private final BigInteger anzahlZustaende;
+	private final BigInteger anzahlUebergaenge;
+	private final BigInteger anzahlVerklemmungen;
+	private final int bitsJeStelle;
+	private final int iterationen;
+	private final int bddKnoten;
+
+	/**
+	 * Der Konstruktor wird am Ende der symbolischen Analyse aufgerufen und setzt
+	 * alle Ergebnisse.
+	 *
+	 * @param dateiname           Dateiname des analysierten Petrinetzes
+	 * @param anzahlZustaende     Anzahl der erreichbaren Markierungen
+	 * @param anzahlUebergaenge   Anzahl der Übergänge zwischen ihnen
+	 * @param anzahlVerklemmungen Anzahl der erreichbaren toten Markierungen
+	 * @param bitsJeStelle        Bits, mit denen jede Stelle kodiert wurde
+	 * @param iterationen         Anzahl der Bildberechnungen bis zum Fixpunkt
+	 * @param bddKnoten           größte Anzahl gleichzeitig belegter BDD-Knoten
+	 */
+	protected SymbolischesErgebnis(String dateiname, BigInteger anzahlZustaende, BigInteger anzahlUebergaenge,
+			BigInteger anzahlVerklemmungen, int bitsJeStelle, int iterationen, int bddKnoten) {
+		super(dateiname, true, null, new ArrayList<Markierung>(),
+				new ArrayList<String>(), null, null);
+		this.anzahlZustaende = anzahlZustaende;
+		this.anzahlUebergaenge = anzahlUebergaenge;
+		this.anzahlVerklemmungen = anzahlVerklemmungen;
+		this.bitsJeStelle = bitsJeStelle;
+		this.iterationen = iterationen;
+		this.bddKnoten = bddKnoten;
+	}
+
+	/**
+	 * Gibt die Anzahl der erreichbaren Markierungen zurück.
+	 *
+	 * @return Anzahl der Markierungen
+	 */
+	@Override
+	public BigInteger getAnzahlZustaende() {
+		return anzahlZustaende;
+	}
+
+	/**
+	 * Gibt die Anzahl der Übergänge zwischen den erreichbaren Markierungen
+	 * zurück, also die Kantenzahl des Erreichbarkeitsgraphen.
+	 *
+	 * @return Anzahl der Übergänge
+	 */
+	@Override
+	public BigInteger getAnzahlUebergaenge() {
+		return anzahlUebergaenge;
+	}
+
+	/**
+	 * Gibt die Anzahl der erreichbaren Markierungen zurück, unter denen keine
+	 * Transition aktiviert ist.
+	 *
+	 * @return Anzahl der Verklemmungen
+	 */
+	@Override
+	public BigInteger getAnzahlVerklemmungen() {
+		return anzahlVerklemmungen;
+	}
+
+	/**
+	 * Gibt die Anzahl der Bits zurück, mit denen jede Stelle kodiert wurde. Das
+	 * Netz ist damit (2^Bits - 1)-beschränkt.
+	 *
+	 * @return Bits je Stelle
+	 */
+	public int getBitsJeStelle() {
+		return bitsJeStelle;
+	}
+
+	/**
+	 * Gibt die Anzahl der Durchläufe über alle Transitionen bis zum Fixpunkt
+	 * zurück, den letzten ohne neue Markierung eingeschlossen. Da das Bild
+	 * jeder Transition sofort in die Menge eingeht, von der die nächste
+	 * ausgeht, kann ein Durchlauf mehrere Schritte weit reichen. Die Anzahl ist
+	 * daher nur eine obere Schranke der größten Entfernung einer Markierung
+	 * vom Anfang plus eins.
+	 *
+	 * @return Anzahl der Iterationen
+	 */
+	public int getIterationen() {
+		return iterationen;
+	}
+
+	/**
+	 * Gibt die größte Anzahl der während der Analyse gleichzeitig belegten
+	 * BDD-Knoten zurück.
+	 *
+	 * @return Höchststand der BDD-Knoten
+	 */
+	public int getBddKnoten() {
+		return bddKnoten;
+	}
+
+}
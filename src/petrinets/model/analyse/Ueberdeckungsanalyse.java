@@ -0,0 +1,146 @@
+package petrinets.model.analyse;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import petrinets.model.eg.Erreichbarkeitsgraph;
+import petrinets.model.eg.Markierung;
+import petrinets.model.pn.KompiliertesNetz;
+import petrinets.model.pn.Petrinetz;
+
+/**
+ * Diese Klasse baut den Überdeckungsgraphen eines Petrinetzes nach Karp und
+ * Miller auf. Überdeckt eine neue Markierung m' einen ihrer Vorfahren m, so
+ * werden alle Stellen, in denen m' echt größer ist, auf ω gesetzt. Dadurch
+ * bleibt der Graph auch für unbeschränkte Netze endlich und die Konstruktion
+ * terminiert immer.
+ *
+ * Gleiche Markierungen werden zu einem Knoten zusammengefasst. Als Vorfahren
+ * gelten die Knoten auf dem Pfad, über den ein Knoten zuerst gefunden wurde.
+ * Neben dem Graphen liefert die Analyse in einem Durchlauf die Schranke jeder
+ * Stelle, endlich oder ω.
+ */
+public class Ueberdeckungsanalyse {
+
+	private final KompiliertesNetz netz;
+	private final String dateiname;
+	private final Markierung anfangsmarkierung;
+
+	/**
+	 * Der Konstruktor übernimmt das kompilierte Netz und die Anfangsmarkierung
+	 * des übergebenen Petrinetzes.
+	 *
+	 * @param pn zu analysierendes Petrinetz
+	 */
+	public Ueberdeckungsanalyse(Petrinetz pn) {
+		netz = pn.getKompiliertesNetz();
+		dateiname = pn.getDateiname();
+		anfangsmarkierung = pn.getAnfangsmarkierung();
+	}
+
+	/**
+	 * Baut den Überdeckungsgraphen auf und bestimmt die Schranken der Stellen.
+	 *
+	 * @return Ergebnis der Analyse
+	 */
+	public Ueberdeckungsergebnis analysiere() {
+		int anzahlStellen = netz.getAnzahlStellen();
+		Erreichbarkeitsgraph graph = new Erreichbarkeitsgraph(anfangsmarkierung);
+
+		// Knoten werden in der Reihenfolge ihres Auffindens indiziert,
+		// zu jedem Knoten wird der Vorgänger im Suchbaum gemerkt
+		HashMap<Markierung, Integer> index = new HashMap<Markierung, Integer>();
+		Markierung[] knoten = new Markierung[64];
+		int[] eltern = new int[64];
+		int anzahlKnoten = 0;
+
+		index.put(anfangsmarkierung, anzahlKnoten);
+		knoten[anzahlKnoten] = anfangsmarkierung;
+		eltern[anzahlKnoten] = -1;
+		anzahlKnoten++;
+
+		int[] schranken = new int[anzahlStellen];
+		aktualisiereSchranken(schranken, anfangsmarkierung);
+
+		ArrayDeque<Integer> offen = new ArrayDeque<Integer>();
+		offen.push(0);
+
+		int[] marken = new int[anzahlStellen];
+		int[] folge = new int[anzahlStellen];
+
+		while (!offen.isEmpty()) {
+			int k = offen.pop();
+			Markierung m = knoten[k];
+			m.kopiereNach(marken);
+
+			for (int t = 0; t < netz.getAnzahlTransitionen(); t++) {
+				if (!netz.istAktiviert(t, marken))
+					continue;
+
+				System.arraycopy(marken, 0, folge, 0, anzahlStellen);
+				netz.schaltenOmega(t, folge);
+
+				// Beschleunigung: überdeckte Vorfahren suchen und
+				// echt größere Stellen auf ω setzen
+				for (int v = k; v >= 0; v = eltern[v])
+					beschleunige(folge, knoten[v]);
+
+				Markierung mFolge = new Markierung(folge);
+				if (!index.containsKey(mFolge)) {
+					if (anzahlKnoten == knoten.length) {
+						knoten = Arrays.copyOf(knoten, anzahlKnoten * 2);
+						eltern = Arrays.copyOf(eltern, anzahlKnoten * 2);
+					}
+					index.put(mFolge, anzahlKnoten);
+					knoten[anzahlKnoten] = mFolge;
+					eltern[anzahlKnoten] = k;
+					offen.push(anzahlKnoten);
+					anzahlKnoten++;
+					aktualisiereSchranken(schranken, mFolge);
+				}
+				graph.ergaenzeUebergang(m, mFolge, netz.getTransitionID(t));
+			}
+		}
+
+		String[] stellenIDs = new String[anzahlStellen];
+		for (int s = 0; s < anzahlStellen; s++)
+			stellenIDs[s] = netz.getStellenID(s);
+		return new Ueberdeckungsergebnis(dateiname, graph, stellenIDs, schranken);
+	}
+
+	/**
+	 * Setzt alle Stellen der Folgemarkierung auf ω, in denen sie echt größer als
+	 * der Vorfahre ist, sofern sie den Vorfahren überdeckt.
+	 *
+	 * @param folge    Folgemarkierung, wird gegebenenfalls verändert
+	 * @param vorfahre Markierung eines Vorfahren
+	 */
+	private static void beschleunige(int[] folge, Markierung vorfahre) {
+		boolean echtGroesser = false;
+		for (int s = 0; s < folge.length; s++) {
+			if (folge[s] < vorfahre.getMarken(s))
+				return;
+			if (folge[s] > vorfahre.getMarken(s))
+				echtGroesser = true;
+		}
+		if (!echtGroesser)
+			return;
+		for (int s = 0; s < folge.length; s++)
+			if (folge[s] > vorfahre.getMarken(s))
+				folge[s] = Markierung.OMEGA;
+	}
+
+	/**
+	 * Übernimmt die Marken der Markierung in die Schranken, wenn sie größer sind.
+	 *
+	 * @param schranken bisherige Schranken der Stellen
+	 * @param m         neue Markierung
+	 */
+	private static void aktualisiereSchranken(int[] schranken, Markierung m) {
+		for (int s = 0; s < schranken.length; s++)
+			if (m.getMarken(s) > schranken[s])
+				schranken[s] = m.getMarken(s);
+	}
+
+}
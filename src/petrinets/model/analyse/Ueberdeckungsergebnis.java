@@ -0,0 +1,116 @@
+package petrinets.model.analyse;
+
+import petrinets.model.eg.Erreichbarkeitsgraph;
+import petrinets.model.eg.Markierung;
+
+/**
+ * Ein Objekt dieser Klasse hält das Ergebnis einer
+ * {@link Ueberdeckungsanalyse}: den Überdeckungsgraphen und die Schranke jeder
+ * Stelle. Unbeschränkte Stellen haben die Schranke {@link Markierung#OMEGA}.
+ */
+public class Ueberdeckungsergebnis {
+
+	private final String dateiname;
+	private final Erreichbarkeitsgraph graph;
+	private final String[] stellenIDs;
+	private final int[] schranken;
+
+	/**
+	 * Der Konstruktor wird am Ende der Analyse aufgerufen und setzt alle
+	 * Ergebnisse.
+	 *
+	 * @param dateiname  Dateiname des analysierten Petrinetzes
+	 * @param graph      Überdeckungsgraph
+	 * @param stellenIDs IDs der Stellen, indiziert wie die Markierungen
+	 * @param schranken  Schranken der Stellen, indiziert wie die Markierungen
+	 */
+	protected Ueberdeckungsergebnis(String dateiname, Erreichbarkeitsgraph graph, String[] stellenIDs,
+			int[] schranken) {
+		this.dateiname = dateiname;
+		this.graph = graph;
+		this.stellenIDs = stellenIDs;
+		this.schranken = schranken;
+	}
+
+	/**
+	 * Gibt den Dateinamen des analysierten Petrinetzes zurück.
+	 *
+	 * @return Dateiname
+	 */
+	public String getDateiname() {
+		return dateiname;
+	}
+
+	/**
+	 * Gibt den Überdeckungsgraphen zurück. Seine Knoten können mit ω markierte
+	 * Stellen enthalten.
+	 *
+	 * @return Überdeckungsgraph
+	 */
+	public Erreichbarkeitsgraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Gibt zurück, ob das Petrinetz beschränkt ist, also keine Stelle mit ω
+	 * markiert werden musste.
+	 *
+	 * @return true, wenn beschränkt, sonst false
+	 */
+	public boolean istBeschraenkt() {
+		for (int schranke : schranken)
+			if (schranke == Markierung.OMEGA)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Gibt die Anzahl der Stellen zurück.
+	 *
+	 * @return Anzahl der Stellen
+	 */
+	public int getAnzahlStellen() {
+		return stellenIDs.length;
+	}
+
+	/**
+	 * Gibt die ID der Stelle mit dem übergebenen Index zurück.
+	 *
+	 * @param s Index der Stelle
+	 * @return ID der Stelle
+	 */
+	public String getStellenID(int s) {
+		return stellenIDs[s];
+	}
+
+	/**
+	 * Gibt die Schranke der Stelle mit dem übergebenen Index zurück.
+	 *
+	 * @param s Index der Stelle
+	 * @return größte erreichbare Markenzahl oder {@link Markierung#OMEGA}
+	 */
+	public int getSchranke(int s) {
+		return schranken[s];
+	}
+
+	/**
+	 * Bringt die Schranken aller Stellen in eine lesbare Form, zum Beispiel
+	 * "p1: 1, p2: ω".
+	 *
+	 * @return Auflistung der Schranken
+	 */
+	public String formatiereSchranken() {
+		StringBuilder sb = new StringBuilder();
+		for (int s = 0; s < stellenIDs.length; s++) {
+			if (s > 0)
+				sb.append(", ");
+			sb.append(stellenIDs[s]).append(": ");
+			if (schranken[s] == Markierung.OMEGA)
+				sb.append('ω');
+			else
+				sb.append(schranken[s]);
+		}
+		return sb.toString();
+	}
+
+}
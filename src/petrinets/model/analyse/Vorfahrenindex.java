@@ -0,0 +1,177 @@
+package petrinets.model.analyse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TreeMap;
+
+import petrinets.model.eg.Markierung;
+
+/**
+ * Ein Objekt dieser Klasse hält die Markierungen des aktuellen Pfades einer
+ * Tiefensuche als Stapel und wird beim Schalten und Zurücksetzen schrittweise
+ * mitgeführt. Zwei Anfragen werden ohne Durchlaufen des ganzen Pfades
+ * beantwortet:
+ *
+ * Ob eine Markierung auf dem Pfad liegt, wird über eine Hash-Tabelle geprüft.
+ *
+ * Ob ein Vorfahre von einer Markierung m echt überdeckt wird, wird über
+ * Eimer nach Markensumme beantwortet. Ein solcher Vorfahre hat immer eine echt
+ * kleinere Markensumme als m, nur diese Eimer werden betrachtet. Innerhalb
+ * eines Eimers schließt eine Signatur der markierten Stellen die meisten
+ * Kandidaten ohne vollständigen Vergleich aus. Bei Netzen mit konstanter
+ * Markensumme, etwa Kreisen, gibt es daher gar keine Kandidaten.
+ *
+ * Die Suche nach einem überdeckten Vorfahren ist im schlechtesten Fall linear
+ * in der Pfadtiefe d, also O(d * |S|) mit |S| Stellen: Wächst die Markensumme
+ * entlang des Pfades, etwa bei unbeschränkten Netzen, liegen alle Vorfahren in
+ * kleineren Eimern und werden einzeln über die Signatur geprüft. Der Index
+ * spart gegenüber dem einfachen Durchlaufen des Pfades nur die vollständigen
+ * Vergleiche und die Vorfahren mit gleicher oder größerer Markensumme.
+ */
+class Vorfahrenindex {
+
+	private Markierung[] eintraege = new Markierung[64];
+	private int groesse;
+
+	// Anzahl der Vorkommen jeder Markierung auf dem Pfad
+	private final HashMap<Markierung, Integer> vorkommen = new HashMap<Markierung, Integer>();
+
+	// Nur das erste Vorkommen einer Markierung wird in die Eimer aufgenommen.
+	// Jeder Eimer ist eine verkettete Liste von Pfadpositionen, beginnend beim
+	// tiefsten Eintrag.
+	private boolean[] indiziert = new boolean[64];
+	private long[] signatur = new long[64];
+	private int[] vorherigerImEimer = new int[64];
+	private final TreeMap<Long, Integer> eimer = new TreeMap<Long, Integer>();
+
+	/**
+	 * Legt eine Markierung oben auf den Pfad.
+	 *
+	 * @param m neue Markierung
+	 */
+	void push(Markierung m) {
+		if (groesse == eintraege.length) {
+			int n = groesse * 2;
+			eintraege = Arrays.copyOf(eintraege, n);
+			indiziert = Arrays.copyOf(indiziert, n);
+			signatur = Arrays.copyOf(signatur, n);
+			vorherigerImEimer = Arrays.copyOf(vorherigerImEimer, n);
+		}
+		int i = groesse++;
+		eintraege[i] = m;
+
+		Integer anzahl = vorkommen.get(m);
+		vorkommen.put(m, anzahl == null ? 1 : anzahl + 1);
+		indiziert[i] = anzahl == null;
+		if (indiziert[i]) {
+			signatur[i] = signatur(m);
+			Integer vorheriger = eimer.put(summe(m), i);
+			vorherigerImEimer[i] = vorheriger == null ? -1 : vorheriger;
+		}
+	}
+
+	/**
+	 * Entfernt die oberste Markierung vom Pfad.
+	 *
+	 * @return entfernte Markierung
+	 */
+	Markierung pop() {
+		int i = --groesse;
+		Markierung m = eintraege[i];
+		eintraege[i] = null;
+
+		int anzahl = vorkommen.get(m);
+		if (anzahl == 1)
+			vorkommen.remove(m);
+		else
+			vorkommen.put(m, anzahl - 1);
+		if (indiziert[i]) {
+			if (vorherigerImEimer[i] < 0)
+				eimer.remove(summe(m));
+			else
+				eimer.put(summe(m), vorherigerImEimer[i]);
+		}
+		return m;
+	}
+
+	/**
+	 * Gibt die oberste Markierung des Pfades zurück.
+	 *
+	 * @return oberste Markierung
+	 */
+	Markierung peek() {
+		return eintraege[groesse - 1];
+	}
+
+	/**
+	 * Prüft, ob die Markierung auf dem Pfad liegt.
+	 *
+	 * @param m zu prüfende Markierung
+	 * @return true, wenn die Markierung auf dem Pfad liegt
+	 */
+	boolean enthaelt(Markierung m) {
+		return vorkommen.containsKey(m);
+	}
+
+	/**
+	 * Sucht den tiefsten Vorfahren, den die übergebene Markierung an jeder Stelle
+	 * überdeckt. Die Markierung selbst darf nicht auf dem Pfad liegen. Der
+	 * Aufwand ist im schlechtesten Fall linear in der Pfadtiefe.
+	 *
+	 * @param m neue Markierung
+	 * @return überdeckter Vorfahre oder null, wenn es keinen gibt
+	 */
+	Markierung findeUeberdecktenVorfahren(Markierung m) {
+		long sig = signatur(m);
+		int tiefster = -1;
+		for (int start : eimer.headMap(summe(m), false).values()) {
+			for (int i = start; i > tiefster; i = vorherigerImEimer[i]) {
+				if ((signatur[i] & ~sig) == 0 && ueberdeckt(m, eintraege[i])) {
+					tiefster = i;
+					break;
+				}
+			}
+		}
+		return tiefster < 0 ? null : eintraege[tiefster];
+	}
+
+	/**
+	 * Gibt die Markierungen des Pfades von unten nach oben zurück.
+	 *
+	 * @return Liste der Markierungen
+	 */
+	ArrayList<Markierung> getMarkierungen() {
+		return new ArrayList<Markierung>(Arrays.asList(eintraege).subList(0, groesse));
+	}
+
+	/**
+	 * Testet, ob m1 an jeder Stelle mindestens so viele Marken wie m2 hat.
+	 */
+	private static boolean ueberdeckt(Markierung m1, Markierung m2) {
+		for (int s = 0; s < m1.getAnzahlStellen(); s++)
+			if (m1.getMarken(s) < m2.getMarken(s))
+				return false;
+		return true;
+	}
+
+	private static long summe(Markierung m) {
+		long summe = 0;
+		for (int s = 0; s < m.getAnzahlStellen(); s++)
+			summe += m.getMarken(s);
+		return summe;
+	}
+
+	/**
+	 * Bildet die markierten Stellen auf 64 Bit ab. Überdeckt m1 die Markierung
+	 * m2, so ist die Signatur von m2 in der von m1 enthalten.
+	 */
+	private static long signatur(Markierung m) {
+		long sig = 0;
+		for (int s = 0; s < m.getAnzahlStellen(); s++)
+			if (m.getMarken(s) > 0)
+				sig |= 1L << (s & 63);
+		return sig;
+	}
+
+}
@@ -0,0 +1,225 @@
+package petrinets.model.analyse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
+import petrinets.model.eg.Erreichbarkeitsgraph;
+import petrinets.model.eg.Markierung;
+import petrinets.model.pn.KompiliertesNetz;
+import petrinets.model.pn.Petrinetz;
+import petrinets.model.speicher.AuslagernderSpeicher;
+import petrinets.model.speicher.Zustandsspeicher;
+
+/**
+ * Diese Klasse durchsucht den Zustandsraum eines Petrinetzes, ohne den
+ * Erreichbarkeitsgraphen aufzubauen. Besuchte Markierungen werden nur in
+ * einem {@link Zustandsspeicher} vermerkt, jede wird genau einmal expandiert.
+ * Im Heap liegt außer dem Speicher nur der aktuelle Pfad der Tiefensuche.
+ * Mit einem {@link AuslagernderSpeicher} lassen sich so Zustandsräume
+ * durchsuchen, die als Erreichbarkeitsgraph nicht in den Heap passen.
+ *
+ * Unbeschränktheit liegt vor, wenn eine neue Markierung einen Vorfahren auf
+ * dem aktuellen Pfad echt überdeckt. Ist das Netz unbeschränkt, ist der
+ * Suchbaum unendlich und enthält nach dem Lemma von König einen unendlichen
+ * Pfad, auf dem sich nach dem Lemma von Dickson eine solche Überdeckung
+ * findet. Das Urteil stimmt daher mit der {@link Beschraenktheitsanalyse}
+ * überein, solange der Speicher keine Markierung übergeht. Mit einem
+ * verlustbehafteten Speicher wie dem {@link petrinets.model.speicher.BitstateSpeicher}
+ * ist die Suche eine schnelle Stichprobe mit festem Speicherbedarf.
+ */
+public class Zustandsraumanalyse implements Analyseverfahren {
+
+	private final KompiliertesNetz netz;
+	private final String dateiname;
+	private final Markierung anfangsmarkierung;
+	private final IntFunction<Zustandsspeicher> speicherFabrik;
+	private Analysemetriken metriken;
+	private volatile boolean abgebrochen;
+
+	private Vorfahrenindex pfad;
+	private ArrayList<String> transitionen;
+	private Markierung pfadAnfang;
+	private long anzahlUebergaenge;
+	private long anzahlVerklemmungen;
+	private Analysemetriken.Erfassung erfassung;
+
+	// Suchebenen der Tiefensuche: aktivierte Transitionen und die nächste zu
+	// schaltende, indiziert nach der Tiefe. Die Markierung jeder Ebene liegt im
+	// Vorfahrenindex.
+	private BitSet[] ebenenAktiviert;
+	private int[] ebenenCursor;
+	private Markierung[] ebenenMarkierung;
+	private int tiefe;
+
+	/**
+	 * Der Konstruktor übernimmt das kompilierte Netz und die Anfangsmarkierung
+	 * des übergebenen Petrinetzes. Die Markierungen werden in einem
+	 * {@link AuslagernderSpeicher} mit Standardbudget gehalten.
+	 *
+	 * @param pn zu analysierendes Petrinetz
+	 */
+	public Zustandsraumanalyse(Petrinetz pn) {
+		this(pn, anzahlStellen -> new AuslagernderSpeicher(anzahlStellen));
+	}
+
+	/**
+	 * Der Konstruktor übernimmt das kompilierte Netz und die Anfangsmarkierung
+	 * des übergebenen Petrinetzes.
+	 *
+	 * @param pn             zu analysierendes Petrinetz
+	 * @param speicherFabrik erstellt für jede Analyse einen neuen Speicher zur
+	 *                       Anzahl der Stellen, er wird am Ende geschlossen
+	 */
+	public Zustandsraumanalyse(Petrinetz pn, IntFunction<Zustandsspeicher> speicherFabrik) {
+		netz = pn.getKompiliertesNetz();
+		dateiname = pn.getDateiname();
+		anfangsmarkierung = pn.getAnfangsmarkierung();
+		this.speicherFabrik = speicherFabrik;
+	}
+
+	@Override
+	public void setMetriken(Analysemetriken metriken) {
+		this.metriken = metriken;
+	}
+
+	@Override
+	public void abbrechen() {
+		abgebrochen = true;
+	}
+
+	/**
+	 * Durchsucht den Zustandsraum ausgehend von der Anfangsmarkierung.
+	 *
+	 * @return Ergebnis der Analyse
+	 */
+	@Override
+	public Zustandsraumergebnis analysiere() {
+		pfad = new Vorfahrenindex();
+		transitionen = new ArrayList<String>();
+		pfadAnfang = null;
+		anzahlUebergaenge = 0;
+		anzahlVerklemmungen = 0;
+		ebenenAktiviert = new BitSet[64];
+		ebenenCursor = new int[64];
+		ebenenMarkierung = new Markierung[64];
+
+		try (Zustandsspeicher speicher = speicherFabrik.apply(netz.getAnzahlStellen())) {
+			boolean beschraenkt;
+			erfassung = new Analysemetriken.Erfassung(metriken);
+			try {
+				beschraenkt = durchsuche(speicher);
+			} finally {
+				erfassung.meldeStand(tiefe, speicher.getAnzahl(), speicher.getBelegteBytes());
+				erfassung.schliesse();
+				erfassung = null;
+			}
+			boolean unterbrochen = beschraenkt && tiefe > 0;
+			ebenenAktiviert = null;
+			ebenenCursor = null;
+			ebenenMarkierung = null;
+
+			if (beschraenkt) {
+				Zustandsraumergebnis ergebnis = new Zustandsraumergebnis(dateiname, true,
+						new Erreichbarkeitsgraph(anfangsmarkierung), new ArrayList<Markierung>(),
+						new ArrayList<String>(), null, null, speicher.getAnzahl(), anzahlUebergaenge,
+						anzahlVerklemmungen, speicher.getAusgelagert(), speicher.getBelegteBytes(),
+						speicher.getAuslassungswahrscheinlichkeit(), speicher.istEingeschraenkt());
+				// bei einem Abbruch sind die Anzahlen nur ein Zwischenstand
+				if (unterbrochen)
+					ergebnis.setAbgebrochen();
+				return ergebnis;
+			}
+
+			// nur den Pfad zu m' als EG zurückgeben
+			ArrayList<Markierung> markierungen = pfad.getMarkierungen();
+			Erreichbarkeitsgraph eg = new Erreichbarkeitsgraph(anfangsmarkierung);
+			for (int i = 0; i < transitionen.size(); i++)
+				eg.ergaenzeUebergang(markierungen.get(i), markierungen.get(i + 1), transitionen.get(i));
+			return new Zustandsraumergebnis(dateiname, false, eg, markierungen, transitionen, pfadAnfang,
+					pfad.peek(), speicher.getAnzahl(), anzahlUebergaenge, anzahlVerklemmungen,
+					speicher.getAusgelagert(), speicher.getBelegteBytes(), speicher.getAuslassungswahrscheinlichkeit(),
+					speicher.istEingeschraenkt());
+		}
+	}
+
+	/**
+	 * Führt die Tiefensuche iterativ über einen expliziten Stapel von
+	 * Suchebenen durch.
+	 *
+	 * @param speicher Speicher der besuchten Markierungen
+	 * @return true, wenn das Netz beschränkt ist
+	 */
+	private boolean durchsuche(Zustandsspeicher speicher) {
+		int[] marken = new int[netz.getAnzahlStellen()];
+		anfangsmarkierung.kopiereNach(marken);
+		speicher.fuegeHinzu(marken);
+		erfassung.zustaende++;
+		tiefe = 0;
+		betrete(new Markierung(marken), marken);
+
+		while (tiefe > 0 && !abgebrochen) {
+			int ebene = tiefe - 1;
+			if (erfassung.faellig()) {
+				erfassung.uebertrage();
+				erfassung.meldeStand(tiefe, speicher.getAnzahl(), speicher.getBelegteBytes());
+			}
+			int t = ebenenAktiviert[ebene].nextSetBit(ebenenCursor[ebene]);
+			if (t < 0) {
+				// Ebene vollständig abgearbeitet: zur vorherigen zurückkehren
+				ebenenAktiviert[ebene] = null;
+				ebenenMarkierung[ebene] = null;
+				tiefe--;
+				erfassung.ruecksprunge++;
+				pfad.pop();
+				if (tiefe > 0)
+					transitionen.remove(transitionen.size() - 1);
+				continue;
+			}
+			ebenenCursor[ebene] = t + 1;
+
+			ebenenMarkierung[ebene].kopiereNach(marken);
+			netz.schalten(t, marken);
+			erfassung.geschaltet++;
+			if (!speicher.fuegeHinzu(marken))
+				continue;
+			erfassung.zustaende++;
+
+			Markierung m = new Markierung(marken);
+			transitionen.add(netz.getTransitionID(t));
+			Markierung vorfahre = pfad.findeUeberdecktenVorfahren(m);
+			if (vorfahre != null) {
+				pfadAnfang = vorfahre;
+				pfad.push(m);
+				return false;
+			}
+			betrete(m, marken);
+		}
+		return true;
+	}
+
+	/**
+	 * Legt für eine neue Markierung eine Suchebene an und zählt ihre Übergänge.
+	 */
+	private void betrete(Markierung m, int[] marken) {
+		if (tiefe == ebenenAktiviert.length) {
+			ebenenAktiviert = Arrays.copyOf(ebenenAktiviert, tiefe * 2);
+			ebenenCursor = Arrays.copyOf(ebenenCursor, tiefe * 2);
+			ebenenMarkierung = Arrays.copyOf(ebenenMarkierung, tiefe * 2);
+		}
+		BitSet aktiviert = new BitSet(netz.getAnzahlTransitionen());
+		netz.pruefeAktivierung(marken, aktiviert);
+		int n = aktiviert.cardinality();
+		anzahlUebergaenge += n;
+		if (n == 0)
+			anzahlVerklemmungen++;
+
+		pfad.push(m);
+		ebenenAktiviert[tiefe] = aktiviert;
+		ebenenCursor[tiefe] = 0;
+		ebenenMarkierung[tiefe] = m;
+		tiefe++;
+	}
+
+}
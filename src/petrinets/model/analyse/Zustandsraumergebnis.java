@@ -0,0 +1,150 @@
+package petrinets.model.analyse;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+
+import petrinets.model.eg.Erreichbarkeitsgraph;
+import petrinets.model.eg.Markierung;
+
+/**
+ * Ein Objekt dieser Klasse hält das Ergebnis einer {@link Zustandsraumanalyse}.
+ * Die besuchten Markierungen liegen nur im Zustandsspeicher, der
+ * Erreichbarkeitsgraph enthält daher bei beschränkten Netzen nur die
+ * Anfangsmarkierung und bei unbeschränkten den Pfad zu m'. Die Anzahlen der
+ * Markierungen, Übergänge und Verklemmungen beziehen sich dagegen auf alle
+ * besuchten Markierungen.
+ */
+public class Zustandsraumergebnis extends Analyseergebnis {
+
+	private final long anzahlZustaende;
+	private final long anzahlUebergaenge;
+	private final long anzahlVerklemmungen;
+	private final long ausgelagert;
+	private final long belegteBytes;
+	private final double auslassungswahrscheinlichkeit;
+	private final boolean eingeschraenkt;
+
+	/**
+	 * Der Konstruktor wird am Ende der Analyse aufgerufen und setzt alle
+	 * Ergebnisse.
+	 *
+	 * @param dateiname           Dateiname des analysierten Petrinetzes
+	 * @param beschraenkt         true, wenn das Netz beschränkt ist
+	 * @param eg                  Anfangsmarkierung oder Pfad zu m' als EG
+	 * @param pfadMarkierungen    Markierungen auf dem Pfad zu m', leer wenn
+	 *                            beschränkt
+	 * @param pfadTransitionen    Transitionen auf dem Pfad zu m', leer wenn
+	 *                            beschränkt
+	 * @param pfadAnfang          Markierung m, null wenn beschränkt
+	 * @param pfadEnde            Markierung m', null wenn beschränkt
+	 * @param anzahlZustaende     Anzahl der besuchten Markierungen
+	 * @param anzahlUebergaenge   Anzahl der Übergänge zwischen ihnen
+	 * @param anzahlVerklemmungen Anzahl der besuchten toten Markierungen
+	 * @param ausgelagert         Anzahl der auf die Platte ausgelagerten
+	 *                            Markierungen
+	 * @param belegteBytes        Bytes, die der Zustandsspeicher am Ende belegt
+	 * @param auslassungswahrscheinlichkeit geschätzte Wahrscheinlichkeit, dass
+	 *                            der Speicher eine Markierung übergangen hat
+	 * @param eingeschraenkt      true, wenn der Zustandsspeicher nur
+	 *                            eingeschränkt arbeiten konnte
+	 */
+	protected Zustandsraumergebnis(String dateiname, boolean beschraenkt, Erreichbarkeitsgraph eg,
+			ArrayList<Markierung> pfadMarkierungen, ArrayList<String> pfadTransitionen, Markierung pfadAnfang,
+			Markierung pfadEnde, long anzahlZustaende, long anzahlUebergaenge, long anzahlVerklemmungen,
+			long ausgelagert, long belegteBytes, double auslassungswahrscheinlichkeit, boolean eingeschraenkt) {
+		super(dateiname, beschraenkt, eg, pfadMarkierungen, pfadTransitionen, pfadAnfang, pfadEnde);
+		this.anzahlZustaende = anzahlZustaende;
+		this.anzahlUebergaenge = anzahlUebergaenge;
+		this.anzahlVerklemmungen = anzahlVerklemmungen;
+		this.ausgelagert = ausgelagert;
+		this.belegteBytes = belegteBytes;
+		this.auslassungswahrscheinlichkeit = auslassungswahrscheinlichkeit;
+		this.eingeschraenkt = eingeschraenkt;
+	}
+
+	/**
+	 * Gibt die Anzahl der besuchten Markierungen zurück. Bei beschränkten Netzen
+	 * sind das alle erreichbaren.
+	 *
+	 * @return Anzahl der Markierungen
+	 */
+	@Override
+	public BigInteger getAnzahlZustaende() {
+		return BigInteger.valueOf(anzahlZustaende);
+	}
+
+	/**
+	 * Gibt die Anzahl der Übergänge zwischen den besuchten Markierungen zurück.
+	 *
+	 * @return Anzahl der Übergänge
+	 */
+	@Override
+	public BigInteger getAnzahlUebergaenge() {
+		return BigInteger.valueOf(anzahlUebergaenge);
+	}
+
+	/**
+	 * Gibt die Anzahl der besuchten Markierungen zurück, unter denen keine
+	 * Transition aktiviert ist.
+	 *
+	 * @return Anzahl der Verklemmungen
+	 */
+	@Override
+	public BigInteger getAnzahlVerklemmungen() {
+		return BigInteger.valueOf(anzahlVerklemmungen);
+	}
+
+	/**
+	 * Gibt die Anzahl der Markierungen zurück, die während der Analyse auf die
+	 * Platte ausgelagert wurden.
+	 *
+	 * @return Anzahl der ausgelagerten Markierungen
+	 */
+	public long getAusgelagert() {
+		return ausgelagert;
+	}
+
+	/**
+	 * Gibt die Bytes zurück, die der Zustandsspeicher am Ende der Analyse im
+	 * Heap und auf der Platte belegt.
+	 *
+	 * @return belegte Bytes
+	 */
+	public long getBelegteBytes() {
+		return belegteBytes;
+	}
+
+	/**
+	 * Gibt die durchschnittlich je Markierung im Zustandsspeicher belegten
+	 * Bytes zurück.
+	 *
+	 * @return Bytes je Markierung
+	 */
+	public double getBytesJeZustand() {
+		return anzahlZustaende == 0 ? 0 : (double) belegteBytes / anzahlZustaende;
+	}
+
+	/**
+	 * Gibt die geschätzte Wahrscheinlichkeit zurück, dass ein verlustbehafteter
+	 * Zustandsspeicher mindestens eine Markierung übergangen hat. Ist sie
+	 * größer als 0, kann ein beschränktes Netz weniger Markierungen haben als
+	 * angegeben oder in Wahrheit unbeschränkt sein. Ein gefundener Pfad zu m'
+	 * ist immer gültig.
+	 *
+	 * @return Wahrscheinlichkeit zwischen 0 und 1
+	 */
+	public double getAuslassungswahrscheinlichkeit() {
+		return auslassungswahrscheinlichkeit;
+	}
+
+	/**
+	 * Gibt zurück, ob der Zustandsspeicher während der Analyse nur
+	 * eingeschränkt arbeiten konnte.
+	 *
+	 * @return true, wenn der Speicher eingeschränkt war
+	 */
+	public boolean istEingeschraenkt() {
+		return eingeschraenkt;
+	}
+
+}
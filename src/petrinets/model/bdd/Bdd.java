@@ -0,0 +1,517 @@
+package petrinets.model.bdd;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Ein einfacher Verwalter für reduzierte geordnete binäre Entscheidungsdiagramme
+ * (BDDs). Knoten werden als int-Referenzen herausgegeben, 0 ist die Konstante
+ * falsch, 1 die Konstante wahr. Gleiche Teildiagramme existieren nur einmal,
+ * zwei BDDs sind daher genau dann gleich, wenn ihre Referenzen gleich sind.
+ *
+ * Die Variablen sind durch ihren Index geordnet, kleinere Indizes liegen
+ * näher an der Wurzel. Nicht mehr benötigte Knoten werden erst durch
+ * {@link #sammleMuell(int[])} freigegeben, der Aufrufer übergibt dabei alle
+ * noch benötigten Wurzeln. Die Klasse ist nicht threadsicher.
+ */
+public class Bdd {
+
+	/** die Konstante falsch */
+	public static final int FALSCH = 0;
+	/** die Konstante wahr */
+	public static final int WAHR = 1;
+
+	// Operationen für den Ergebnisspeicher
+	private static final int UND = 0;
+	private static final int ODER = 1;
+	private static final int UND_NICHT = 2;
+	private static final int NICHT = 3;
+	private static final int RELPROD = 4;
+	private static final int UMBENENNEN = 5;
+
+	private final int anzahlVariablen;
+
+	// Knotentabelle: Variable, Nachfolger für 0 und für 1, nächster Knoten mit
+	// gleichem Hashwert oder in der Freiliste. Freie Knoten haben die
+	// Variable -1.
+	private int[] variable;
+	private int[] niedrig;
+	private int[] hoch;
+	private int[] naechster;
+	private int belegt;
+	private int freiliste = -1;
+	private int anzahlKnoten;
+	private int hoechststand;
+
+	// eindeutige Tabelle: erster Knoten je Hashwert
+	private int[] eimer;
+
+	// verlustbehafteter Ergebnisspeicher: Operation, Operanden und Ergebnis
+	private final int[] speicherOp;
+	private final int[] speicherA;
+	private final int[] speicherB;
+	private final int[] speicherErgebnis;
+
+	// Quantifizierung und Umbenennung der laufenden Operation. Ergebnisse gelten
+	// nur für dieselbe Quantifizierung oder Umbenennung und werden daher
+	// zusätzlich über deren laufende Nummer unterschieden
+	private boolean[] quantifiziert;
+	private int quantifizierungsNummer;
+	private int[] umbenennung;
+	private int umbenennungsNummer;
+
+	/**
+	 * Der Konstruktor erstellt einen leeren Verwalter für die übergebene Anzahl
+	 * an Variablen.
+	 *
+	 * @param anzahlVariablen Anzahl der Variablen
+	 */
+	public Bdd(int anzahlVariablen) {
+		this.anzahlVariablen = anzahlVariablen;
+		int kapazitaet = 1 << 16;
+		variable = new int[kapazitaet];
+		niedrig = new int[kapazitaet];
+		hoch = new int[kapazitaet];
+		naechster = new int[kapazitaet];
+		eimer = new int[kapazitaet];
+		Arrays.fill(eimer, -1);
+
+		// Terminale liegen unterhalb aller Variablen
+		variable[FALSCH] = anzahlVariablen;
+		variable[WAHR] = anzahlVariablen;
+		belegt = 2;
+		anzahlKnoten = 2;
+		hoechststand = 2;
+
+		int speicher = 1 << 18;
+		speicherOp = new int[speicher];
+		speicherA = new int[speicher];
+		speicherB = new int[speicher];
+		speicherErgebnis = new int[speicher];
+		Arrays.fill(speicherOp, -1);
+	}
+
+	/**
+	 * Gibt die Anzahl der Variablen zurück.
+	 *
+	 * @return Anzahl der Variablen
+	 */
+	public int getAnzahlVariablen() {
+		return anzahlVariablen;
+	}
+
+	/**
+	 * Gibt die Anzahl der belegten Knoten einschließlich der beiden Terminale
+	 * zurück.
+	 *
+	 * @return Anzahl der Knoten
+	 */
+	public int getAnzahlKnoten() {
+		return anzahlKnoten;
+	}
+
+	/**
+	 * Gibt die größte Anzahl gleichzeitig belegter Knoten zurück.
+	 *
+	 * @return Höchststand der Knoten
+	 */
+	public int getHoechststand() {
+		return hoechststand;
+	}
+
+	/**
+	 * Gibt das BDD der Variablen v zurück.
+	 *
+	 * @param v Index der Variablen
+	 * @return BDD, das genau dann wahr ist, wenn v wahr ist
+	 */
+	public int variable(int v) {
+		return knoten(v, FALSCH, WAHR);
+	}
+
+	/**
+	 * Gibt das BDD der negierten Variablen v zurück.
+	 *
+	 * @param v Index der Variablen
+	 * @return BDD, das genau dann wahr ist, wenn v falsch ist
+	 */
+	public int nichtVariable(int v) {
+		return knoten(v, WAHR, FALSCH);
+	}
+
+	/**
+	 * Gibt den eindeutigen Knoten mit der Variablen v und den übergebenen
+	 * Nachfolgern zurück. Beide Nachfolger müssen unterhalb von v liegen.
+	 *
+	 * @param v       Index der Variablen
+	 * @param niedrig Nachfolger, wenn v falsch ist
+	 * @param hoch    Nachfolger, wenn v wahr ist
+	 * @return Referenz auf den Knoten
+	 */
+	public int knoten(int v, int niedrig, int hoch) {
+		if (niedrig == hoch)
+			return niedrig;
+
+		int h = hash(v, niedrig, hoch) & (eimer.length - 1);
+		for (int k = eimer[h]; k >= 0; k = naechster[k])
+			if (variable[k] == v && this.niedrig[k] == niedrig && this.hoch[k] == hoch)
+				return k;
+
+		int k;
+		if (freiliste >= 0) {
+			k = freiliste;
+			freiliste = naechster[k];
+		} else {
+			if (belegt == variable.length) {
+				vergroessere();
+				h = hash(v, niedrig, hoch) & (eimer.length - 1);
+			}
+			k = belegt++;
+		}
+		anzahlKnoten++;
+		hoechststand = Math.max(hoechststand, anzahlKnoten);
+		variable[k] = v;
+		this.niedrig[k] = niedrig;
+		this.hoch[k] = hoch;
+		naechster[k] = eimer[h];
+		eimer[h] = k;
+		return k;
+	}
+
+	/**
+	 * Gibt die Variable eines Knotens zurück, bei Terminalen die Anzahl der
+	 * Variablen.
+	 *
+	 * @param f Referenz auf den Knoten
+	 * @return Index der Variablen
+	 */
+	public int getVariable(int f) {
+		return variable[f];
+	}
+
+	/**
+	 * Gibt die Konjunktion zweier BDDs zurück.
+	 *
+	 * @param f erstes BDD
+	 * @param g zweites BDD
+	 * @return f und g
+	 */
+	public int und(int f, int g) {
+		if (f == FALSCH || g == FALSCH)
+			return FALSCH;
+		if (f == WAHR || f == g)
+			return g;
+		if (g == WAHR)
+			return f;
+		if (f > g) {
+			int t = f;
+			f = g;
+			g = t;
+		}
+		int r = suche(UND, f, g);
+		if (r >= 0)
+			return r;
+
+		int v = Math.min(variable[f], variable[g]);
+		r = knoten(v, und(niedrig(f, v), niedrig(g, v)), und(hoch(f, v), hoch(g, v)));
+		merke(UND, f, g, r);
+		return r;
+	}
+
+	/**
+	 * Gibt die Disjunktion zweier BDDs zurück.
+	 *
+	 * @param f erstes BDD
+	 * @param g zweites BDD
+	 * @return f oder g
+	 */
+	public int oder(int f, int g) {
+		if (f == WAHR || g == WAHR)
+			return WAHR;
+		if (f == FALSCH || f == g)
+			return g;
+		if (g == FALSCH)
+			return f;
+		if (f > g) {
+			int t = f;
+			f = g;
+			g = t;
+		}
+		int r = suche(ODER, f, g);
+		if (r >= 0)
+			return r;
+
+		int v = Math.min(variable[f], variable[g]);
+		r = knoten(v, oder(niedrig(f, v), niedrig(g, v)), oder(hoch(f, v), hoch(g, v)));
+		merke(ODER, f, g, r);
+		return r;
+	}
+
+	/**
+	 * Gibt f ohne g zurück.
+	 *
+	 * @param f erstes BDD
+	 * @param g zweites BDD
+	 * @return f und nicht g
+	 */
+	public int undNicht(int f, int g) {
+		if (f == FALSCH || g == WAHR || f == g)
+			return FALSCH;
+		if (g == FALSCH)
+			return f;
+		if (f == WAHR)
+			return nicht(g);
+		int r = suche(UND_NICHT, f, g);
+		if (r >= 0)
+			return r;
+
+		int v = Math.min(variable[f], variable[g]);
+		r = knoten(v, undNicht(niedrig(f, v), niedrig(g, v)), undNicht(hoch(f, v), hoch(g, v)));
+		merke(UND_NICHT, f, g, r);
+		return r;
+	}
+
+	/**
+	 * Gibt die Negation eines BDDs zurück.
+	 *
+	 * @param f BDD
+	 * @return nicht f
+	 */
+	public int nicht(int f) {
+		if (f == FALSCH)
+			return WAHR;
+		if (f == WAHR)
+			return FALSCH;
+		int r = suche(NICHT, f, 0);
+		if (r >= 0)
+			return r;
+
+		r = knoten(variable[f], nicht(niedrig[f]), nicht(hoch[f]));
+		merke(NICHT, f, 0, r);
+		return r;
+	}
+
+	/**
+	 * Bildet die Konjunktion zweier BDDs und quantifiziert dabei die markierten
+	 * Variablen existenziell, ohne die Konjunktion vollständig aufzubauen.
+	 *
+	 * @param f             erstes BDD
+	 * @param g             zweites BDD
+	 * @param quantifiziert markiert je Variable, ob sie quantifiziert wird
+	 * @return es gibt Werte der markierten Variablen mit f und g
+	 */
+	public int relationalesProdukt(int f, int g, boolean[] quantifiziert) {
+		if (this.quantifiziert != quantifiziert) {
+			this.quantifiziert = quantifiziert;
+			quantifizierungsNummer++;
+		}
+		return relprod(f, g);
+	}
+
+	private int relprod(int f, int g) {
+		if (f == FALSCH || g == FALSCH)
+			return FALSCH;
+		if (f == WAHR && g == WAHR)
+			return WAHR;
+		if (f > g) {
+			int t = f;
+			f = g;
+			g = t;
+		}
+		int r = suche(RELPROD + 8 * quantifizierungsNummer, f, g);
+		if (r >= 0)
+			return r;
+
+		int v = Math.min(variable[f], variable[g]);
+		int n = relprod(niedrig(f, v), niedrig(g, v));
+		if (quantifiziert[v]) {
+			r = n == WAHR ? WAHR : oder(n, relprod(hoch(f, v), hoch(g, v)));
+		} else {
+			r = knoten(v, n, relprod(hoch(f, v), hoch(g, v)));
+		}
+		merke(RELPROD + 8 * quantifizierungsNummer, f, g, r);
+		return r;
+	}
+
+	/**
+	 * Benennt die Variablen eines BDDs um. Die Umbenennung muss die Reihenfolge
+	 * der im BDD vorkommenden Variablen erhalten. Für dieselbe Abbildung werden
+	 * Zwischenergebnisse über mehrere Aufrufe wiederverwendet.
+	 *
+	 * @param f           BDD
+	 * @param umbenennung neuer Index je Variable
+	 * @return umbenanntes BDD
+	 */
+	public int umbenennen(int f, int[] umbenennung) {
+		if (this.umbenennung != umbenennung) {
+			this.umbenennung = umbenennung;
+			umbenennungsNummer++;
+		}
+		return benenne(f);
+	}
+
+	private int benenne(int f) {
+		if (f == FALSCH || f == WAHR)
+			return f;
+		int r = suche(UMBENENNEN + 8 * umbenennungsNummer, f, 0);
+		if (r >= 0)
+			return r;
+
+		r = knoten(umbenennung[variable[f]], benenne(niedrig[f]), benenne(hoch[f]));
+		merke(UMBENENNEN + 8 * umbenennungsNummer, f, 0, r);
+		return r;
+	}
+
+	/**
+	 * Zählt die erfüllenden Belegungen der markierten Variablen. Das BDD darf
+	 * nur von markierten Variablen abhängen.
+	 *
+	 * @param f        BDD
+	 * @param gezaehlt markiert je Variable, ob sie gezählt wird
+	 * @return Anzahl der erfüllenden Belegungen
+	 */
+	public BigInteger anzahlBelegungen(int f, boolean[] gezaehlt) {
+		// Position jeder Variablen unter den gezählten, Terminale ganz unten
+		int[] position = new int[anzahlVariablen + 1];
+		int p = 0;
+		for (int v = 0; v < anzahlVariablen; v++) {
+			position[v] = p;
+			if (gezaehlt[v])
+				p++;
+		}
+		position[anzahlVariablen] = p;
+
+		HashMap<Integer, BigInteger> anzahlen = new HashMap<Integer, BigInteger>();
+		return zaehle(f, position, anzahlen).shiftLeft(position[variable[f]]);
+	}
+
+	/**
+	 * Zählt die Belegungen der gezählten Variablen ab der Variablen von f.
+	 */
+	private BigInteger zaehle(int f, int[] position, HashMap<Integer, BigInteger> anzahlen) {
+		if (f == FALSCH)
+			return BigInteger.ZERO;
+		if (f == WAHR)
+			return BigInteger.ONE;
+		BigInteger r = anzahlen.get(f);
+		if (r != null)
+			return r;
+
+		int ebene = position[variable[f]];
+		int n = niedrig[f];
+		int h = hoch[f];
+		r = zaehle(n, position, anzahlen).shiftLeft(position[variable[n]] - ebene - 1)
+				.add(zaehle(h, position, anzahlen).shiftLeft(position[variable[h]] - ebene - 1));
+		anzahlen.put(f, r);
+		return r;
+	}
+
+	/**
+	 * Gibt alle Knoten frei, die von keiner der übergebenen Wurzeln aus
+	 * erreichbar sind. Referenzen auf erreichbare Knoten bleiben gültig, der
+	 * Ergebnisspeicher wird geleert.
+	 *
+	 * @param wurzeln alle noch benötigten BDDs
+	 */
+	public void sammleMuell(int[] wurzeln) {
+		boolean[] erreichbar = new boolean[belegt];
+		erreichbar[FALSCH] = true;
+		erreichbar[WAHR] = true;
+		int[] stapel = new int[64];
+		int hoehe = 0;
+		for (int w : wurzeln) {
+			if (erreichbar[w])
+				continue;
+			erreichbar[w] = true;
+			stapel[hoehe++] = w;
+			while (hoehe > 0) {
+				int k = stapel[--hoehe];
+				if (hoehe + 2 > stapel.length)
+					stapel = Arrays.copyOf(stapel, 2 * stapel.length);
+				if (!erreichbar[niedrig[k]]) {
+					erreichbar[niedrig[k]] = true;
+					stapel[hoehe++] = niedrig[k];
+				}
+				if (!erreichbar[hoch[k]]) {
+					erreichbar[hoch[k]] = true;
+					stapel[hoehe++] = hoch[k];
+				}
+			}
+		}
+
+		// Freiliste und eindeutige Tabelle neu aufbauen
+		Arrays.fill(eimer, -1);
+		freiliste = -1;
+		anzahlKnoten = 2;
+		for (int k = belegt - 1; k >= 2; k--) {
+			if (erreichbar[k]) {
+				int h = hash(variable[k], niedrig[k], hoch[k]) & (eimer.length - 1);
+				naechster[k] = eimer[h];
+				eimer[h] = k;
+				anzahlKnoten++;
+			} else {
+				variable[k] = -1;
+				naechster[k] = freiliste;
+				freiliste = k;
+			}
+		}
+		Arrays.fill(speicherOp, -1);
+	}
+
+	/**
+	 * Nachfolger von f für v = 0, f selbst, wenn f nicht von v abhängt.
+	 */
+	private int niedrig(int f, int v) {
+		return variable[f] == v ? niedrig[f] : f;
+	}
+
+	/**
+	 * Nachfolger von f für v = 1, f selbst, wenn f nicht von v abhängt.
+	 */
+	private int hoch(int f, int v) {
+		return variable[f] == v ? hoch[f] : f;
+	}
+
+	private int suche(int op, int a, int b) {
+		int i = hash(op, a, b) & (speicherOp.length - 1);
+		if (speicherOp[i] == op && speicherA[i] == a && speicherB[i] == b)
+			return speicherErgebnis[i];
+		return -1;
+	}
+
+	private void merke(int op, int a, int b, int ergebnis) {
+		int i = hash(op, a, b) & (speicherOp.length - 1);
+		speicherOp[i] = op;
+		speicherA[i] = a;
+		speicherB[i] = b;
+		speicherErgebnis[i] = ergebnis;
+	}
+
+	private static int hash(int a, int b, int c) {
+		int h = a * 0x9E3779B1 + b;
+		h = h * 0x85EBCA6B + c;
+		return h ^ (h >>> 15);
+	}
+
+	/**
+	 * Verdoppelt die Knotentabelle und verteilt die Knoten neu auf die Eimer.
+	 */
+	private void vergroessere() {
+		int kapazitaet = variable.length * 2;
+		variable = Arrays.copyOf(variable, kapazitaet);
+		niedrig = Arrays.copyOf(niedrig, kapazitaet);
+		hoch = Arrays.copyOf(hoch, kapazitaet);
+		naechster = Arrays.copyOf(naechster, kapazitaet);
+		eimer = new int[kapazitaet];
+		Arrays.fill(eimer, -1);
+		for (int k = 2; k < belegt; k++) {
+			if (variable[k] < 0)
+				continue;
+			int h = hash(variable[k], niedrig[k], hoch[k]) & (kapazitaet - 1);
+			naechster[k] = eimer[h];
+			eimer[h] = k;
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+package petrinets.model.eg;
+
+import java.util.ArrayList;
+
+/**
+ * Die Klasse EGAenderung beschreibt die Änderungen am
+ * {@link Erreichbarkeitsgraph} seit der letzten Zustellung: neue Knoten und
+ * neue Übergänge in der Reihenfolge ihres Entstehens. Die Beobachter müssen
+ * so nur die Änderungen nachziehen, statt den ganzen EG erneut zu durchlaufen.
+ *
+ * Wurde der EG geleert oder ausgetauscht, oder sind mehr als
+ * {@value #GRENZE} Änderungen aufgelaufen, verlangt die Änderung stattdessen
+ * einen Neuaufbau der Darstellung aus dem aktuellen Inhalt des EG.
+ */
+public class EGAenderung {
+
+	/** Anzahl der Änderungen, ab der ein Neuaufbau günstiger ist */
+	public static final int GRENZE = 10000;
+
+	private boolean neuaufbau;
+	private ArrayList<Markierung> knoten;
+	private ArrayList<Uebergang> uebergaenge;
+
+	private EGAenderung(boolean neuaufbau) {
+		this.neuaufbau = neuaufbau;
+		knoten = new ArrayList<Markierung>();
+		uebergaenge = new ArrayList<Uebergang>();
+	}
+
+	/**
+	 * Erstellt die Änderung für einen geleerten oder ausgetauschten EG.
+	 *
+	 * @return Änderung
+	 */
+	static EGAenderung neuaufbau() {
+		return new EGAenderung(true);
+	}
+
+	/**
+	 * Erstellt die Änderung für einen neuen Übergang.
+	 *
+	 * @param u         der neue Übergang
+	 * @param knotenNeu true, wenn sein Folgeknoten ebenfalls neu ist
+	 * @return Änderung
+	 */
+	static EGAenderung uebergang(Uebergang u, boolean knotenNeu) {
+		EGAenderung a = new EGAenderung(false);
+		if (knotenNeu)
+			a.knoten.add(u.getFolgemarkierung());
+		a.uebergaenge.add(u);
+		return a;
+	}
+
+	/**
+	 * Fasst eine bereitliegende und eine spätere Änderung zusammen. Die
+	 * bereitliegende wird dabei erweitert und zurückgegeben.
+	 *
+	 * @param frueher bereitliegende Änderung
+	 * @param spaeter spätere Änderung
+	 * @return zusammengefasste Änderung
+	 */
+	static EGAenderung zusammenfassen(EGAenderung frueher, EGAenderung spaeter) {
+		// ein Neuaufbau liest den EG erst bei der Zustellung, spätere
+		// Änderungen sind darin schon enthalten
+		if (frueher.neuaufbau)
+			return frueher;
+		if (spaeter.neuaufbau)
+			return spaeter;
+		frueher.knoten.addAll(spaeter.knoten);
+		frueher.uebergaenge.addAll(spaeter.uebergaenge);
+		if (frueher.knoten.size() + frueher.uebergaenge.size() > GRENZE) {
+			frueher.neuaufbau = true;
+			frueher.knoten = new ArrayList<Markierung>();
+			frueher.uebergaenge = new ArrayList<Uebergang>();
+		}
+		return frueher;
+	}
+
+	/**
+	 * Gibt zurück, ob die Darstellung aus dem aktuellen Inhalt des EG neu
+	 * aufgebaut werden muss. Knoten und Übergänge sind dann leer.
+	 *
+	 * @return true bei einem Neuaufbau
+	 */
+	public boolean istNeuaufbau() {
+		return neuaufbau;
+	}
+
+	/**
+	 * Gibt die Markierungen der neuen Knoten zurück.
+	 *
+	 * @return neue Knoten
+	 */
+	public ArrayList<Markierung> getKnoten() {
+		return knoten;
+	}
+
+	/**
+	 * Gibt die neuen Übergänge zurück, ihre Knoten sind vorher neu oder
+	 * existierten bereits.
+	 *
+	 * @return neue Übergänge
+	 */
+	public ArrayList<Uebergang> getUebergaenge() {
+		return uebergaenge;
+	}
+
+}
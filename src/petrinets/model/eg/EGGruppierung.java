@@ -0,0 +1,282 @@
+package petrinets.model.eg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ein Objekt dieser Klasse fasst die Knoten eines {@link Erreichbarkeitsgraph}
+ * zu Gruppen zusammen, damit ein großer EG als kleiner Graph aus Gruppen
+ * angezeigt werden kann. Gruppiert wird entweder nach der Tiefe, dem Abstand
+ * vom Anfangsknoten in der Breitensuche, oder nach den starken
+ * Zusammenhangskomponenten. Die Gruppe des Anfangsknotens hat immer die
+ * Nummer 0.
+ *
+ * Zwischen zwei Gruppen wird die Anzahl der Übergänge gezählt, Übergänge
+ * innerhalb einer Gruppe zählen nicht. Die Gruppierung ist eine Momentaufnahme.
+ * Später entdeckte Knoten und Übergänge können mit {@link #ergaenze} und
+ * {@link #ergaenzeUebergang} nachgetragen werden, ohne neu zu gruppieren. Die
+ * Gruppen sind dann nur noch eine Näherung: Der Knoten kommt in die Tiefe
+ * nach seinem Vorgänger oder in dessen Komponente, auch wenn ein späterer
+ * Übergang eine kürzere Tiefe oder einen neuen Kreis ergibt.
+ */
+public class EGGruppierung {
+
+	/** Art der Gruppierung */
+	public enum Art {
+		/** Knoten mit gleichem Abstand vom Anfangsknoten */
+		TIEFE,
+		/** starke Zusammenhangskomponenten */
+		KOMPONENTEN
+	}
+
+	private final Art art;
+	private final HashMap<Markierung, Integer> gruppeVon;
+	private final ArrayList<ArrayList<Markierung>> gruppen;
+	private final HashMap<Long, Integer> gruppenKanten;
+
+	/**
+	 * Gruppiert die Knoten des übergebenen EG.
+	 *
+	 * @param eg  zu gruppierender EG
+	 * @param art Art der Gruppierung
+	 */
+	public EGGruppierung(Erreichbarkeitsgraph eg, Art art) {
+		this.art = art;
+
+		// Knoten durchnummerieren, Anfangsknoten zuerst,
+		// und die Nachfolger im CSR-Format ablegen
+		int n = eg.getAnzahlKnoten();
+		Knoten[] knoten = new Knoten[n];
+		HashMap<Markierung, Integer> index = new HashMap<Markierung, Integer>(n * 2);
+		knoten[0] = eg.getAlleKnoten().get(eg.getAnfangsknotenID());
+		index.put(knoten[0].getMarkierung(), 0);
+		int i = 1;
+		for (Knoten k : eg.getAlleKnoten().values())
+			if (!index.containsKey(k.getMarkierung())) {
+				index.put(k.getMarkierung(), i);
+				knoten[i++] = k;
+			}
+		int[] start = new int[n + 1];
+		int[] ziele = new int[eg.getAnzahlUebergaenge()];
+		int m = 0;
+		for (int v = 0; v < n; v++) {
+			start[v] = m;
+			for (Uebergang u : knoten[v].getUebergaenge().values())
+				ziele[m++] = index.get(u.getFolgemarkierung());
+		}
+		start[n] = m;
+
+		int[] gruppe = art == Art.TIEFE ? nachTiefe(n, start, ziele) : nachKomponenten(n, start, ziele);
+
+		// Gruppen und Kanten zwischen den Gruppen sammeln
+		int anzahl = 0;
+		for (int g : gruppe)
+			anzahl = Math.max(anzahl, g + 1);
+		gruppen = new ArrayList<ArrayList<Markierung>>(anzahl);
+		for (int g = 0; g < anzahl; g++)
+			gruppen.add(new ArrayList<Markierung>());
+		gruppeVon = new HashMap<Markierung, Integer>(n * 2);
+		for (int v = 0; v < n; v++) {
+			gruppen.get(gruppe[v]).add(knoten[v].getMarkierung());
+			gruppeVon.put(knoten[v].getMarkierung(), gruppe[v]);
+		}
+		gruppenKanten = new HashMap<Long, Integer>();
+		for (int v = 0; v < n; v++)
+			for (int j = start[v]; j < start[v + 1]; j++)
+				if (gruppe[v] != gruppe[ziele[j]])
+					gruppenKanten.merge(schluessel(gruppe[v], gruppe[ziele[j]]), 1, Integer::sum);
+	}
+
+	/**
+	 * Ordnet jedem Knoten seinen Abstand vom Anfangsknoten zu. Nicht
+	 * erreichbare Knoten kommen in eine Gruppe hinter der tiefsten.
+	 */
+	private static int[] nachTiefe(int n, int[] start, int[] ziele) {
+		int[] tiefe = new int[n];
+		Arrays.fill(tiefe, -1);
+		int[] warteschlange = new int[n];
+		int kopf = 0, ende = 0;
+		tiefe[0] = 0;
+		warteschlange[ende++] = 0;
+		int maximum = 0;
+		while (kopf < ende) {
+			int v = warteschlange[kopf++];
+			for (int j = start[v]; j < start[v + 1]; j++) {
+				int w = ziele[j];
+				if (tiefe[w] < 0) {
+					tiefe[w] = tiefe[v] + 1;
+					maximum = tiefe[w];
+					warteschlange[ende++] = w;
+				}
+			}
+		}
+		for (int v = 0; v < n; v++)
+			if (tiefe[v] < 0)
+				tiefe[v] = maximum + 1;
+		return tiefe;
+	}
+
+	/**
+	 * Ordnet jedem Knoten seine starke Zusammenhangskomponente zu, nach Tarjan
+	 * ohne Rekursion, damit auch lange Pfade keinen Stapelüberlauf auslösen.
+	 * Die Komponenten werden so umnummeriert, dass die des Anfangsknotens die
+	 * Nummer 0 hat und jede Komponente vor ihren Nachfolgern liegt.
+	 */
+	private static int[] nachKomponenten(int n, int[] start, int[] ziele) {
+		int[] nummer = new int[n];
+		int[] tiefster = new int[n];
+		int[] komponente = new int[n];
+		Arrays.fill(nummer, -1);
+		boolean[] aufStapel = new boolean[n];
+		int[] stapel = new int[n];
+		int stapelHoehe = 0;
+		// Aufrufstapel der Tiefensuche: Knoten und nächste zu prüfende Kante
+		int[] aufrufKnoten = new int[n];
+		int[] aufrufKante = new int[n];
+		int naechsteNummer = 0;
+		int anzahl = 0;
+		int erreichbar = 0;
+
+		for (int wurzel = 0; wurzel < n; wurzel++) {
+			if (nummer[wurzel] >= 0)
+				continue;
+			int tiefe = 0;
+			aufrufKnoten[0] = wurzel;
+			aufrufKante[0] = start[wurzel];
+			nummer[wurzel] = tiefster[wurzel] = naechsteNummer++;
+			stapel[stapelHoehe++] = wurzel;
+			aufStapel[wurzel] = true;
+			while (tiefe >= 0) {
+				int v = aufrufKnoten[tiefe];
+				if (aufrufKante[tiefe] < start[v + 1]) {
+					int w = ziele[aufrufKante[tiefe]++];
+					if (nummer[w] < 0) {
+						nummer[w] = tiefster[w] = naechsteNummer++;
+						stapel[stapelHoehe++] = w;
+						aufStapel[w] = true;
+						tiefe++;
+						aufrufKnoten[tiefe] = w;
+						aufrufKante[tiefe] = start[w];
+					} else if (aufStapel[w])
+						tiefster[v] = Math.min(tiefster[v], nummer[w]);
+					continue;
+				}
+				// alle Kanten von v geprüft: Komponente abschließen
+				if (tiefster[v] == nummer[v]) {
+					int w;
+					do {
+						w = stapel[--stapelHoehe];
+						aufStapel[w] = false;
+						komponente[w] = anzahl;
+					} while (w != v);
+					anzahl++;
+				}
+				tiefe--;
+				if (tiefe >= 0) {
+					int eltern = aufrufKnoten[tiefe];
+					tiefster[eltern] = Math.min(tiefster[eltern], tiefster[v]);
+				}
+			}
+			if (wurzel == 0)
+				erreichbar = anzahl;
+		}
+
+		// Tarjan liefert die Komponenten in umgekehrter topologischer Reihenfolge,
+		// die des Anfangsknotens wird von der ersten Wurzel aus zuletzt
+		// abgeschlossen. Nicht erreichbare Komponenten bleiben dahinter.
+		for (int v = 0; v < n; v++)
+			if (komponente[v] < erreichbar)
+				komponente[v] = erreichbar - 1 - komponente[v];
+		return komponente;
+	}
+
+	/**
+	 * Trägt einen später entdeckten Knoten nach. Er kommt bei der Gruppierung
+	 * nach Tiefe in die Gruppe nach der seines Vorgängers, sonst in die Gruppe
+	 * des Vorgängers. Gibt es die Gruppe noch nicht, wird sie angelegt.
+	 *
+	 * @param markierung Markierung des neuen Knotens
+	 * @param vorgaenger Markierung eines bereits gruppierten Vorgängers
+	 * @return Nummer der Gruppe des neuen Knotens
+	 */
+	public int ergaenze(Markierung markierung, Markierung vorgaenger) {
+		int g = getGruppe(vorgaenger) + (art == Art.TIEFE ? 1 : 0);
+		if (g == gruppen.size())
+			gruppen.add(new ArrayList<Markierung>());
+		gruppen.get(g).add(markierung);
+		gruppeVon.put(markierung, g);
+		return g;
+	}
+
+	/**
+	 * Zählt einen später entdeckten Übergang zwischen zwei Gruppen. Übergänge
+	 * innerhalb einer Gruppe werden ignoriert.
+	 *
+	 * @param von  Gruppe des Vorgängers
+	 * @param nach Gruppe des Nachfolgers
+	 */
+	public void ergaenzeUebergang(int von, int nach) {
+		if (von != nach)
+			gruppenKanten.merge(schluessel(von, nach), 1, Integer::sum);
+	}
+
+	private static long schluessel(int von, int nach) {
+		return ((long) von << 32) | (nach & 0xffffffffL);
+	}
+
+	/**
+	 * Gibt die Art der Gruppierung zurück.
+	 *
+	 * @return Art der Gruppierung
+	 */
+	public Art getArt() {
+		return art;
+	}
+
+	/**
+	 * Gibt die Anzahl der Gruppen zurück.
+	 *
+	 * @return Anzahl der Gruppen
+	 */
+	public int getAnzahlGruppen() {
+		return gruppen.size();
+	}
+
+	/**
+	 * Gibt die Gruppe eines Knotens zurück.
+	 *
+	 * @param markierung Markierung des Knotens
+	 * @return Nummer der Gruppe oder -1, wenn der Knoten bei der Gruppierung
+	 *         noch nicht im EG lag
+	 */
+	public int getGruppe(Markierung markierung) {
+		Integer g = gruppeVon.get(markierung);
+		return g != null ? g : -1;
+	}
+
+	/**
+	 * Gibt die Markierungen der Knoten einer Gruppe zurück.
+	 *
+	 * @param gruppe Nummer der Gruppe
+	 * @return Knoten der Gruppe
+	 */
+	public ArrayList<Markierung> getKnoten(int gruppe) {
+		return gruppen.get(gruppe);
+	}
+
+	/**
+	 * Gibt die Kanten zwischen den Gruppen zurück.
+	 *
+	 * @return je Kante ein Array aus Quellgruppe, Zielgruppe und Anzahl der
+	 *         Übergänge
+	 */
+	public ArrayList<int[]> getGruppenKanten() {
+		ArrayList<int[]> kanten = new ArrayList<int[]>(gruppenKanten.size());
+		for (Map.Entry<Long, Integer> e : gruppenKanten.entrySet())
+			kanten.add(new int[] { (int) (e.getKey() >>> 32), (int) (long) e.getKey(), e.getValue() });
+		return kanten;
+	}
+
+}
@@ -1,33 +1,39 @@
 package petrinets.model.eg;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Observable;
+import java.util.HashSet;
 
-import petrinets.controller.Controller;
+import petrinets.model.ereignis.Ereignisbus;
 
 /**
  * Die Klasse Erreichbarkeitsgraph bildet den zentralen Container für die Knoten
- * und Übergänge des Erreichbarkeitsgraphen zu einem Petrinetz. Diese Klasse erweitert
- * die Klasse Observable, um ihr View-Äquivalent ohne großen Aufwand über Änderungen
- * zu informieren.
+ * und Übergänge des Erreichbarkeitsgraphen zu einem Petrinetz. Über einen
+ * {@link Ereignisbus} wird ihr View-Äquivalent ohne großen Aufwand über Änderungen
+ * informiert. Die Änderungen werden als {@link EGAenderung} zusammengefasst, die
+ * Beobachter ziehen nur diese nach.
  */
-public class Erreichbarkeitsgraph extends Observable{
+public class Erreichbarkeitsgraph {
 
 	/**
 	 * Sammlung aller Knoten des EG mit ihren Markierungen als eindeutigem key
 	 */
-	private HashMap<String, Knoten> knoten;
+	private HashMap<Markierung, Knoten> knoten;
 
 	/**
-	 * Sammlung aller Übergänge des EG mit einem String als eindeutigen key,
-	 * dieser setzt sich zusammen aus Vorgänger-Markierung, schaltende
-	 *  Transition und Nachfolgemarkierung
+	 * Sammlung aller Übergänge des EG. Eindeutig sind Übergänge über ihren
+	 * Vorgängerknoten und die schaltende Transition, dort werden sie auch
+	 * nachgeschlagen.
 	 */
-	private HashMap<String, Uebergang> uebergaenge;
+	private ArrayList<Uebergang> uebergaenge;
 	
-	private String anfangsknotenID;
-	private String aktuellerKnoten;
-	private String folgeKnoten;
+	private Markierung anfangsknotenID;
+	private Markierung aktuellerKnoten;
+	private Markierung folgeKnoten;
+
+	/** stellt die Änderungen den Beobachtern zu */
+	private final Ereignisbus<Erreichbarkeitsgraph, EGAenderung> aenderungen = new Ereignisbus<>(this,
+			EGAenderung::zusammenfassen);
 
 	/**
 	 * Im Konstruktor werden Die Knoten- und Übergangs-Sammlungen initialisiert und
@@ -37,96 +43,142 @@ public class Erreichbarkeitsgraph extends Observable{
 	 * @param anfangsmarkierung Die Anfangsmarkierung des zum Erreichbarkeitsgraphen
 	 * 							zugehörigen Petrinetzes
 	 */
-	public Erreichbarkeitsgraph(String anfangsmarkierung) {
-		knoten = new HashMap<String, Knoten>();
+	public Erreichbarkeitsgraph(Markierung anfangsmarkierung) {
+		knoten = new HashMap<Markierung, Knoten>();
 		knoten.put(anfangsmarkierung,new Knoten(anfangsmarkierung));
-		uebergaenge = new HashMap<String, Uebergang>();
+		uebergaenge = new ArrayList<Uebergang>();
 		anfangsknotenID = anfangsmarkierung;
-		
-		// Changed-Flag für die Observer setzen
-		setChanged();
 	}
 
 	/**
-	 * Gibt die ID des Anfangsknotens zurück.
+	 * Gibt die ID des Anfangsknotens, seine Markierung, zurück.
 	 * @return ID des Anfangsknotens
 	 */
-	public String getAnfangsknotenID() {
+	public Markierung getAnfangsknotenID() {
 		return anfangsknotenID;
 	}
 	
 
 	/**
 	 * Überprüft die Existenz eines Übergangs und erstellt bei Bedarf
-	 * einen neuen.
+	 * einen neuen. Ein neuer Übergang wird mit seinem Folgeknoten den
+	 * Beobachtern gemeldet.
 	 * 
 	 * @param markierung Markierung des Vorgängerknotens
 	 * @param folgemarkierung Markierung des Folgeknotens
 	 * @param transition die ID der den Übergang schaltenden Transition
 	 */
-	public void addUebergang(String markierung, String folgemarkierung, String transition) {
-		Knoten vor = knoten.get(markierung);
-		
-		// überprüfen, ob der neue Folgenoten schon existiert
-		if(knoten.containsKey(folgemarkierung)) {
-			
-			// Knoten existiert:
-			// überprüfen, ob Übergang schon existiert
-			Knoten nach = knoten.get(folgemarkierung);
-			
-			String uebergangKey = markierung+transition+folgemarkierung;
-			if (!uebergaenge.containsKey(uebergangKey)) {
-				
-				// Übergang existiert noch nicht:
-				// Übergang zu existentem Knoten erstellen
-				Uebergang u = new Uebergang(vor, nach, transition);
-				vor.addUebergang(u);
-				uebergaenge.put(uebergangKey, u);
-				
-				// Changed Flag setzen
-				setChanged();
-			}
-			
-			// Übergang existiert:
-			// nichts tun.
-		}
-		else {
-			// Knoten existiert nicht:
-			// Übergang zu neuem Knoten erstellen
-			Knoten nach = new Knoten(folgemarkierung);
-			Uebergang u = new Uebergang(vor, nach, transition);
-			vor.addUebergang(u);
-			String uebergangKey = markierung+transition+folgemarkierung;
-			uebergaenge.put(uebergangKey,u);
-			knoten.put(folgemarkierung, nach);
-			
-			// Changed Flag setzen
-			setChanged();
-		}	
+	public void addUebergang(Markierung markierung, Markierung folgemarkierung, String transition) {
 		
 		// Aktuelle und Folgemarkierung speichern
 		aktuellerKnoten = markierung;
 		folgeKnoten = folgemarkierung;
 		
-		// Observer über Änderung benachrichtigen
-		notifyObservers();
+		boolean knotenNeu = !knoten.containsKey(folgemarkierung);
+		Uebergang u = neuerUebergang(markierung, folgemarkierung, transition);
+		
+		// Beobachter über die Änderung benachrichtigen
+		if (u != null && aenderungen.hatBeobachter())
+			aenderungen.melde(EGAenderung.uebergang(u, knotenNeu));
 	}
 
 	/**
-	 * Wird beim Schalten vom {@link Controller} aufgerufen.
+	 * Überprüft die Existenz eines Übergangs und erstellt bei Bedarf
+	 * einen neuen, ohne die Beobachter zu benachrichtigen. Wird von der
+	 * Analyse genutzt, die den EG abseits der Anzeige aufbaut.
+	 * 
+	 * @param markierung Markierung des Vorgängerknotens
+	 * @param folgemarkierung Markierung des Folgeknotens
+	 * @param transition die ID der den Übergang schaltenden Transition
+	 * @return true, wenn ein neuer Übergang erstellt wurde, sonst false
+	 */
+	public boolean ergaenzeUebergang(Markierung markierung, Markierung folgemarkierung, String transition) {
+		return neuerUebergang(markierung, folgemarkierung, transition) != null;
+	}
+
+	/**
+	 * Erstellt einen Übergang und bei Bedarf seinen Folgeknoten, wenn der
+	 * Übergang noch nicht existiert.
+	 * 
+	 * @param markierung Markierung des Vorgängerknotens
+	 * @param folgemarkierung Markierung des Folgeknotens
+	 * @param transition die ID der den Übergang schaltenden Transition
+	 * @return der neue Übergang oder null, wenn er schon existiert
+	 */
+	private Uebergang neuerUebergang(Markierung markierung, Markierung folgemarkierung, String transition) {
+		Knoten vor = knoten.get(markierung);
+		
+		// überprüfen, ob Übergang schon existiert. Eine Transition führt
+		// von einer Markierung aus immer zur selben Folgemarkierung
+		if (vor.getUebergaenge().containsKey(transition))
+			return null;
+		
+		// überprüfen, ob der neue Folgenoten schon existiert,
+		// sonst neuen Knoten erstellen
+		Knoten nach = knoten.get(folgemarkierung);
+		if (nach == null) {
+			nach = new Knoten(folgemarkierung);
+			knoten.put(folgemarkierung, nach);
+		}
+		
+		// Übergang erstellen
+		Uebergang u = new Uebergang(vor, nach, transition);
+		vor.addUebergang(u);
+		uebergaenge.add(u);
+		return u;
+	}
+
+	/**
+	 * Gibt den Ereignisbus zurück, an dem sich die Beobachter anmelden.
+	 * 
+	 * @return Ereignisbus des EG
+	 */
+	public Ereignisbus<Erreichbarkeitsgraph, EGAenderung> getAenderungen() {
+		return aenderungen;
+	}
+
+	/**
+	 * Fordert die Beobachter auf, ihre Darstellung aus dem gesamten Inhalt des
+	 * EG neu aufzubauen. Wird beim Anmelden eines Beobachters und nach dem
+	 * Austausch oder Leeren des Inhalts aufgerufen.
+	 */
+	public void meldeInhalt() {
+		aenderungen.melde(EGAenderung.neuaufbau());
+	}
+
+	/**
+	 * Übernimmt Knoten und Übergänge eines abseits der Anzeige aufgebauten EG,
+	 * zum Beispiel nach einer Analyse. Die Beobachter erhalten den neuen Inhalt
+	 * über {@link #meldeInhalt()}.
+	 * 
+	 * @param eg der zu übernehmende EG
+	 */
+	public void uebernehme(Erreichbarkeitsgraph eg) {
+		knoten = eg.knoten;
+		uebergaenge = eg.uebergaenge;
+		anfangsknotenID = eg.anfangsknotenID;
+		aktuellerKnoten = null;
+		folgeKnoten = null;
+		
+		// Beobachter benachrichtigen
+		meldeInhalt();
+	}
+
+	/**
+	 * Wird beim Schalten vom Controller aufgerufen.
 	 * Gibt den aktuellen (zuletzt geschalteten) Knoten zurück.
 	 * @return aktueller Knoten
 	 */
-	public String getAktuellerKnoten() {
+	public Markierung getAktuellerKnoten() {
 		return aktuellerKnoten;
 	}
 	
 	/**
-	 * Wird beim Schalten vom {@link Controller} aufgerufen.
+	 * Wird beim Schalten vom Controller aufgerufen.
 	 * Gibt den nach der Schaltung aktuellen Knoten zurück.
 	 * @return Folgeknoten nach der Schaltung
 	 */
-	public String getFolgeKnoten() {
+	public Markierung getFolgeKnoten() {
 		return folgeKnoten;
 	}
 	
@@ -136,7 +188,7 @@ public class Erreichbarkeitsgraph extends Observable{
 	 * 
 	 * @return Sammlung aller Knoten des EG
 	 */
-	public HashMap<String, Knoten> getAlleKnoten() {
+	public HashMap<Markierung, Knoten> getAlleKnoten() {
 		return knoten;
 	}
 
@@ -145,33 +197,23 @@ public class Erreichbarkeitsgraph extends Observable{
 	 * 
 	 * @return Sammlung aller Übergänge des EG
 	 */
-	public HashMap<String, Uebergang> getAlleUebergaenge() {
+	public ArrayList<Uebergang> getAlleUebergaenge() {
 		return uebergaenge;
 	}
 	
-	/**
-	 * Gibt den Übergang mit dem entsprechenden key zurück.
-	 * @param key des gesuchten Übergangs
-	 * @return Übergang mit dem übergebenen key
-	 */
-	public Uebergang getUebergang(String key) {
-		return uebergaenge.get(key);
-	}
-	
 	/**
 	 * Setzt den EG auf die übergeben neue Anfangsmarkierung zurück.
 	 * der EG hat anschließend wieder nur einen Knoten.
 	 * @param anfangsmarkierung neue Anfangsmarkierung
 	 */
-	public void reset(String anfangsmarkierung) {
-		knoten = new HashMap<String, Knoten>();
+	public void reset(Markierung anfangsmarkierung) {
+		knoten = new HashMap<Markierung, Knoten>();
 		knoten.put(anfangsmarkierung,new Knoten(anfangsmarkierung));
-		uebergaenge = new HashMap<String, Uebergang>();
+		uebergaenge = new ArrayList<Uebergang>();
 		anfangsknotenID = anfangsmarkierung;
 		
-		// Observer benachrichtigen
-		setChanged();
-		notifyObservers("clear");
+		// Beobachter benachrichtigen
+		meldeInhalt();
 	}
 
 	/**
@@ -190,4 +232,16 @@ public class Erreichbarkeitsgraph extends Observable{
 		return uebergaenge.size();
 	}
 
+	/**
+	 * Gibt die Anzahl der Knoten ohne ausgehende Übergänge zurück. Bei einem
+	 * vollständig aufgebauten EG sind das die Verklemmungen des Netzes.
+	 * @return Anzahl der Knoten ohne Nachfolger
+	 */
+	public int getAnzahlVerklemmungen() {
+		HashSet<Markierung> mitNachfolger = new HashSet<Markierung>();
+		for (Uebergang u : uebergaenge)
+			mitNachfolger.add(u.getVorgaengerMarkierung());
+		return knoten.size() - mitNachfolger.size();
+	}
+
 }
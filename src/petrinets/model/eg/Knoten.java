@@ -9,8 +9,8 @@ import java.util.HashMap;
  */
 public class Knoten {
 
-	private String markierung;
-	/** Sammlung der Übergänge mit der Markierung des Nachfolgeknotens als key */
+	private final Markierung markierung;
+	/** Sammlung der Übergänge mit der ID der schaltenden Transition als key */
 	private HashMap<String, Uebergang> uebergaenge;
 
 	/**
@@ -18,19 +18,19 @@ public class Knoten {
 	 * Übergänge-Sammlung initialisiert. Ein neu erstellter Knoten at keine
 	 * Nachfolger
 	 * 
-	 * @param m Markierung als String
+	 * @param m Markierung des Knotens
 	 */
-	protected Knoten(String m) {
-		markierung = new String(m);
+	protected Knoten(Markierung m) {
+		markierung = m;
 		uebergaenge = new HashMap<String, Uebergang>();
 	}
 
 	/**
 	 * Gibt die Markierung des Knotens zurück.
 	 * 
-	 * @return String der Markierung
+	 * @return Markierung des Knotens
 	 */
-	public String getMarkierung() {
+	public Markierung getMarkierung() {
 		return markierung;
 	}
 
@@ -40,13 +40,13 @@ public class Knoten {
 	 * @param u Hinzuzufügender Übergang
 	 */
 	protected void addUebergang(Uebergang u) {
-		uebergaenge.put(u.getFolgemarkierung(), u);
+		uebergaenge.put(u.getTransition(), u);
 	}
 
 	/**
 	 * Gibt alle mit diesem Knoten assoziierten Übergänge zurück.
 	 * 
-	 * @return HashSet der Übergänge
+	 * @return HashMap der Übergänge mit der ID der schaltenden Transition als key
 	 */
 	public HashMap<String, Uebergang> getUebergaenge() {
 		return uebergaenge;
@@ -0,0 +1,140 @@
+package petrinets.model.eg;
+
+import java.util.Arrays;
+
+/**
+ * Ein Objekt dieser Klasse repräsentiert eine unveränderliche Markierung eines
+ * Petrinetzes. Die Marken liegen in einem int-Array, indiziert nach den
+ * sortierten Stellen-IDs des Netzes. Der Hashwert wird bei der Erzeugung
+ * berechnet, damit Markierungen als effiziente Schlüssel dienen können.
+ *
+ * Die String-Darstellung in der Form (m1|m2|...) wird nur für die Anzeige
+ * erzeugt.
+ *
+ * Im Überdeckungsgraphen kann eine Stelle unbeschränkt viele Marken tragen,
+ * dies wird mit dem Wert {@link #OMEGA} dargestellt.
+ */
+public final class Markierung {
+
+	/** Markenzahl einer Stelle, die beliebig viele Marken tragen kann */
+	public static final int OMEGA = Integer.MAX_VALUE;
+
+	private final int[] marken;
+	private final int hash;
+
+	/**
+	 * Der Konstruktor erstellt eine Markierung als Kopie der übergebenen Marken.
+	 *
+	 * @param marken Marken der Stellen, indiziert nach Stellen
+	 */
+	public Markierung(int[] marken) {
+		this.marken = marken.clone();
+		this.hash = Arrays.hashCode(this.marken);
+	}
+
+	/**
+	 * Erstellt eine Markierung aus ihrer String-Darstellung in der Form
+	 * (m1|m2|...).
+	 *
+	 * @param markierung String der Markierung
+	 * @return die entsprechende Markierung
+	 */
+	public static Markierung parse(String markierung) {
+		// Klammern entfernen
+		String inhalt = markierung.substring(1, markierung.length() - 1);
+		if (inhalt.isEmpty())
+			return new Markierung(new int[0]);
+
+		// String in die einzelnen Zahlen für die Stellen-Marken splitten
+		String[] teile = inhalt.split("\\|");
+		int[] marken = new int[teile.length];
+		for (int i = 0; i < teile.length; i++)
+			marken[i] = teile[i].equals("ω") ? OMEGA : Integer.parseInt(teile[i]);
+		return new Markierung(marken);
+	}
+
+	/**
+	 * Gibt die Anzahl der Stellen der Markierung zurück.
+	 *
+	 * @return Anzahl der Stellen
+	 */
+	public int getAnzahlStellen() {
+		return marken.length;
+	}
+
+	/**
+	 * Gibt die Anzahl der Marken einer Stelle zurück.
+	 *
+	 * @param s Index der Stelle
+	 * @return Anzahl der Marken
+	 */
+	public int getMarken(int s) {
+		return marken[s];
+	}
+
+	/**
+	 * Gibt zurück, ob die Stelle beliebig viele Marken tragen kann.
+	 *
+	 * @param s Index der Stelle
+	 * @return true, wenn die Stelle mit ω markiert ist
+	 */
+	public boolean istOmega(int s) {
+		return marken[s] == OMEGA;
+	}
+
+	/**
+	 * Gibt zurück, ob mindestens eine Stelle mit ω markiert ist.
+	 *
+	 * @return true, wenn die Markierung ω enthält
+	 */
+	public boolean enthaeltOmega() {
+		for (int m : marken)
+			if (m == OMEGA)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Kopiert die Marken in das übergebene Array.
+	 *
+	 * @param ziel Array, in das die Marken kopiert werden
+	 */
+	public void kopiereNach(int[] ziel) {
+		System.arraycopy(marken, 0, ziel, 0, marken.length);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof Markierung))
+			return false;
+		Markierung m = (Markierung) o;
+		return hash == m.hash && Arrays.equals(marken, m.marken);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * Gibt die Markierung als String in der Form (m1|m2|...) zurück.
+	 *
+	 * @return String der Markierung
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("(");
+		for (int s = 0; s < marken.length; s++) {
+			if (s > 0)
+				sb.append('|');
+			if (marken[s] == OMEGA)
+				sb.append('ω');
+			else
+				sb.append(marken[s]);
+		}
+		return sb.append(')').toString();
+	}
+
+}
@@ -49,13 +49,18 @@ public class Uebergang {
 	/**
 	 * Liefert die Markierung des Folgeknotens.
 	 * 
-	 * @return String der Markierung
+	 * @return Markierung des Folgeknotens
 	 */
-	public String getFolgemarkierung() {
+	public Markierung getFolgemarkierung() {
 		return nachfolger.getMarkierung();
 	}
 
-	public String getVorgaengerMarkierung() {
+	/**
+	 * Liefert die Markierung des Vorgängerknotens.
+	 * 
+	 * @return Markierung des Vorgängerknotens
+	 */
+	public Markierung getVorgaengerMarkierung() {
 		return vorgaenger.getMarkierung();
 	}
 
@@ -0,0 +1,21 @@
+package petrinets.model.ereignis;
+
+/**
+ * Ein Beobachter wird an einem {@link Ereignisbus} angemeldet und erhält die
+ * Änderungen seiner Quelle, zusammengefasst je Zustellung.
+ *
+ * @param <Q> Typ der Quelle, etwa das Petrinetz
+ * @param <E> Typ der Änderung
+ */
+@FunctionalInterface
+public interface Beobachter<Q, E> {
+
+	/**
+	 * Wird bei jeder Zustellung im Thread der Zustellung aufgerufen.
+	 *
+	 * @param quelle    Quelle der Änderungen
+	 * @param aenderung seit der letzten Zustellung zusammengefasste Änderungen
+	 */
+	void aktualisiere(Q quelle, E aenderung);
+
+}
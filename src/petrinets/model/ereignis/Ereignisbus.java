@@ -0,0 +1,155 @@
+package petrinets.model.ereignis;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+
+/**
+ * Der Ereignisbus ersetzt java.util.Observable für die Modellklassen. Änderungen
+ * werden nicht sofort im meldenden Thread zugestellt, sondern bis zur nächsten
+ * Zustellung gesammelt und dabei zu einer einzigen Änderung zusammengefasst.
+ * Zugestellt wird über einen {@link Executor} höchstens einmal je Takt von
+ * {@value #TAKT_MS} Millisekunden. Die erste Änderung nach einer Pause wird ohne
+ * Wartezeit zugestellt.
+ *
+ * Ohne gesetzten Executor wird direkt im meldenden Thread oder im Thread des
+ * Taktgebers zugestellt, das Modell kommt so ohne java.awt aus. Eine Anzeige
+ * setzt mit {@link #setZustellung(Executor)} ihren eigenen Thread, etwa den
+ * Event Dispatch Thread.
+ *
+ * Es liegt höchstens eine zusammengefasste Änderung bereit. Kommt die Anzeige
+ * nicht hinterher, wächst daher keine Warteschlange, die Zusammenfassung kann
+ * stattdessen in eine Aufforderung zum Neuaufbau übergehen.
+ *
+ * Ohne angemeldete Beobachter werden Meldungen verworfen, die Quelle kann mit
+ * {@link #hatBeobachter()} auch das Erstellen der Änderung einsparen.
+ *
+ * @param <Q> Typ der Quelle
+ * @param <E> Typ der Änderung
+ */
+public class Ereignisbus<Q, E> {
+
+	/** Mindestabstand zweier Zustellungen in Millisekunden, etwa 60 Hz */
+	public static final long TAKT_MS = 16;
+
+	// gemeinsamer Taktgeber aller Busse, wird erst bei Bedarf erzeugt
+	private static ScheduledExecutorService takt;
+
+	private final Q quelle;
+	private final BinaryOperator<E> zusammenfassung;
+	private final CopyOnWriteArrayList<Beobachter<? super Q, ? super E>> beobachter = new CopyOnWriteArrayList<>();
+	private volatile Executor zustellung = Runnable::run;
+
+	// bereitliegende Änderung und Zustand der Zustellung, geschützt durch this
+	private E ausstehend;
+	private boolean geplant;
+	private long naechsteZustellung = System.nanoTime();
+
+	/**
+	 * Erstellt einen Ereignisbus, der ohne eigenen Executor zustellt.
+	 *
+	 * @param quelle          Quelle, die den Beobachtern übergeben wird
+	 * @param zusammenfassung fasst eine bereitliegende und eine neue Änderung
+	 *                        zusammen, darf die bereitliegende verändern und
+	 *                        zurückgeben
+	 */
+	public Ereignisbus(Q quelle, BinaryOperator<E> zusammenfassung) {
+		this.quelle = quelle;
+		this.zusammenfassung = zusammenfassung;
+	}
+
+	/**
+	 * Setzt den Executor, über den die Änderungen zugestellt werden, etwa
+	 * SwingUtilities::invokeLater für eine Anzeige in Swing.
+	 *
+	 * @param zustellung Executor der Zustellung
+	 */
+	public void setZustellung(Executor zustellung) {
+		this.zustellung = zustellung;
+	}
+
+	/**
+	 * Meldet einen Beobachter an.
+	 *
+	 * @param b anzumeldender Beobachter
+	 */
+	public void anmelden(Beobachter<? super Q, ? super E> b) {
+		beobachter.addIfAbsent(b);
+	}
+
+	/**
+	 * Meldet einen Beobachter ab. Bereitliegende Änderungen erhält er nicht mehr.
+	 *
+	 * @param b abzumeldender Beobachter
+	 */
+	public void abmelden(Beobachter<? super Q, ? super E> b) {
+		beobachter.remove(b);
+	}
+
+	/**
+	 * Gibt zurück, ob Beobachter angemeldet sind.
+	 *
+	 * @return true, wenn mindestens ein Beobachter angemeldet ist
+	 */
+	public boolean hatBeobachter() {
+		return !beobachter.isEmpty();
+	}
+
+	/**
+	 * Meldet eine Änderung. Sie wird mit einer bereitliegenden zusammengefasst
+	 * und spätestens zum nächsten Takt zugestellt. Kann aus jedem Thread
+	 * aufgerufen werden.
+	 *
+	 * @param aenderung die Änderung
+	 */
+	public void melde(E aenderung) {
+		if (beobachter.isEmpty())
+			return;
+		long warten;
+		synchronized (this) {
+			ausstehend = ausstehend == null ? aenderung : zusammenfassung.apply(ausstehend, aenderung);
+			if (geplant)
+				return;
+			geplant = true;
+			warten = naechsteZustellung - System.nanoTime();
+		}
+		Executor z = zustellung;
+		if (warten <= 0)
+			z.execute(this::zustellen);
+		else
+			getTakt().schedule(() -> z.execute(this::zustellen), warten, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Stellt die bereitliegende Änderung sofort im aufrufenden Thread zu. Wird
+	 * aufgerufen, wenn die Anzeige unmittelbar danach auf dem neuen Stand sein
+	 * muss, und sollte im Thread der Zustellung aufgerufen werden.
+	 */
+	public void zustellen() {
+		E aenderung;
+		synchronized (this) {
+			aenderung = ausstehend;
+			ausstehend = null;
+			geplant = false;
+			naechsteZustellung = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TAKT_MS);
+		}
+		if (aenderung == null)
+			return;
+		for (Beobachter<? super Q, ? super E> b : beobachter)
+			b.aktualisiere(quelle, aenderung);
+	}
+
+	private static synchronized ScheduledExecutorService getTakt() {
+		if (takt == null)
+			takt = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "ereignisbus");
+				t.setDaemon(true);
+				return t;
+			});
+		return takt;
+	}
+
+}
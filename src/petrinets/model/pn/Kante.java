@@ -2,13 +2,16 @@ package petrinets.model.pn;
 
 /**
  * Ein Objekt dieser Klasse repräsentiert eine eindeutige Kante im
- * Petrinetz mit einer ID, und seinen zugehörigen Quell- und Ziel-IDs
+ * Petrinetz mit einer ID, und seinen zugehörigen Quell- und Ziel-IDs.
+ * Das Gewicht gibt an, wie viele Marken beim Schalten über die Kante
+ * fließen, ohne Beschriftung in der PNML-Datei ist es 1.
  */
 public class Kante{
 	
 	private final String id;
 	private final String quellID;
 	private final String zielID;
+	private int gewicht;
 	
 	/*
 	 * Im Konstruktor werden die IDs gesetzt.
@@ -17,6 +20,7 @@ public class Kante{
 		this.id = id;		
 		this.quellID = quellID;
 		this.zielID = zielID;
+		this.gewicht = 1;
 	}
 	
 	/**
@@ -43,4 +47,20 @@ public class Kante{
 		return zielID;
 	}
 	
+	/**
+	 * Gibt das Gewicht der Kante zurück.
+	 * @return Anzahl der Marken, die beim Schalten über die Kante fließen
+	 */
+	public int getGewicht() {
+		return gewicht;
+	}
+	
+	/**
+	 * Setzt das Gewicht der Kante.
+	 * @param gewicht Anzahl der Marken, die beim Schalten über die Kante fließen
+	 */
+	protected void setGewicht(int gewicht) {
+		this.gewicht = gewicht;
+	}
+	
 }
@@ -0,0 +1,595 @@
+package petrinets.model.pn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+import petrinets.model.eg.Markierung;
+
+/**
+ * Ein Objekt dieser Klasse ist die kompilierte Form eines {@link Petrinetz}es.
+ * Stellen und Transitionen werden über ganzzahlige Indizes angesprochen, die
+ * Vor- und Nachbereiche der Transitionen liegen mit ihren Kantengewichten in
+ * kompakten int-Arrays (CSR-Format). Mehrere Kanten zwischen derselben Stelle
+ * und Transition werden zu einem Eintrag mit der Summe der Gewichte
+ * zusammengefasst. Aktivierungsprüfung und Schalten kommen dadurch mit einem
+ * Durchlauf je Transition ohne HashMap-Zugriffe und Typumwandlungen aus.
+ *
+ * Zu jeder Stelle sind außerdem die Transitionen hinterlegt, in deren
+ * Vorbereich sie liegt. Nach dem Schalten einer Transition werden so nur die
+ * Transitionen neu geprüft, deren Vorbereich sich geändert haben kann. Die
+ * aktivierten Transitionen werden als BitSet geführt.
+ *
+ * Für die Anzeige merkt sich das kompilierte Netz bei Änderungen der aktuellen
+ * Markierung, welche Stellen sich geändert haben und welche Transitionen ihre
+ * Aktivierung gewechselt haben, bis das {@link Petrinetz} sie abholt.
+ *
+ * Die Stellen sind nach ihrer ID sortiert indiziert, damit die Reihenfolge der
+ * Marken der String-Darstellung der Markierung entspricht. Die Transitionen
+ * behalten die Reihenfolge der Transitionen-Sammlung des Petrinetzes.
+ */
+public class KompiliertesNetz {
+
+	private final String[] stellenIDs;
+	private final String[] transitionenIDs;
+	private final HashMap<String, Integer> stellenIndex;
+	private final HashMap<String, Integer> transitionenIndex;
+
+	// Vorbereich der Transition t: vorStellen[vorStart[t]] bis vorStellen[vorStart[t+1]-1],
+	// mit den Kantengewichten an denselben Positionen in vorGewichte
+	private final int[] vorStart;
+	private final int[] vorStellen;
+	private final int[] vorGewichte;
+
+	// Nachbereich der Transition t: nachStellen[nachStart[t]] bis nachStellen[nachStart[t+1]-1],
+	// mit den Kantengewichten an denselben Positionen in nachGewichte
+	private final int[] nachStart;
+	private final int[] nachStellen;
+	private final int[] nachGewichte;
+
+	// Transitionen mit der Stelle s im Vorbereich:
+	// verbraucher[verbraucherStart[s]] bis verbraucher[verbraucherStart[s+1]-1]
+	private final int[] verbraucherStart;
+	private final int[] verbraucher;
+
+	// Transitionen mit der Stelle s im Nachbereich:
+	// erzeuger[erzeugerStart[s]] bis erzeuger[erzeugerStart[s+1]-1]
+	private final int[] erzeugerStart;
+	private final int[] erzeuger;
+
+	/** aktuelle Markierung des Petrinetzes, indiziert nach Stellen */
+	private final int[] marken;
+
+	/** aktuelle Aktivierung der Transitionen, indiziert nach Transitionen */
+	private final BitSet aktiviert;
+
+	/** seit dem letzten Abholen geänderte Stellen und umgeschaltete Transitionen */
+	private final BitSet geaenderteStellen;
+	private final BitSet umgeschalteteTransitionen;
+
+	/**
+	 * Der Konstruktor wird vom {@link Petrinetz} aufgerufen, nachdem die Kanten
+	 * verbunden wurden. Er vergibt die Indizes, baut die Vor- und Nachbereiche
+	 * auf und bindet Stellen und Transitionen an das kompilierte Netz.
+	 *
+	 * @param stellen      alle Stellen des Petrinetzes
+	 * @param transitionen alle Transitionen des Petrinetzes
+	 */
+	protected KompiliertesNetz(HashMap<String, Stelle> stellen, HashMap<String, Transition> transitionen) {
+
+		// Stellen sortiert indizieren
+		ArrayList<String> stellenSortiert = new ArrayList<String>(stellen.keySet());
+		stellenSortiert.sort(null);
+		stellenIDs = stellenSortiert.toArray(new String[0]);
+		stellenIndex = new HashMap<String, Integer>();
+		for (int s = 0; s < stellenIDs.length; s++)
+			stellenIndex.put(stellenIDs[s], s);
+
+		// Transitionen in der Reihenfolge ihrer Sammlung indizieren
+		transitionenIDs = transitionen.keySet().toArray(new String[0]);
+		transitionenIndex = new HashMap<String, Integer>();
+		for (int t = 0; t < transitionenIDs.length; t++)
+			transitionenIndex.put(transitionenIDs[t], t);
+
+		// Vor- und Nachbereiche mit zusammengefassten Gewichten aufbauen
+		vorStart = new int[transitionenIDs.length + 1];
+		nachStart = new int[transitionenIDs.length + 1];
+		ArrayList<Integer> vor = new ArrayList<Integer>();
+		ArrayList<Integer> vorGewicht = new ArrayList<Integer>();
+		ArrayList<Integer> nach = new ArrayList<Integer>();
+		ArrayList<Integer> nachGewicht = new ArrayList<Integer>();
+		int[] position = new int[stellenIDs.length];
+		for (int t = 0; t < transitionenIDs.length; t++) {
+			Transition transition = transitionen.get(transitionenIDs[t]);
+			vorStart[t] = vor.size();
+			Arrays.fill(position, -1);
+			for (Kante k : transition.getVorgaenger().keySet())
+				ergaenze(stellenIndex.get(k.getQuellID()), k.getGewicht(), vor, vorGewicht, position);
+			nachStart[t] = nach.size();
+			Arrays.fill(position, -1);
+			for (Kante k : transition.getNachfolger().keySet())
+				ergaenze(stellenIndex.get(k.getZielID()), k.getGewicht(), nach, nachGewicht, position);
+		}
+		vorStart[transitionenIDs.length] = vor.size();
+		nachStart[transitionenIDs.length] = nach.size();
+		vorStellen = zuArray(vor);
+		vorGewichte = zuArray(vorGewicht);
+		nachStellen = zuArray(nach);
+		nachGewichte = zuArray(nachGewicht);
+
+		// Abhängigkeiten der Stellen zu ihren Verbrauchern aufbauen,
+		// jede Stelle kommt im Vorbereich einer Transition nur einmal vor
+		verbraucherStart = new int[stellenIDs.length + 1];
+		for (int i = 0; i < vorStellen.length; i++)
+			verbraucherStart[vorStellen[i] + 1]++;
+		for (int s = 0; s < stellenIDs.length; s++)
+			verbraucherStart[s + 1] += verbraucherStart[s];
+		verbraucher = new int[verbraucherStart[stellenIDs.length]];
+		int[] fuellstand = Arrays.copyOf(verbraucherStart, stellenIDs.length);
+		for (int t = 0; t < transitionenIDs.length; t++)
+			for (int i = vorStart[t]; i < vorStart[t + 1]; i++)
+				verbraucher[fuellstand[vorStellen[i]]++] = t;
+
+		// ebenso die Erzeuger jeder Stelle
+		erzeugerStart = new int[stellenIDs.length + 1];
+		for (int i = 0; i < nachStellen.length; i++)
+			erzeugerStart[nachStellen[i] + 1]++;
+		for (int s = 0; s < stellenIDs.length; s++)
+			erzeugerStart[s + 1] += erzeugerStart[s];
+		erzeuger = new int[erzeugerStart[stellenIDs.length]];
+		fuellstand = Arrays.copyOf(erzeugerStart, stellenIDs.length);
+		for (int t = 0; t < transitionenIDs.length; t++)
+			for (int i = nachStart[t]; i < nachStart[t + 1]; i++)
+				erzeuger[fuellstand[nachStellen[i]]++] = t;
+
+		// Anfangsmarkierung übernehmen und Knoten an das kompilierte Netz binden
+		marken = new int[stellenIDs.length];
+		for (int s = 0; s < stellenIDs.length; s++) {
+			Stelle stelle = stellen.get(stellenIDs[s]);
+			marken[s] = stelle.getMarken();
+			stelle.binde(this, s);
+		}
+		for (int t = 0; t < transitionenIDs.length; t++)
+			transitionen.get(transitionenIDs[t]).binde(this, t);
+
+		// Aktivierung einmalig vollständig prüfen
+		aktiviert = new BitSet(transitionenIDs.length);
+		pruefeAktivierung(marken, aktiviert);
+		geaenderteStellen = new BitSet(stellenIDs.length);
+		umgeschalteteTransitionen = new BitSet(transitionenIDs.length);
+	}
+
+	/**
+	 * Ergänzt eine Kante im Vor- oder Nachbereich einer Transition. Gibt es zur
+	 * Stelle schon einen Eintrag, wird nur das Gewicht addiert.
+	 *
+	 * @param s        Index der Stelle oder null, wenn die Kante keine Stelle
+	 *                 berührt
+	 * @param gewicht  Gewicht der Kante
+	 * @param stellen  Stellen des Bereichs
+	 * @param gewichte Gewichte des Bereichs
+	 * @param position Position jeder Stelle in den Listen, -1 wenn noch nicht
+	 *                 enthalten
+	 */
+	private static void ergaenze(Integer s, int gewicht, ArrayList<Integer> stellen, ArrayList<Integer> gewichte,
+			int[] position) {
+		if (s == null)
+			return;
+		if (position[s] < 0) {
+			position[s] = stellen.size();
+			stellen.add(s);
+			gewichte.add(gewicht);
+		} else {
+			gewichte.set(position[s], gewichte.get(position[s]) + gewicht);
+		}
+	}
+
+	/**
+	 * Wandelt eine Liste von Indizes in ein int-Array um.
+	 *
+	 * @param liste Liste der Indizes
+	 * @return int-Array mit dem Inhalt der Liste
+	 */
+	private static int[] zuArray(ArrayList<Integer> liste) {
+		int[] array = new int[liste.size()];
+		for (int i = 0; i < array.length; i++)
+			array[i] = liste.get(i);
+		return array;
+	}
+
+	/**
+	 * Gibt die Anzahl der Stellen zurück.
+	 *
+	 * @return Anzahl der Stellen
+	 */
+	public int getAnzahlStellen() {
+		return stellenIDs.length;
+	}
+
+	/**
+	 * Gibt die Anzahl der Transitionen zurück.
+	 *
+	 * @return Anzahl der Transitionen
+	 */
+	public int getAnzahlTransitionen() {
+		return transitionenIDs.length;
+	}
+
+	/**
+	 * Gibt die ID der Stelle mit dem übergebenen Index zurück.
+	 *
+	 * @param s Index der Stelle
+	 * @return ID der Stelle
+	 */
+	public String getStellenID(int s) {
+		return stellenIDs[s];
+	}
+
+	/**
+	 * Gibt die ID der Transition mit dem übergebenen Index zurück.
+	 *
+	 * @param t Index der Transition
+	 * @return ID der Transition
+	 */
+	public String getTransitionID(int t) {
+		return transitionenIDs[t];
+	}
+
+	/**
+	 * Gibt den Index der Transition mit der übergebenen ID zurück.
+	 *
+	 * @param id ID der Transition
+	 * @return Index der Transition oder -1, wenn es keine solche Transition gibt
+	 */
+	public int getTransitionIndex(String id) {
+		Integer t = transitionenIndex.get(id);
+		return t == null ? -1 : t;
+	}
+
+	/**
+	 * Gibt die Vorgängerstellen der Transition zurück, jede Stelle nur einmal.
+	 *
+	 * @param t Index der Transition
+	 * @return Indizes der Vorgängerstellen
+	 */
+	public int[] getVorbereich(int t) {
+		return Arrays.copyOfRange(vorStellen, vorStart[t], vorStart[t + 1]);
+	}
+
+	/**
+	 * Gibt die Kantengewichte zu den Vorgängerstellen der Transition zurück, in
+	 * der Reihenfolge von {@link #getVorbereich(int)}.
+	 *
+	 * @param t Index der Transition
+	 * @return Gewichte der eingehenden Kanten
+	 */
+	public int[] getVorgewichte(int t) {
+		return Arrays.copyOfRange(vorGewichte, vorStart[t], vorStart[t + 1]);
+	}
+
+	/**
+	 * Gibt die Nachfolgerstellen der Transition zurück, jede Stelle nur einmal.
+	 *
+	 * @param t Index der Transition
+	 * @return Indizes der Nachfolgerstellen
+	 */
+	public int[] getNachbereich(int t) {
+		return Arrays.copyOfRange(nachStellen, nachStart[t], nachStart[t + 1]);
+	}
+
+	/**
+	 * Gibt die Kantengewichte zu den Nachfolgerstellen der Transition zurück, in
+	 * der Reihenfolge von {@link #getNachbereich(int)}.
+	 *
+	 * @param t Index der Transition
+	 * @return Gewichte der ausgehenden Kanten
+	 */
+	public int[] getNachgewichte(int t) {
+		return Arrays.copyOfRange(nachGewichte, nachStart[t], nachStart[t + 1]);
+	}
+
+	/**
+	 * Prüft, ob die Transition unter der übergebenen Markierung aktiviert ist.
+	 *
+	 * @param t      Index der Transition
+	 * @param marken Markierung, indiziert nach Stellen
+	 * @return true, wenn jede Vorgängerstelle mindestens so viele Marken trägt,
+	 *         wie das Gewicht ihrer Kante angibt, sonst false
+	 */
+	public boolean istAktiviert(int t, int[] marken) {
+		for (int i = vorStart[t]; i < vorStart[t + 1]; i++)
+			if (marken[vorStellen[i]] < vorGewichte[i])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Schaltet die Transition auf der übergebenen Markierung. Alle Vorgänger
+	 * verlieren und alle Nachfolger erhalten so viele Marken, wie das Gewicht
+	 * ihrer Kante angibt.
+	 *
+	 * @param t      Index der Transition
+	 * @param marken Markierung, die verändert wird
+	 */
+	public void schalten(int t, int[] marken) {
+		for (int i = vorStart[t]; i < vorStart[t + 1]; i++)
+			marken[vorStellen[i]] -= vorGewichte[i];
+		for (int i = nachStart[t]; i < nachStart[t + 1]; i++)
+			marken[nachStellen[i]] += nachGewichte[i];
+	}
+
+	/**
+	 * Schaltet die Transition auf einer Markierung, die Stellen mit
+	 * {@link Markierung#OMEGA} enthalten kann. Solche Stellen bleiben beim
+	 * Schalten unverändert.
+	 *
+	 * @param t      Index der Transition
+	 * @param marken Markierung, die verändert wird
+	 */
+	public void schaltenOmega(int t, int[] marken) {
+		for (int i = vorStart[t]; i < vorStart[t + 1]; i++)
+			if (marken[vorStellen[i]] != Markierung.OMEGA)
+				marken[vorStellen[i]] -= vorGewichte[i];
+		for (int i = nachStart[t]; i < nachStart[t + 1]; i++)
+			if (marken[nachStellen[i]] != Markierung.OMEGA)
+				marken[nachStellen[i]] += nachGewichte[i];
+	}
+
+	/**
+	 * Prüft die Aktivierung aller Transitionen unter der übergebenen Markierung.
+	 *
+	 * @param marken    Markierung, indiziert nach Stellen
+	 * @param aktiviert BitSet, in dem die aktivierten Transitionen gesetzt werden
+	 */
+	public void pruefeAktivierung(int[] marken, BitSet aktiviert) {
+		for (int t = 0; t < transitionenIDs.length; t++)
+			aktiviert.set(t, istAktiviert(t, marken));
+	}
+
+	/**
+	 * Aktualisiert die Aktivierungen, nachdem die Transition t auf der übergebenen
+	 * Markierung geschaltet wurde. Geprüft werden nur die Verbraucher der Stellen
+	 * im Vor- und Nachbereich von t.
+	 *
+	 * @param t         Index der geschalteten Transition
+	 * @param marken    Markierung nach dem Schalten
+	 * @param aktiviert BitSet der Aktivierungen vor dem Schalten, wird angepasst
+	 */
+	public void aktualisiereAktivierung(int t, int[] marken, BitSet aktiviert) {
+		for (int i = vorStart[t]; i < vorStart[t + 1]; i++)
+			pruefeVerbraucher(vorStellen[i], marken, aktiviert);
+		for (int i = nachStart[t]; i < nachStart[t + 1]; i++)
+			pruefeVerbraucher(nachStellen[i], marken, aktiviert);
+	}
+
+	/**
+	 * Prüft die Aktivierung aller Transitionen, in deren Vorbereich die Stelle
+	 * liegt.
+	 *
+	 * @param s         Index der veränderten Stelle
+	 * @param marken    aktuelle Markierung
+	 * @param aktiviert BitSet der Aktivierungen, wird angepasst
+	 */
+	private void pruefeVerbraucher(int s, int[] marken, BitSet aktiviert) {
+		for (int i = verbraucherStart[s]; i < verbraucherStart[s + 1]; i++) {
+			int v = verbraucher[i];
+			aktiviert.set(v, istAktiviert(v, marken));
+		}
+	}
+
+	/**
+	 * Bestimmt ausgehend von einer aktivierten Transition eine Stubborn-Menge
+	 * unter der übergebenen Markierung. Die Menge wird nach folgenden Regeln
+	 * abgeschlossen:
+	 *
+	 * Zu einer aktivierten Transition gehören alle Transitionen, die aus einer
+	 * ihrer Vorgängerstellen Marken entnehmen oder dort Marken ablegen.
+	 * Transitionen außerhalb der Menge können sie daher weder deaktivieren noch
+	 * von ihr deaktiviert werden. Außerdem entnimmt sie keine Marken, die erst
+	 * von außerhalb der Menge abgelegt wurden, sodass sie einen Pumpkreis
+	 * außerhalb der Menge nicht verdecken kann und die Beschränktheit erhalten
+	 * bleibt.
+	 *
+	 * Zu einer nicht aktivierten Transition gehören alle Erzeuger einer ihrer zu
+	 * schwach markierten Vorgängerstellen. Transitionen außerhalb der Menge
+	 * können sie daher nicht aktivieren.
+	 *
+	 * Schaltfolgen außerhalb der Menge lassen sich so hinter jede Transition der
+	 * Menge vertauschen, es genügt, nur die aktivierten Transitionen der Menge zu
+	 * schalten. Verklemmungen bleiben dadurch erhalten. Damit keine Transition
+	 * dauerhaft übergangen wird, muss der Aufrufer zusätzlich auf Kreisen
+	 * vollständig expandieren.
+	 *
+	 * @param start     aktivierte Transition, mit der die Menge beginnt
+	 * @param marken    Markierung, indiziert nach Stellen
+	 * @param aktiviert aktivierte Transitionen unter der Markierung
+	 * @param grenze    Anzahl aktivierter Transitionen, ab der abgebrochen wird
+	 * @param menge     wird auf die aktivierten Transitionen der Menge gesetzt
+	 * @return Anzahl der aktivierten Transitionen der Menge, bei Abbruch die
+	 *         Grenze, die Menge ist dann unvollständig
+	 */
+	public int stubbornMenge(int start, int[] marken, BitSet aktiviert, int grenze, BitSet menge) {
+		menge.clear();
+		menge.set(start);
+		int[] offen = new int[transitionenIDs.length];
+		offen[0] = start;
+		int anzahlOffen = 1;
+		int groesse = 1;
+
+		while (anzahlOffen > 0 && groesse < grenze) {
+			int t = offen[--anzahlOffen];
+			if (aktiviert.get(t)) {
+				// alle Verbraucher und Erzeuger der Vorgängerstellen aufnehmen
+				for (int i = vorStart[t]; i < vorStart[t + 1]; i++) {
+					int s = vorStellen[i];
+					for (int j = verbraucherStart[s]; j < verbraucherStart[s + 1]; j++) {
+						int v = verbraucher[j];
+						if (!menge.get(v)) {
+							menge.set(v);
+							offen[anzahlOffen++] = v;
+							if (aktiviert.get(v))
+								groesse++;
+						}
+					}
+					for (int j = erzeugerStart[s]; j < erzeugerStart[s + 1]; j++) {
+						int e = erzeuger[j];
+						if (!menge.get(e)) {
+							menge.set(e);
+							offen[anzahlOffen++] = e;
+							if (aktiviert.get(e))
+								groesse++;
+						}
+					}
+				}
+			} else {
+				// zu schwach markierte Vorgängerstelle mit den wenigsten
+				// Erzeugern wählen und ihre Erzeuger aufnehmen
+				int suendenbock = -1;
+				for (int i = vorStart[t]; i < vorStart[t + 1]; i++) {
+					int s = vorStellen[i];
+					if (marken[s] < vorGewichte[i] && (suendenbock < 0 || erzeugerStart[s + 1]
+							- erzeugerStart[s] < erzeugerStart[suendenbock + 1] - erzeugerStart[suendenbock]))
+						suendenbock = s;
+				}
+				for (int j = erzeugerStart[suendenbock]; j < erzeugerStart[suendenbock + 1]; j++) {
+					int e = erzeuger[j];
+					if (!menge.get(e)) {
+						menge.set(e);
+						offen[anzahlOffen++] = e;
+						if (aktiviert.get(e))
+							groesse++;
+					}
+				}
+			}
+		}
+
+		menge.and(aktiviert);
+		return Math.min(groesse, grenze);
+	}
+
+	/**
+	 * Gibt eine Kopie der aktuellen Markierung zurück.
+	 *
+	 * @return aktuelle Markierung, indiziert nach Stellen
+	 */
+	public int[] getMarken() {
+		return marken.clone();
+	}
+
+	/**
+	 * Gibt die aktuelle Markenzahl einer Stelle zurück.
+	 *
+	 * @param s Index der Stelle
+	 * @return Anzahl der Marken
+	 */
+	protected int getMarken(int s) {
+		return marken[s];
+	}
+
+	/**
+	 * Setzt die aktuelle Markenzahl einer Stelle.
+	 *
+	 * @param s          Index der Stelle
+	 * @param markenZahl neue Anzahl der Marken
+	 */
+	protected void setMarken(int s, int markenZahl) {
+		if (marken[s] != markenZahl) {
+			marken[s] = markenZahl;
+			merkeAenderung(s);
+		}
+	}
+
+	/**
+	 * Merkt die Stelle als geändert, prüft die Aktivierung ihrer Verbraucher
+	 * unter der aktuellen Markierung und merkt die umgeschalteten.
+	 *
+	 * @param s Index der veränderten Stelle
+	 */
+	private void merkeAenderung(int s) {
+		geaenderteStellen.set(s);
+		for (int i = verbraucherStart[s]; i < verbraucherStart[s + 1]; i++) {
+			int v = verbraucher[i];
+			boolean aktiv = istAktiviert(v, marken);
+			if (aktiv != aktiviert.get(v)) {
+				aktiviert.set(v, aktiv);
+				umgeschalteteTransitionen.flip(v);
+			}
+		}
+	}
+
+	/**
+	 * Übergibt die seit dem letzten Aufruf geänderten Stellen und umgeschalteten
+	 * Transitionen und vergisst sie anschließend. Eine Transition, die hin und
+	 * wieder zurück geschaltet hat, gilt als unverändert.
+	 *
+	 * @param stellen      wird mit den Indizes der geänderten Stellen gefüllt
+	 * @param transitionen wird mit den Indizes der umgeschalteten Transitionen
+	 *                     gefüllt
+	 */
+	protected void holeAenderungen(BitSet stellen, BitSet transitionen) {
+		stellen.clear();
+		stellen.or(geaenderteStellen);
+		transitionen.clear();
+		transitionen.or(umgeschalteteTransitionen);
+		geaenderteStellen.clear();
+		umgeschalteteTransitionen.clear();
+	}
+
+	/**
+	 * Gibt zurück, ob die Transition unter der aktuellen Markierung aktiviert ist.
+	 *
+	 * @param t Index der Transition
+	 * @return true, wenn die Transition aktiviert ist
+	 */
+	protected boolean istAktiviert(int t) {
+		return aktiviert.get(t);
+	}
+
+	/**
+	 * Schaltet die Transition auf der aktuellen Markierung und aktualisiert die
+	 * Aktivierungen in ihrer Umgebung. Alle Stellen in Vor- und Nachbereich
+	 * gelten als geändert.
+	 *
+	 * @param t Index der Transition
+	 */
+	protected void schalten(int t) {
+		schalten(t, marken);
+		for (int i = vorStart[t]; i < vorStart[t + 1]; i++)
+			merkeAenderung(vorStellen[i]);
+		for (int i = nachStart[t]; i < nachStart[t + 1]; i++)
+			merkeAenderung(nachStellen[i]);
+	}
+
+	/**
+	 * Sammelt die IDs der unter der aktuellen Markierung aktivierten Transitionen.
+	 *
+	 * @param aktivierteTransitionen Liste, die mit den aktivierten Transitionen
+	 *                               gefüllt wird
+	 */
+	protected void sammleAktivierteTransitionen(ArrayList<String> aktivierteTransitionen) {
+		aktivierteTransitionen.clear();
+		for (int t = aktiviert.nextSetBit(0); t >= 0; t = aktiviert.nextSetBit(t + 1))
+			aktivierteTransitionen.add(transitionenIDs[t]);
+	}
+
+	/**
+	 * Gibt die aktuelle Markierung zurück.
+	 *
+	 * @return aktuelle Markierung
+	 */
+	protected Markierung getMarkierung() {
+		return new Markierung(marken);
+	}
+
+	/**
+	 * Setzt die aktuelle Markierung auf die übergebene Markierung.
+	 *
+	 * @param markierung neue Markierung
+	 */
+	protected void setMarkierung(Markierung markierung) {
+		for (int s = 0; s < marken.length; s++)
+			setMarken(s, markierung.getMarken(s));
+	}
+
+}
@@ -0,0 +1,585 @@
+package petrinets.model.pn;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Erzeugt synthetische Petrinetze für Skalierungsmessungen. Ein Generator
+ * sammelt Stellen, Transitionen und Kanten und kann daraus ein
+ * {@link Petrinetz} im Speicher aufbauen oder eine PNML-Datei schreiben, die
+ * der {@link PNMLWopedParser} wieder einliest.
+ *
+ * Für die üblichen Netzfamilien gibt es statische Fabrikmethoden, deren
+ * Zustandsraum mit den Parametern wächst: Postfach mit mehreren Sendern,
+ * speisende Philosophen, Kreise, Gabelungsbäume und Zufallsnetze mit
+ * einstellbarer Dichte. Eigene Netze lassen sich über
+ * {@link #neueStelle(String, int)}, {@link #neueTransition(String)} und die
+ * verbinde-Methoden beschreiben.
+ *
+ * Die IDs werden erst bei der Ausgabe vergeben, mit führenden Nullen, damit
+ * die Reihenfolge der Stellen in der Markierung der Erzeugungsreihenfolge
+ * entspricht. Die Knoten werden in Erzeugungsreihenfolge auf ein Raster
+ * gelegt.
+ */
+public class Netzgenerator {
+
+	/** Abstand der Rasterpunkte, auf die die Knoten gelegt werden */
+	private static final int RASTER = 80;
+
+	private final String name;
+
+	private final ArrayList<String> stellenNamen = new ArrayList<String>();
+	private final ArrayList<Integer> stellenMarken = new ArrayList<Integer>();
+	private final ArrayList<String> transitionenNamen = new ArrayList<String>();
+
+	// Kanten als {Stelle, Transition, Gewicht}
+	private final ArrayList<int[]> vorKanten = new ArrayList<int[]>();
+	private final ArrayList<int[]> nachKanten = new ArrayList<int[]>();
+
+	// Erzeugungsreihenfolge aller Knoten für das Raster, Stellen als
+	// nichtnegative Indizes, Transitionen als -(Index + 1)
+	private final ArrayList<Integer> reihenfolge = new ArrayList<Integer>();
+
+	/**
+	 * Erstellt einen leeren Generator.
+	 *
+	 * @param name Name des Netzes, wird als Dateiname des erzeugten
+	 *             Petrinetzes verwendet
+	 */
+	public Netzgenerator(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Postfach mit mehreren Sendern und einem Empfänger. Jeder Sender schreibt
+	 * eine Nachricht und legt sie in das gemeinsame Postfach, sofern darin
+	 * noch Platz ist. Der Empfänger holt die Nachrichten einzeln ab und liest
+	 * sie. Mit einem Sender entspricht das Netz dem mitgelieferten
+	 * Mailbox-Netz, es ist immer beschränkt.
+	 *
+	 * @param sender     Anzahl der Sender, mindestens 1
+	 * @param kapazitaet Plätze im Postfach, mindestens 1
+	 * @return Generator mit dem Netz
+	 */
+	public static Netzgenerator postfach(int sender, int kapazitaet) {
+		pruefe(sender >= 1, "Mindestens ein Sender erforderlich: " + sender);
+		pruefe(kapazitaet >= 1, "Mindestens ein Platz im Postfach erforderlich: " + kapazitaet);
+		Netzgenerator g = new Netzgenerator("postfach-" + sender + "-" + kapazitaet);
+
+		int postfach = g.neueStelle("postfach", 0);
+		int frei = g.neueStelle("frei", kapazitaet);
+		for (int i = 0; i < sender; i++) {
+			int ruhend = g.neueStelle("ruhend" + i, 1);
+			int geschrieben = g.neueStelle("geschrieben" + i, 0);
+			int schreiben = g.neueTransition("schreiben" + i);
+			int senden = g.neueTransition("senden" + i);
+			g.verbinde(ruhend, schreiben, geschrieben);
+			g.verbinde(geschrieben, senden, ruhend);
+			g.verbindeVor(frei, senden);
+			g.verbindeNach(senden, postfach);
+		}
+		int wartend = g.neueStelle("wartend", 1);
+		int erhalten = g.neueStelle("erhalten", 0);
+		int empfangen = g.neueTransition("empfangen");
+		int lesen = g.neueTransition("lesen");
+		g.verbinde(wartend, empfangen, erhalten);
+		g.verbindeVor(postfach, empfangen);
+		g.verbindeNach(empfangen, frei);
+		g.verbinde(erhalten, lesen, wartend);
+		return g;
+	}
+
+	/**
+	 * Speisende Philosophen. Jeder Philosoph nimmt erst die linke, dann die
+	 * rechte Gabel, isst und legt beide zurück. Das Netz ist beschränkt und
+	 * verklemmt, sobald alle Philosophen ihre linke Gabel halten.
+	 *
+	 * @param anzahl Anzahl der Philosophen, mindestens 2
+	 * @return Generator mit dem Netz
+	 */
+	public static Netzgenerator philosophen(int anzahl) {
+		pruefe(anzahl >= 2, "Mindestens zwei Philosophen erforderlich: " + anzahl);
+		Netzgenerator g = new Netzgenerator("philosophen-" + anzahl);
+
+		int[] gabeln = new int[anzahl];
+		for (int i = 0; i < anzahl; i++)
+			gabeln[i] = g.neueStelle("gabel" + i, 1);
+		for (int i = 0; i < anzahl; i++) {
+			int links = gabeln[i];
+			int rechts = gabeln[(i + 1) % anzahl];
+			int denkt = g.neueStelle("denkt" + i, 1);
+			int wartet = g.neueStelle("wartet" + i, 0);
+			int isst = g.neueStelle("isst" + i, 0);
+			int nimmLinks = g.neueTransition("nimmLinks" + i);
+			int nimmRechts = g.neueTransition("nimmRechts" + i);
+			int legeAb = g.neueTransition("legeAb" + i);
+			g.verbinde(denkt, nimmLinks, wartet);
+			g.verbindeVor(links, nimmLinks);
+			g.verbinde(wartet, nimmRechts, isst);
+			g.verbindeVor(rechts, nimmRechts);
+			g.verbinde(isst, legeAb, denkt);
+			g.verbindeNach(legeAb, links);
+			g.verbindeNach(legeAb, rechts);
+		}
+		return g;
+	}
+
+	/**
+	 * Kreis aus Stellen und Transitionen, auf dessen erster Stelle Marken
+	 * liegen. Das Netz ist beschränkt, die Anzahl der erreichbaren Markierungen
+	 * ist die Anzahl der Verteilungen der Marken auf die Stellen.
+	 *
+	 * @param laenge Anzahl der Stellen, mindestens 1
+	 * @param marken Marken auf der ersten Stelle
+	 * @return Generator mit dem Netz
+	 */
+	public static Netzgenerator kreis(int laenge, int marken) {
+		pruefe(laenge >= 1, "Mindestens eine Stelle erforderlich: " + laenge);
+		pruefe(marken >= 0, "Ungültige Markenzahl: " + marken);
+		Netzgenerator g = new Netzgenerator("kreis-" + laenge + "-" + marken);
+
+		int erste = g.neueStelle("s0", marken);
+		int vorige = erste;
+		for (int i = 0; i < laenge; i++) {
+			int t = g.neueTransition("t" + i);
+			int naechste = i + 1 < laenge ? g.neueStelle("s" + (i + 1), 0) : erste;
+			g.verbinde(vorige, t, naechste);
+			vorige = naechste;
+		}
+		return g;
+	}
+
+	/**
+	 * Gabelungsbaum. Eine Marke wird auf jeder Ebene auf mehrere nebenläufige
+	 * Zweige verteilt und danach wieder zusammengeführt, anschließend beginnt
+	 * der Ablauf von vorn. Die Blätter arbeiten unabhängig voneinander, der
+	 * Zustandsraum wächst daher exponentiell in der Anzahl der Blätter.
+	 *
+	 * @param tiefe  Anzahl der Gabelungsebenen, mindestens 0
+	 * @param breite Zweige je Gabelung, mindestens 1
+	 * @return Generator mit dem Netz
+	 */
+	public static Netzgenerator gabelung(int tiefe, int breite) {
+		pruefe(tiefe >= 0, "Ungültige Tiefe: " + tiefe);
+		pruefe(breite >= 1, "Mindestens ein Zweig erforderlich: " + breite);
+		Netzgenerator g = new Netzgenerator("gabelung-" + tiefe + "-" + breite);
+
+		int start = g.neueStelle("start", 1);
+		int ende = g.gabele(start, tiefe, breite, "");
+		int neustart = g.neueTransition("neustart");
+		g.verbinde(ende, neustart, start);
+		return g;
+	}
+
+	/**
+	 * Baut einen Teilbaum unterhalb einer Stelle auf.
+	 *
+	 * @param quelle Stelle, an der der Teilbaum beginnt
+	 * @param tiefe  verbleibende Gabelungsebenen
+	 * @param breite Zweige je Gabelung
+	 * @param pfad   Bezeichnung des Teilbaums für die Namen
+	 * @return Stelle, an der der Teilbaum endet
+	 */
+	private int gabele(int quelle, int tiefe, int breite, String pfad) {
+		if (tiefe == 0) {
+			int arbeite = neueTransition("arbeite" + pfad);
+			int fertig = neueStelle("fertig" + pfad, 0);
+			verbinde(quelle, arbeite, fertig);
+			return fertig;
+		}
+		int gabel = neueTransition("gabel" + pfad);
+		int vereinige = neueTransition("vereinige" + pfad);
+		verbindeVor(quelle, gabel);
+		for (int i = 0; i < breite; i++) {
+			String zweig = pfad + "_" + i;
+			int anfang = neueStelle("zweig" + zweig, 0);
+			verbindeNach(gabel, anfang);
+			verbindeVor(gabele(anfang, tiefe - 1, breite, zweig), vereinige);
+		}
+		int vereint = neueStelle("vereint" + pfad, 0);
+		verbindeNach(vereinige, vereint);
+		return vereint;
+	}
+
+	/**
+	 * Zufallsnetz. Jede Transition verbraucht aus einer zufälligen Auswahl von
+	 * Stellen je eine Marke und legt auf ebenso viele zufällig gewählte Stellen
+	 * je eine Marke. Die Markensumme bleibt dadurch erhalten und das Netz ist
+	 * beschränkt. Soll es unbeschränkt sein, kommt eine Transition ohne
+	 * Vorbereich hinzu, die beliebig oft Marken auf eine zufällige Stelle legt.
+	 *
+	 * Gleicher Startwert ergibt das gleiche Netz.
+	 *
+	 * @param stellen      Anzahl der Stellen, mindestens 1
+	 * @param transitionen Anzahl der Transitionen
+	 * @param dichte       Wahrscheinlichkeit, mit der eine weitere Stelle über
+	 *                     die erste hinaus im Vor- und Nachbereich einer
+	 *                     Transition liegt, zwischen 0 und 1
+	 * @param marken       Marken, die zufällig auf die Stellen verteilt werden
+	 * @param beschraenkt  true, wenn das Netz beschränkt sein soll
+	 * @param startwert    Startwert des Zufallsgenerators
+	 * @return Generator mit dem Netz
+	 */
+	public static Netzgenerator zufall(int stellen, int transitionen, double dichte, int marken,
+			boolean beschraenkt, long startwert) {
+		pruefe(stellen >= 1, "Mindestens eine Stelle erforderlich: " + stellen);
+		pruefe(transitionen >= 0, "Ungültige Anzahl an Transitionen: " + transitionen);
+		pruefe(dichte >= 0 && dichte <= 1, "Ungültige Dichte: " + dichte);
+		pruefe(marken >= 0, "Ungültige Markenzahl: " + marken);
+		Netzgenerator g = new Netzgenerator("zufall-" + stellen + "-" + transitionen + "-" + dichte + "-"
+				+ marken + (beschraenkt ? "-b-" : "-u-") + startwert);
+		Random zufall = new Random(startwert);
+
+		int[] verteilung = new int[stellen];
+		for (int i = 0; i < marken; i++)
+			verteilung[zufall.nextInt(stellen)]++;
+		for (int s = 0; s < stellen; s++)
+			g.neueStelle("s" + s, verteilung[s]);
+
+		int[] auswahl = new int[stellen];
+		for (int i = 0; i < transitionen; i++) {
+			int t = g.neueTransition("t" + i);
+			int k = 1;
+			for (int s = 1; s < stellen; s++)
+				if (zufall.nextDouble() < dichte)
+					k++;
+			waehle(zufall, auswahl, k);
+			for (int j = 0; j < k; j++)
+				g.verbindeVor(auswahl[j], t);
+			waehle(zufall, auswahl, k);
+			for (int j = 0; j < k; j++)
+				g.verbindeNach(t, auswahl[j]);
+		}
+		if (!beschraenkt) {
+			int quelle = g.neueTransition("quelle");
+			g.verbindeNach(quelle, zufall.nextInt(stellen));
+		}
+		return g;
+	}
+
+	/**
+	 * Wählt k verschiedene Stellen zufällig aus, sie stehen danach am Anfang
+	 * des Arrays.
+	 *
+	 * @param zufall  Zufallsgenerator
+	 * @param auswahl Array mit einem Platz je Stelle
+	 * @param k       Anzahl der zu wählenden Stellen
+	 */
+	private static void waehle(Random zufall, int[] auswahl, int k) {
+		for (int i = 0; i < auswahl.length; i++)
+			auswahl[i] = i;
+		for (int i = 0; i < k; i++) {
+			int j = i + zufall.nextInt(auswahl.length - i);
+			int tausch = auswahl[i];
+			auswahl[i] = auswahl[j];
+			auswahl[j] = tausch;
+		}
+	}
+
+	private static void pruefe(boolean bedingung, String meldung) {
+		if (!bedingung)
+			throw new IllegalArgumentException(meldung);
+	}
+
+	/**
+	 * Fügt eine Stelle hinzu.
+	 *
+	 * @param name   Beschriftung der Stelle
+	 * @param marken Anfangsmarkierung der Stelle
+	 * @return Index der Stelle
+	 */
+	public int neueStelle(String name, int marken) {
+		pruefe(marken >= 0, "Ungültige Markenzahl: " + marken);
+		stellenNamen.add(name);
+		stellenMarken.add(marken);
+		reihenfolge.add(stellenNamen.size() - 1);
+		return stellenNamen.size() - 1;
+	}
+
+	/**
+	 * Fügt eine Transition hinzu.
+	 *
+	 * @param name Beschriftung der Transition
+	 * @return Index der Transition
+	 */
+	public int neueTransition(String name) {
+		transitionenNamen.add(name);
+		reihenfolge.add(-transitionenNamen.size());
+		return transitionenNamen.size() - 1;
+	}
+
+	/**
+	 * Fügt eine Kante mit Gewicht 1 von einer Stelle zu einer Transition hinzu.
+	 *
+	 * @param stelle     Index der Stelle
+	 * @param transition Index der Transition
+	 */
+	public void verbindeVor(int stelle, int transition) {
+		verbindeVor(stelle, transition, 1);
+	}
+
+	/**
+	 * Fügt eine Kante von einer Stelle zu einer Transition hinzu.
+	 *
+	 * @param stelle     Index der Stelle
+	 * @param transition Index der Transition
+	 * @param gewicht    Gewicht der Kante, mindestens 1
+	 */
+	public void verbindeVor(int stelle, int transition, int gewicht) {
+		pruefeKante(stelle, transition, gewicht);
+		vorKanten.add(new int[] { stelle, transition, gewicht });
+	}
+
+	/**
+	 * Fügt eine Kante mit Gewicht 1 von einer Transition zu einer Stelle hinzu.
+	 *
+	 * @param transition Index der Transition
+	 * @param stelle     Index der Stelle
+	 */
+	public void verbindeNach(int transition, int stelle) {
+		verbindeNach(transition, stelle, 1);
+	}
+
+	/**
+	 * Fügt eine Kante von einer Transition zu einer Stelle hinzu.
+	 *
+	 * @param transition Index der Transition
+	 * @param stelle     Index der Stelle
+	 * @param gewicht    Gewicht der Kante, mindestens 1
+	 */
+	public void verbindeNach(int transition, int stelle, int gewicht) {
+		pruefeKante(stelle, transition, gewicht);
+		nachKanten.add(new int[] { stelle, transition, gewicht });
+	}
+
+	/**
+	 * Verbindet eine Transition mit je einer Stelle im Vor- und Nachbereich.
+	 */
+	private void verbinde(int vorher, int transition, int nachher) {
+		verbindeVor(vorher, transition);
+		verbindeNach(transition, nachher);
+	}
+
+	private void pruefeKante(int stelle, int transition, int gewicht) {
+		pruefe(stelle >= 0 && stelle < stellenNamen.size(), "Unbekannte Stelle: " + stelle);
+		pruefe(transition >= 0 && transition < transitionenNamen.size(), "Unbekannte Transition: " + transition);
+		pruefe(gewicht >= 1, "Ungültiges Gewicht: " + gewicht);
+	}
+
+	/**
+	 * Gibt den Namen des Netzes zurück.
+	 *
+	 * @return Name des Netzes
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gibt die Anzahl der Stellen zurück.
+	 *
+	 * @return Anzahl der Stellen
+	 */
+	public int getAnzahlStellen() {
+		return stellenNamen.size();
+	}
+
+	/**
+	 * Gibt die Anzahl der Transitionen zurück.
+	 *
+	 * @return Anzahl der Transitionen
+	 */
+	public int getAnzahlTransitionen() {
+		return transitionenNamen.size();
+	}
+
+	/**
+	 * Gibt die Anzahl der Kanten zurück.
+	 *
+	 * @return Anzahl der Kanten
+	 */
+	public int getAnzahlKanten() {
+		return vorKanten.size() + nachKanten.size();
+	}
+
+	/**
+	 * Baut das beschriebene Netz als Petrinetz im Speicher auf.
+	 *
+	 * @return neues Petrinetz mit dem Namen des Generators als Dateinamen
+	 */
+	public Petrinetz erzeugeNetz() {
+		return new Petrinetz(this);
+	}
+
+	/**
+	 * Wird vom Konstruktor des {@link Petrinetz}es aufgerufen und fügt ihm alle
+	 * Stellen, Transitionen und Kanten hinzu.
+	 *
+	 * @param pn zu füllendes Petrinetz
+	 */
+	void fuelle(Petrinetz pn) {
+		for (int i = 0; i < reihenfolge.size(); i++) {
+			int knoten = reihenfolge.get(i);
+			int x = x(i);
+			int y = y(i);
+			if (knoten >= 0) {
+				String id = stellenID(knoten);
+				pn.addStelle(id);
+				Stelle s = pn.getStellen().get(id);
+				s.setName(stellenNamen.get(knoten));
+				s.setPosition(x, -y);
+				s.setAnfangsMarken(stellenMarken.get(knoten));
+			} else {
+				String id = transitionID(-knoten - 1);
+				pn.addTransition(id);
+				Transition t = pn.getTransitionen().get(id);
+				t.setName(transitionenNamen.get(-knoten - 1));
+				t.setPosition(x, -y);
+			}
+		}
+		int a = 0;
+		for (int[] k : vorKanten) {
+			String id = kanteID(a++);
+			pn.addKante(id, stellenID(k[0]), transitionID(k[1]));
+			pn.setKantenGewicht(id, k[2]);
+		}
+		for (int[] k : nachKanten) {
+			String id = kanteID(a++);
+			pn.addKante(id, transitionID(k[1]), stellenID(k[0]));
+			pn.setKantenGewicht(id, k[2]);
+		}
+	}
+
+	/**
+	 * Schreibt das beschriebene Netz als PNML-Datei im Format von WoPeD.
+	 *
+	 * @param datei zu schreibende Datei
+	 * @throws IOException wenn die Datei nicht geschrieben werden kann
+	 */
+	public void schreibePNML(File datei) throws IOException {
+		try (Writer w = Files.newBufferedWriter(datei.toPath(), StandardCharsets.UTF_8)) {
+			schreibePNML(w);
+		}
+	}
+
+	/**
+	 * Schreibt das beschriebene Netz als PNML im Format von WoPeD.
+	 *
+	 * @param ziel Ziel der Ausgabe, wird nicht geschlossen
+	 * @throws IOException wenn nicht geschrieben werden kann
+	 */
+	public void schreibePNML(Writer ziel) throws IOException {
+		BufferedWriter w = ziel instanceof BufferedWriter ? (BufferedWriter) ziel : new BufferedWriter(ziel);
+		w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		w.write("<pnml>\n");
+		w.write("  <net type=\"http://www.informatik.hu-berlin.de/top/pntd/ptNetb\" id=\"" + maskiere(name)
+				+ "\">\n");
+		for (int i = 0; i < reihenfolge.size(); i++) {
+			int knoten = reihenfolge.get(i);
+			if (knoten >= 0) {
+				w.write("    <place id=\"" + stellenID(knoten) + "\">\n");
+				schreibeKnoten(w, stellenNamen.get(knoten), x(i), y(i));
+				if (stellenMarken.get(knoten) > 0)
+					w.write("      <initialMarking>\n        <text>" + stellenMarken.get(knoten)
+							+ "</text>\n      </initialMarking>\n");
+				w.write("    </place>\n");
+			} else {
+				w.write("    <transition id=\"" + transitionID(-knoten - 1) + "\">\n");
+				schreibeKnoten(w, transitionenNamen.get(-knoten - 1), x(i), y(i));
+				w.write("    </transition>\n");
+			}
+		}
+		int a = 0;
+		for (int[] k : vorKanten)
+			schreibeKante(w, kanteID(a++), stellenID(k[0]), transitionID(k[1]), k[2]);
+		for (int[] k : nachKanten)
+			schreibeKante(w, kanteID(a++), transitionID(k[1]), stellenID(k[0]), k[2]);
+		w.write("  </net>\n");
+		w.write("</pnml>\n");
+		w.flush();
+	}
+
+	private void schreibeKnoten(BufferedWriter w, String beschriftung, int x, int y) throws IOException {
+		w.write("      <name>\n        <text>" + maskiere(beschriftung) + "</text>\n      </name>\n");
+		w.write("      <graphics>\n        <position x=\"" + x + "\" y=\"" + y
+				+ "\"/>\n        <dimension x=\"40\" y=\"40\"/>\n      </graphics>\n");
+	}
+
+	private void schreibeKante(BufferedWriter w, String id, String quelle, String ziel, int gewicht)
+			throws IOException {
+		w.write("    <arc id=\"" + id + "\" source=\"" + quelle + "\" target=\"" + ziel + "\">\n");
+		w.write("      <inscription>\n        <text>" + gewicht + "</text>\n      </inscription>\n");
+		w.write("    </arc>\n");
+	}
+
+	/**
+	 * Ersetzt die in XML reservierten Zeichen durch Entitäten.
+	 */
+	private static String maskiere(String text) {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '<':
+				sb.append("&lt;");
+				break;
+			case '>':
+				sb.append("&gt;");
+				break;
+			case '&':
+				sb.append("&amp;");
+				break;
+			case '"':
+				sb.append("&quot;");
+				break;
+			default:
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	private String stellenID(int stelle) {
+		return id("p", stelle, stellenNamen.size());
+	}
+
+	private String transitionID(int transition) {
+		return id("t", transition, transitionenNamen.size());
+	}
+
+	private String kanteID(int kante) {
+		return id("a", kante, getAnzahlKanten());
+	}
+
+	/**
+	 * Bildet eine ID mit so vielen führenden Nullen, dass alle IDs einer Art
+	 * gleich lang sind.
+	 */
+	private static String id(String art, int index, int anzahl) {
+		String zahl = Integer.toString(index);
+		int stellen = Integer.toString(Math.max(anzahl - 1, 0)).length();
+		StringBuilder sb = new StringBuilder(art);
+		for (int i = zahl.length(); i < stellen; i++)
+			sb.append('0');
+		return sb.append(zahl).toString();
+	}
+
+	private int spalten() {
+		return (int) Math.ceil(Math.sqrt(reihenfolge.size()));
+	}
+
+	private int x(int position) {
+		return RASTER / 2 + RASTER * (position % spalten());
+	}
+
+	private int y(int position) {
+		return RASTER / 2 + RASTER * (position / spalten());
+	}
+
+}
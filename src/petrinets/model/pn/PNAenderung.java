@@ -0,0 +1,95 @@
+package petrinets.model.pn;
+
+import java.util.LinkedHashSet;
+
+/**
+ * Die Klasse PNAenderung beschreibt, was sich seit der letzten Zustellung am
+ * {@link Petrinetz} geändert hat: die Stellen, deren Markenzahl sich geändert
+ * hat, und die Transitionen, deren Aktivierung umgeschlagen ist. Die
+ * Beobachter müssen so nur die betroffenen Knoten nachziehen und lesen deren
+ * aktuellen Stand. Mehrere Änderungen werden zur Vereinigung
+ * zusammengefasst, sie umfasst höchstens alle Knoten des Netzes.
+ *
+ * Nach dem Laden des Netzes verlangt die Änderung stattdessen einen
+ * Neuaufbau der Darstellung.
+ */
+public class PNAenderung {
+
+	private final boolean neuaufbau;
+	private final LinkedHashSet<Stelle> stellen;
+	private final LinkedHashSet<Transition> transitionen;
+
+	/**
+	 * Der Konstruktor wird vom {@link Petrinetz} mit den gesammelten Änderungen
+	 * aufgerufen.
+	 *
+	 * @param stellen      Stellen mit geänderter Markenzahl
+	 * @param transitionen Transitionen mit umgeschlagener Aktivierung
+	 */
+	protected PNAenderung(LinkedHashSet<Stelle> stellen, LinkedHashSet<Transition> transitionen) {
+		this(false, stellen, transitionen);
+	}
+
+	private PNAenderung(boolean neuaufbau, LinkedHashSet<Stelle> stellen, LinkedHashSet<Transition> transitionen) {
+		this.neuaufbau = neuaufbau;
+		this.stellen = stellen;
+		this.transitionen = transitionen;
+	}
+
+	/**
+	 * Erstellt die Änderung für ein neu geladenes Netz.
+	 *
+	 * @return Änderung
+	 */
+	static PNAenderung neuaufbau() {
+		return new PNAenderung(true, new LinkedHashSet<Stelle>(), new LinkedHashSet<Transition>());
+	}
+
+	/**
+	 * Fasst eine bereitliegende und eine spätere Änderung zusammen. Die
+	 * bereitliegende wird dabei erweitert und zurückgegeben.
+	 *
+	 * @param frueher bereitliegende Änderung
+	 * @param spaeter spätere Änderung
+	 * @return zusammengefasste Änderung
+	 */
+	static PNAenderung zusammenfassen(PNAenderung frueher, PNAenderung spaeter) {
+		if (frueher.neuaufbau)
+			return frueher;
+		if (spaeter.neuaufbau)
+			return spaeter;
+		frueher.stellen.addAll(spaeter.stellen);
+		frueher.transitionen.addAll(spaeter.transitionen);
+		return frueher;
+	}
+
+	/**
+	 * Gibt zurück, ob die Darstellung aus dem Netz neu aufgebaut werden muss.
+	 *
+	 * @return true bei einem Neuaufbau
+	 */
+	public boolean istNeuaufbau() {
+		return neuaufbau;
+	}
+
+	/**
+	 * Gibt die Stellen zurück, deren Markenzahl sich geändert hat.
+	 *
+	 * @return geänderte Stellen
+	 */
+	public LinkedHashSet<Stelle> getStellen() {
+		return stellen;
+	}
+
+	/**
+	 * Gibt die Transitionen zurück, deren Aktivierung umgeschlagen sein kann.
+	 * Bei zusammengefassten Änderungen kann sie inzwischen wieder
+	 * zurückgeschlagen sein.
+	 *
+	 * @return umgeschaltete Transitionen
+	 */
+	public LinkedHashSet<Transition> getTransitionen() {
+		return transitionen;
+	}
+
+}
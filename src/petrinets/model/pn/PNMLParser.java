@@ -16,6 +16,9 @@ public class PNMLParser extends PNMLWopedParser {
 	// Das Petrinetz, in das vom Parser geschrieben wird
 	private Petrinetz pn;
 
+	// Meldungen über gefundene Elemente auf der Konsole ausgeben
+	private boolean meldungen;
+
 	/**
 	 * Der Konstruktor wird vom {@link Petrinetz} aufgerufen.
 	 * Er übergibt die PNML-Datei an seine Oberklasse und
@@ -23,10 +26,22 @@ public class PNMLParser extends PNMLWopedParser {
 	 * 
 	 * @param pnml zu parsende PNML-Datei
 	 * @param pn das zu schreibende Petrinetz
+	 * @param meldungen true, wenn gefundene Elemente auf der Konsole gemeldet werden sollen
 	 */
-	protected PNMLParser(File pnml, Petrinetz pn) {
+	protected PNMLParser(File pnml, Petrinetz pn, boolean meldungen) {
 		super(pnml);
 		this.pn = pn;
+		this.meldungen = meldungen;
+	}
+
+	/**
+	 * Gibt eine Meldung auf der Konsole aus, sofern Meldungen eingeschaltet sind.
+	 * 
+	 * @param text Text der Meldung
+	 */
+	private void melde(String text) {
+		if (meldungen)
+			System.out.println(text);
 	}
 
 	/**
@@ -35,7 +50,7 @@ public class PNMLParser extends PNMLWopedParser {
 	 * @param id Identifikationstext der Transition
 	 */
 	public void newTransition(final String id) {
-		System.out.println("Transition mit id " + id + " wurde gefunden.");
+		melde("Transition mit id " + id + " wurde gefunden.");
 		pn.addTransition(id);
 	}
 
@@ -45,7 +60,7 @@ public class PNMLParser extends PNMLWopedParser {
 	 * @param id Identifikationstext der Stelle
 	 */
 	public void newPlace(final String id) {
-		System.out.println("Stelle mit id " + id + " wurde gefunden.");
+		melde("Stelle mit id " + id + " wurde gefunden.");
 		pn.addStelle(id);
 	}
 
@@ -58,7 +73,7 @@ public class PNMLParser extends PNMLWopedParser {
 	 * @param target Identifikationstext des Endelements der Kante
 	 */
 	public void newArc(final String id, final String source, final String target) {
-		System.out.println("Kante mit id " + id + " von " + source + " nach " + target + " wurde gefunden.");
+		melde("Kante mit id " + id + " von " + source + " nach " + target + " wurde gefunden.");
 		pn.addKante(id, source, target);
 	}
 
@@ -70,7 +85,7 @@ public class PNMLParser extends PNMLWopedParser {
 	 * @param y  y Position des Elements
 	 */
 	public void setPosition(final String id, final String x, final String y) {
-		System.out.println("Setze die Position des Elements " + id + " auf (" + x + ", " + y + ")");
+		melde("Setze die Position des Elements " + id + " auf (" + x + ", " + y + ")");
 		int newY = Integer.parseInt(y);
 		pn.getKnoten(id).setPosition(Integer.parseInt(x), newY - 2 * newY);
 	}
@@ -82,7 +97,7 @@ public class PNMLParser extends PNMLWopedParser {
 	 * @param name Beschriftungstext des Elements
 	 */
 	public void setName(final String id, final String name) {
-		System.out.println("Setze den Namen des Elements " + id + " auf " + name);
+		melde("Setze den Namen des Elements " + id + " auf " + name);
 		pn.getKnoten(id).setName(name);
 	}
 
@@ -93,9 +108,31 @@ public class PNMLParser extends PNMLWopedParser {
 	 * @param tokens Markenanzahl des Elements
 	 */
 	public void setTokens(final String id, final String tokens) {
-		System.out.println("Setze die Markenanzahl des Elements " + id + " auf " + tokens);
+		melde("Setze die Markenanzahl des Elements " + id + " auf " + tokens);
 		Stelle s;
 		s = (Stelle) pn.getKnoten(id);
 		s.setAnfangsMarken(Integer.parseInt(tokens));
 	}
+
+	/**
+	 * Aktualisiert das Gewicht der geladenen Kante. Ungültige Gewichte werden
+	 * gemeldet und die Kante behält das Gewicht 1.
+	 * 
+	 * @param id     Identifikationstext der Kante
+	 * @param weight Gewicht der Kante
+	 */
+	public void setWeight(final String id, final String weight) {
+		melde("Setze das Gewicht der Kante " + id + " auf " + weight);
+		int gewicht;
+		try {
+			gewicht = Integer.parseInt(weight.trim());
+		} catch (NumberFormatException e) {
+			gewicht = 0;
+		}
+		if (gewicht < 1) {
+			System.err.println("Ungültiges Gewicht " + weight + " der Kante " + id + " wurde verworfen!");
+			return;
+		}
+		pn.setKantenGewicht(id, gewicht);
+	}
 }
@@ -63,6 +63,12 @@ public class PNMLWopedParser {
 	 */
 	private String lastId = null;
 
+	/**
+	 * Diese Variable dient als Zwischenspeicher für die ID der zuletzt
+	 * gefundenen Kante, deren Beschriftung noch folgen kann.
+	 */
+	private String lastArcId = null;
+
 	/**
 	 * Dieses Flag zeigt an, ob der Parser gerade innerhalb eines InitialMarking
 	 * Elements liest.
@@ -81,6 +87,12 @@ public class PNMLWopedParser {
 	 */
 	private boolean isText = false;
 
+	/**
+	 * Dieses Flag zeigt an, ob der Parser gerade innerhalb eines Inscription
+	 * Elements liest.
+	 */
+	private boolean isInscription = false;
+
 	/**
 	 * Dieser Konstruktor erstellt einen neuen Parser für PNML Dateien, dem die
 	 * PNML Datei als Java {@link File} übergeben wird.
@@ -137,13 +149,19 @@ public class PNMLWopedParser {
 					} else if (name.equals("name")) {
 						isName = false;
 
+					} else if (name.equals("inscription")) {
+						isInscription = false;
+
+					} else if (name.equals("arc")) {
+						lastArcId = null;
+
 					} else if (name.equals("text")) {
 						isText = false;
 						// ----------------
 					}
 					break;
 				case XMLStreamConstants.CHARACTERS:
-					if (isText && lastId != null) {
+					if (isText && (lastId != null || isInscription && lastArcId != null)) {
 						Characters ch = event.asCharacters();
 						if (!ch.isWhiteSpace()) {
 							handleText(ch.getData());
@@ -188,6 +206,9 @@ public class PNMLWopedParser {
 		} else if (element.getName().toString().toLowerCase()
 				.equals("initialmarking")) {
 			isInitialMarking = true;
+		} else if (element.getName().toString().toLowerCase()
+				.equals("inscription")) {
+			isInscription = true;
 		} else if (element.getName().toString().toLowerCase().equals("text")) {
 			isText = true;
 		}
@@ -201,7 +222,11 @@ public class PNMLWopedParser {
 	 *            Der gelesene Text als String
 	 */
 	private void handleText(final String text) {
-		if (isName) {
+		if (isInscription) {
+			if (lastArcId != null) {
+				setWeight(lastArcId, text);
+			}
+		} else if (isName) {
 			setName(lastId, text);
 		} else if (isInitialMarking) {
 			setTokens(lastId, text);
@@ -315,6 +340,7 @@ public class PNMLWopedParser {
 		}
 		if (arcId != null && source != null && target != null) {
 			newArc(arcId, source, target);
+			lastArcId = arcId;
 		} else {
 			System.err.println("Unvollständige Kante wurde verworfen!");
 		}
@@ -402,4 +428,18 @@ public class PNMLWopedParser {
 		System.out.println("Setze die Markenanzahl des Elements " + id
 				+ " auf " + tokens);
 	}
+
+	/**
+	 * Diese Methode kann überschrieben werden, um das Gewicht der geladenen
+	 * Kante zu aktualisieren.
+	 * 
+	 * @param id
+	 *            Identifikationstext der Kante
+	 * @param weight
+	 *            Gewicht der Kante
+	 */
+	public void setWeight(final String id, final String weight) {
+		System.out.println("Setze das Gewicht der Kante " + id + " auf "
+				+ weight);
+	}
 }
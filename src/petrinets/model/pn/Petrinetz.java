@@ -2,11 +2,15 @@ package petrinets.model.pn;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Observable;
+import java.util.LinkedHashSet;
+import java.util.Map;
 
 import petrinets.model.eg.Erreichbarkeitsgraph;
+import petrinets.model.eg.Markierung;
+import petrinets.model.ereignis.Ereignisbus;
 
 /**
  * Hier bündeln sich alle Informationen und Funktionen des Petrinetzes. Ein
@@ -15,30 +19,55 @@ import petrinets.model.eg.Erreichbarkeitsgraph;
  * 
  * Im Petrinetz wird auch der zugehörige Erreichbarkeitsgraph initialisiert.
  * 
- * Diese Klasse erweitert die Klasse Observable, um ihr View-Äquivalent ohne 
- * großen Aufwand über Änderungen zu informieren.
+ * Über einen {@link Ereignisbus} wird ihr View-Äquivalent ohne großen Aufwand
+ * über Änderungen informiert. Bei jeder Änderung der Markierung erhalten die
+ * Beobachter eine {@link PNAenderung} mit den geänderten Stellen und
+ * umgeschalteten Transitionen.
  */
-public class Petrinetz extends Observable {
+public class Petrinetz {
 
 	// Alle Elemente des Petrnietzes sind in HashMaps gesammelt,
 	// mit dem String ihrer ID als eindeutigem key
 	private HashMap<String, Stelle> stellen;
 	private HashMap<String, Transition> transitionen;
 	private HashMap<String, Kante> kanten;
+	// Stellen und Transitionen zusammen, für die Suche nach der ID
 	private HashMap<String, PNKnoten> pnKnoten;
 	
 	private ArrayList<String> aktivierteTransitionen;
 
+	/** kompilierte Form des Netzes, über die geschaltet wird */
+	private KompiliertesNetz netz;
+
 	private String dateiname;
 
 	/** zum Petrinnetz assoziierter Erreichbarkeitsgraph */
 	private Erreichbarkeitsgraph eg;
 
+	/** stellt die Änderungen den Beobachtern zu */
+	private final Ereignisbus<Petrinetz, PNAenderung> aenderungen = new Ereignisbus<>(this,
+			PNAenderung::zusammenfassen);
+
 	/**
 	 * Im Konstruktor werden die Sammlungen der Basiselemente initialisiert und die
 	 * übergebene Datei geparsed
+	 * 
+	 * @param pnml zu parsende Datei
 	 */
 	public Petrinetz(File pnml) {
+		this(pnml, true);
+	}
+
+	/**
+	 * Im Konstruktor werden die Sammlungen der Basiselemente initialisiert und die
+	 * übergebene Datei geparsed. Die Meldungen des Parsers über gefundene
+	 * Elemente können abgeschaltet werden, etwa wenn die Konsole für eine
+	 * maschinenlesbare Ausgabe genutzt wird.
+	 * 
+	 * @param pnml zu parsende Datei
+	 * @param meldungen true, wenn der Parser gefundene Elemente melden soll
+	 */
+	public Petrinetz(File pnml, boolean meldungen) {
 
 		// initialisiere Sammlungen
 		stellen = new HashMap<String, Stelle>();
@@ -51,28 +80,49 @@ public class Petrinetz extends Observable {
 		// Dateiname aus Pfad auslesen und Datei parsen
 		if (pnml.exists()) {
 			setDateiname(pnml);
-			parse(pnml);
+			parse(pnml, meldungen);
 		} else {
 			System.err.println("Die Datei " + pnml.getAbsolutePath() + " wurde nicht gefunden!");
+			// leeres Netz kompilieren
+			kompiliere();
 		}
 		
 		// Erreichbarkeitsgraph initialisieren
-		eg = new Erreichbarkeitsgraph(getMarkierung());
+		eg = new Erreichbarkeitsgraph(getAktuelleMarkierung());
+	}
+
+	/**
+	 * Baut das Petrinetz ohne Datei aus der Beschreibung eines
+	 * {@link Netzgenerator}s auf. Der Name des Generators dient als Dateiname.
+	 *
+	 * @param generator Generator mit Stellen, Transitionen und Kanten
+	 */
+	Petrinetz(Netzgenerator generator) {
+		stellen = new HashMap<String, Stelle>();
+		transitionen = new HashMap<String, Transition>();
+		kanten = new HashMap<String, Kante>();
+		pnKnoten = new HashMap<String, PNKnoten>();
+		aktivierteTransitionen = new ArrayList<String>();
+		dateiname = generator.getName();
 
-		// Changed-Flag für die Observer setzen
-		setChanged();
+		generator.fuelle(this);
+		verbindeKanten();
+		kompiliere();
+
+		eg = new Erreichbarkeitsgraph(getAktuelleMarkierung());
 	}
 
 	/**
 	 * Die zu parsende Datei wird vom Controller durchgereicht. Hier erstellt sich
 	 * das Petrinetz einen Parser, welcher das Netz mit dem Inhalt der Datei füllt.
-	 * Anschließend werden die Kanten verbunden, die aktivierten Transitionen als
-	 * solche gekennzeichnet und der zugehörige EG initialisiert.
+	 * Anschließend werden die Kanten verbunden, das Netz kompiliert und die
+	 * aktivierten Transitionen als solche gekennzeichnet.
 	 * 
 	 * @param pnml zu parsende Datei
+	 * @param meldungen true, wenn der Parser gefundene Elemente melden soll
 	 */
-	private void parse(File pnml) {
-		PNMLParser parser = new PNMLParser(pnml, this);
+	private void parse(File pnml, boolean meldungen) {
+		PNMLParser parser = new PNMLParser(pnml, this, meldungen);
 		// Parser ausführen
 		parser.initParser();
 		parser.parse();
@@ -80,7 +130,17 @@ public class Petrinetz extends Observable {
 		// Kanten verbinden
 		verbindeKanten();
 
-		// überprüfen, welche Transitionen als aktiviert gekennzeichnet werden
+		// Netz kompilieren und Aktivierungen prüfen
+		kompiliere();
+	}
+
+	/**
+	 * Erstellt die kompilierte Form des Netzes, über die Aktivierungen geprüft und
+	 * Transitionen geschaltet werden, und kennzeichnet die aktivierten
+	 * Transitionen als solche.
+	 */
+	private void kompiliere() {
+		netz = new KompiliertesNetz(stellen, transitionen);
 		aktiviereTransitionen();
 	}
 
@@ -109,7 +169,9 @@ public class Petrinetz extends Observable {
 	 * @param sID ID der hinzuzufüngenden Stelle
 	 */
 	protected void addStelle(String sID) {
-		stellen.put(sID, new Stelle(sID));
+		Stelle s = new Stelle(sID);
+		stellen.put(sID, s);
+		pnKnoten.put(sID, s);
 	}
 
 	/**
@@ -118,7 +180,9 @@ public class Petrinetz extends Observable {
 	 * @param tID ID der hinzuzufügenden Transition
 	 */
 	protected void addTransition(String tID) {
-		transitionen.put(tID, new Transition(tID));
+		Transition t = new Transition(tID);
+		transitionen.put(tID, t);
+		pnKnoten.put(tID, t);
 	}
 
 	/**
@@ -132,14 +196,33 @@ public class Petrinetz extends Observable {
 		kanten.put(kID, new Kante(kID, quellID, zielID));
 	}
 
+	/**
+	 * Setzt das Gewicht einer bereits hinzugefügten Kante.
+	 * 
+	 * @param kID ID der Kante
+	 * @param gewicht Gewicht der Kante
+	 */
+	protected void setKantenGewicht(String kID, int gewicht) {
+		Kante k = kanten.get(kID);
+		if (k != null)
+			k.setGewicht(gewicht);
+	}
+
 	/**
 	 * Wird nach dem Parsen aufgerufen, um die gesammelten Kanten zu durchlaufen und
 	 * in den Knoten die entsprechenden Vorgänger-Nachfolger-Relationen zu setzen.
+	 * 
+	 * @throws IllegalArgumentException wenn eine Kante auf einen Knoten
+	 *                                  verweist, den die Datei nicht enthält
 	 */
 	private void verbindeKanten() {
-		for (Kante k : kanten.values()) {
+		for (Map.Entry<String, Kante> e : kanten.entrySet()) {
+			Kante k = e.getValue();
 			PNKnoten quelle = getKnoten(k.getQuellID());
 			PNKnoten ziel = getKnoten(k.getZielID());
+			if (quelle == null || ziel == null)
+				throw new IllegalArgumentException("Kante " + e.getKey() + " verweist auf unbekannten Knoten "
+						+ (quelle == null ? k.getQuellID() : k.getZielID()));
 			quelle.addNachfolger(k, ziel);
 			ziel.addVorgaenger(k, quelle);
 		}
@@ -153,11 +236,18 @@ public class Petrinetz extends Observable {
 	 * @return PNKnoten mit der übergebenen ID, Stelle oder Transition
 	 */
 	public PNKnoten getKnoten(String id) {
-		pnKnoten.putAll(stellen);
-		pnKnoten.putAll(transitionen);
 		return pnKnoten.get(id);
 	}
 
+	/**
+	 * Gibt die kompilierte Form des Petrinetzes zurück.
+	 * 
+	 * @return kompiliertes Netz
+	 */
+	public KompiliertesNetz getKompiliertesNetz() {
+		return netz;
+	}
+
 	/**
 	 * Gibt die HashMap mit den Stellen zurück.
 	 * 
@@ -188,49 +278,38 @@ public class Petrinetz extends Observable {
 	/**
 	 * Setzt das Petrinetz auf die entsprechende Markierung zurück
 	 * 
-	 * @param markierung Markierung auf die das Petrinetz zurück gesetzt werden soll
+	 * @param markierung String der Markierung in der Form (m1|m2|...), auf die
+	 *                   das Petrinetz zurück gesetzt werden soll
 	 */
 	public void resetTo(String markierung) {
+		resetTo(Markierung.parse(markierung));
+	}
 
-		// Klammern entfernen
-		markierung = markierung.substring(1, markierung.length() - 1);
-		// String in die einzelnen Zahlen für die Stellen-Marken splitten
-		String[] marken = markierung.split("\\|");
+	/**
+	 * Setzt das Petrinetz auf die entsprechende Markierung zurück
+	 * 
+	 * @param markierung Markierung auf die das Petrinetz zurück gesetzt werden soll
+	 */
+	public void resetTo(Markierung markierung) {
 
 		// Marken den entsprechenden Stellen zuweisen
-		ArrayList<String> stellenSortiert = new ArrayList<String>();
-		stellenSortiert.addAll(stellen.keySet());
-		stellenSortiert.sort(null);
-
-		Iterator<String> it = stellenSortiert.iterator();
-
-		// Iterator<Stelle> it = stellen.values().iterator();
-		for (int i = 0; i < marken.length; i++) {
-			Stelle s = stellen.get(it.next());
-			s.setMarken(Integer.parseInt(marken[i]));
-		}
+		netz.setMarkierung(markierung);
 
 		// Transitionen aktivieren
 		aktiviereTransitionen();
 
-		// Changed Flag setzen und Observer benachrichtigen
-		setChanged();
-		notifyObservers();
+		// Beobachter über die Änderungen benachrichtigen
+		benachrichtige();
 	}
 
 	/**
-	 * Wird am Ende des Parsing-Vorgangs und nach dem Schalten aufgerufen. Setzt die
-	 * Aktivierung der Transitionen, wenn alle Vorgängerstellen markiert sind.
+	 * Wird am Ende des Parsing-Vorgangs und nach jeder Änderung der Markierung
+	 * aufgerufen. Die Aktivierungen selbst hält das kompilierte Netz bei jeder
+	 * Änderung aktuell, hier wird nur die Liste der aktivierten Transitionen
+	 * daraus übernommen.
 	 */
 	private void aktiviereTransitionen() {
-		aktivierteTransitionen.clear();
-		Iterator<Transition> it = transitionen.values().iterator();
-		while (it.hasNext()) {
-			Transition t = it.next();
-			t.pruefeAktivierung();
-			if (t.istAktiviert())
-				aktivierteTransitionen.add(t.getID());
-		}
+		netz.sammleAktivierteTransitionen(aktivierteTransitionen);
 	}
 
 	/**
@@ -244,9 +323,8 @@ public class Petrinetz extends Observable {
 		}
 		aktiviereTransitionen();
 
-		// Changed Flag setzen und Observer benachrichtigen
-		setChanged();
-		notifyObservers();
+		// Beobachter über die Änderungen benachrichtigen
+		benachrichtige();
 	}
 
 	/**
@@ -266,32 +344,60 @@ public class Petrinetz extends Observable {
 	 * 
 	 */
 	public void schalten(String t) {
-		String markierung = getMarkierung();
-
-		// Vorgängermarken reduzieren
-		Iterator<PNKnoten> i = getKnoten(t).getVorgaenger().values().iterator();
-		while (i.hasNext()) {
-			Stelle s = (Stelle) i.next();
-			s.markenMinus();
-		}
+		Markierung markierung = getAktuelleMarkierung();
 
-		// Nachfolgermarken erhöhen
-		i = getKnoten(t).getNachfolger().values().iterator();
-		while (i.hasNext()) {
-			Stelle s = (Stelle) i.next();
-			s.markenPlus();
-		}
+		// Vorgängermarken reduzieren und Nachfolgermarken erhöhen
+		netz.schalten(netz.getTransitionIndex(t));
 
 		// Aktivierungen aktualisieren
 		aktiviereTransitionen();
 
 		// Übergang zum EG hinzufügen
-		String folgeMarkierung = getMarkierung();
+		Markierung folgeMarkierung = getAktuelleMarkierung();
 		eg.addUebergang(markierung, folgeMarkierung, t);
 
-		// Changed Flag setzen und Observer benachrichtigen
-		setChanged();
-		notifyObservers();
+		// Beobachter über die Änderungen benachrichtigen
+		benachrichtige();
+	}
+
+	/**
+	 * Holt die seit der letzten Benachrichtigung geänderten Stellen und
+	 * umgeschalteten Transitionen aus dem kompilierten Netz und meldet sie den
+	 * Beobachtern als {@link PNAenderung}. Ohne Beobachter werden sie nur
+	 * verworfen.
+	 */
+	private void benachrichtige() {
+		BitSet geaenderteStellen = new BitSet();
+		BitSet umgeschalteteTransitionen = new BitSet();
+		netz.holeAenderungen(geaenderteStellen, umgeschalteteTransitionen);
+		if (!aenderungen.hatBeobachter())
+			return;
+
+		LinkedHashSet<Stelle> s = new LinkedHashSet<Stelle>();
+		for (int i = geaenderteStellen.nextSetBit(0); i >= 0; i = geaenderteStellen.nextSetBit(i + 1))
+			s.add(stellen.get(netz.getStellenID(i)));
+		LinkedHashSet<Transition> t = new LinkedHashSet<Transition>();
+		for (int i = umgeschalteteTransitionen.nextSetBit(0); i >= 0; i = umgeschalteteTransitionen
+				.nextSetBit(i + 1))
+			t.add(transitionen.get(netz.getTransitionID(i)));
+		aenderungen.melde(new PNAenderung(s, t));
+	}
+
+	/**
+	 * Gibt den Ereignisbus zurück, an dem sich die Beobachter anmelden.
+	 * 
+	 * @return Ereignisbus des Petrinetzes
+	 */
+	public Ereignisbus<Petrinetz, PNAenderung> getAenderungen() {
+		return aenderungen;
+	}
+
+	/**
+	 * Fordert die Beobachter auf, ihre Darstellung aus dem gesamten Netz neu
+	 * aufzubauen. Wird nach dem Anmelden eines Beobachters aufgerufen.
+	 */
+	public void meldeInhalt() {
+		aenderungen.melde(PNAenderung.neuaufbau());
 	}
 
 	/**
@@ -301,24 +407,28 @@ public class Petrinetz extends Observable {
 	 * @return String der aktuellen Markierung
 	 */
 	public String getMarkierung() {
+		return getAktuelleMarkierung().toString();
+	}
 
-		ArrayList<String> stellenSortiert = new ArrayList<String>();
-		stellenSortiert.addAll(stellen.keySet());
-		stellenSortiert.sort(null);
-
-		Iterator<String> it = stellenSortiert.iterator();
-
-		String markierung = "(";
-		while (it.hasNext()) {
-			String sID = it.next();
-			markierung += stellen.get(sID).getMarken() + "|";
-		}
-
-		// letztes Trennzeichen entfernen
-		markierung = markierung.substring(0, markierung.length() - 1);
+	/**
+	 * Gibt die aktuelle Markierung des Petrinetzes zurück.
+	 * 
+	 * @return aktuelle Markierung
+	 */
+	public Markierung getAktuelleMarkierung() {
+		return netz.getMarkierung();
+	}
 
-		markierung += ")";
-		return markierung;
+	/**
+	 * Gibt die Anfangsmarkierung des Petrinetzes zurück.
+	 * 
+	 * @return Anfangsmarkierung
+	 */
+	public Markierung getAnfangsmarkierung() {
+		int[] marken = new int[netz.getAnzahlStellen()];
+		for (int i = 0; i < marken.length; i++)
+			marken[i] = stellen.get(netz.getStellenID(i)).getAnfangsMarken();
+		return new Markierung(marken);
 	}
 
 	/**
@@ -334,7 +444,7 @@ public class Petrinetz extends Observable {
 	 * Setzt den EG auf die aktuelle Markierung zurück.
 	 */
 	public void resetEG() {
-		eg.reset(getMarkierung());
+		eg.reset(getAktuelleMarkierung());
 	}
 
 	/**
@@ -368,9 +478,8 @@ public class Petrinetz extends Observable {
 		aktiviereTransitionen();
 		resetEG();
 
-		// Changed Flag setzen und Observer benachrichtigen
-		setChanged();
-		notifyObservers();
+		// Beobachter über die Änderungen benachrichtigen
+		benachrichtige();
 	}
 
 }
@@ -4,11 +4,16 @@ package petrinets.model.pn;
  * Ein Objekt dieser Klasse repräsentiert eine Stelle in einem Petrinetz
  * mit allen Eigenschaften von {@link PNKnoten} sowie einer Anfangsmarkierung
  * und der aktuellen Anzahl an Marken.
+ * 
+ * Sobald das Petrinetz kompiliert ist, liegt die aktuelle Anzahl an Marken
+ * im {@link KompiliertesNetz}, die Stelle greift dann über ihren Index darauf zu.
  */
 public class Stelle extends PNKnoten{
 	
 	private int anfangsMarken;
 	private int marken;
+	private KompiliertesNetz netz;
+	private int index;
 	
 	/**
 	 * Der Konstruktor setzt die ID der Stelle mittels des Konstruktors 
@@ -22,6 +27,18 @@ public class Stelle extends PNKnoten{
 		marken = 0;
 	}
 
+	/**
+	 * Bindet die Stelle an das kompilierte Netz. Die Marken werden anschließend
+	 * dort verwaltet.
+	 * 
+	 * @param netz  kompiliertes Netz
+	 * @param index Index der Stelle im kompilierten Netz
+	 */
+	protected void binde(KompiliertesNetz netz, int index) {
+		this.netz = netz;
+		this.index = index;
+	}
+
 	/**
 	 * Gibt die Anzahl der Marken der Anfangsmarkierung der Stelle zurück
 	 * 
@@ -38,7 +55,7 @@ public class Stelle extends PNKnoten{
 	 */
 	protected void setAnfangsMarken(int markenZahl) {
 		anfangsMarken = markenZahl;
-		this.marken = anfangsMarken;
+		setMarken(anfangsMarken);
 	}
 	
 	/**
@@ -46,7 +63,10 @@ public class Stelle extends PNKnoten{
 	 * @param markenZahl neue Marken-Anzahl
 	 */
 	protected void setMarken(int markenZahl) {
-		this.marken = markenZahl;
+		if (netz != null)
+			netz.setMarken(index, markenZahl);
+		else
+			this.marken = markenZahl;
 	}
 	
 	/**
@@ -54,27 +74,15 @@ public class Stelle extends PNKnoten{
 	 * @return aktuelle Marken-Anzahl
 	 */
 	public int getMarken() {
+		if (netz != null)
+			return netz.getMarken(index);
 		return marken;
 	}
 	
-	/**
-	 * Erhöht die Anzahl der Marken um eins
-	 */
-	protected void markenPlus() {
-		marken ++;
-	}
-	
-	/**
-	 * Verringert die Anzahl der Marken um eins.
-	 */
-	protected void markenMinus() {
-		marken--;
-	}
-	
 	/**
 	 * Setzt die aktuelle Markenzahl auf die Anfangsmarkenzahl zurück
 	 */
 	protected void resetMarken() {
-		marken = anfangsMarken;
+		setMarken(anfangsMarken);
 	}
 }
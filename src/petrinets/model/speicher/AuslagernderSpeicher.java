@@ -0,0 +1,389 @@
+package petrinets.model.speicher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Ein Zustandsspeicher, der neue Markierungen zunächst im Heap hält und sie
+ * auslagert, sobald der Heap-Anteil ein festes Budget überschreitet. Die
+ * Markierungen werden im Heap wie auf der Platte in der {@link Kodierung}
+ * gehalten und über ihren Hashwert auf Partitionen verteilt. Jede
+ * Partition hat eine eigene Hash-Tabelle im Heap und eine Liste von
+ * {@link Segment}en auf der Platte. Ausgelagert wird immer die größte
+ * Partition als neues Segment. Aufeinanderfolgende Segmente ähnlicher Größe
+ * werden zusammengeführt, je Partition gibt es daher nur logarithmisch viele.
+ *
+ * Eine Anfrage betrifft nur die Partition der Markierung: zuerst die
+ * Hash-Tabelle, dann die Bloom-Filter der Segmente, und nur bei einem Treffer
+ * im Filter die abgebildete Datei. Die Bloom-Filter zählen nicht zum Budget,
+ * sie belegen etwa 1,25 Byte je ausgelagerter Markierung.
+ *
+ * Die Segmente liegen in einem temporären Verzeichnis, das erst beim ersten
+ * Auslagern angelegt und mit {@link #close()} oder spätestens beim Beenden
+ * der JVM gelöscht wird. Kann nicht ausgelagert werden, etwa weil die Platte
+ * voll ist, bleiben die Markierungen im Heap und der Speicher arbeitet
+ * eingeschränkt weiter.
+ */
+public class AuslagernderSpeicher implements Zustandsspeicher {
+
+	/** Standardbudget für den Heap-Anteil in Bytes */
+	public static final long STANDARD_BUDGET = 64L << 20;
+
+	private static final int PARTITIONEN = 16;
+
+	// Hashwert, Anfang der Kodierung und zwei Tabellenplätze je Markierung im
+	// Heap
+	private static final int VERWALTUNG_JE_EINTRAG = 8 + 4 + 8;
+
+	// noch nicht geschlossene Speicher, deren Dateien beim Beenden der JVM
+	// gelöscht werden
+	private static final Set<AuslagernderSpeicher> OFFEN = ConcurrentHashMap.newKeySet();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			for (AuslagernderSpeicher s : OFFEN)
+				s.close();
+		}, "zustandsspeicher-aufraeumen"));
+	}
+
+	private final long budget;
+	private final byte[] kodiert;
+	private final Path basis;
+	private final Partition[] partitionen = new Partition[PARTITIONEN];
+
+	private Path verzeichnis;
+	private int naechsteDatei;
+	private long anzahl;
+	private long ausgelagert;
+	private long heissBytes;
+	private boolean eingeschraenkt;
+	private String fehler;
+	private boolean geschlossen;
+
+	/**
+	 * Erstellt einen Speicher mit dem Standardbudget im temporären Verzeichnis
+	 * des Systems.
+	 *
+	 * @param anzahlStellen Länge der Markierungen
+	 */
+	public AuslagernderSpeicher(int anzahlStellen) {
+		this(anzahlStellen, STANDARD_BUDGET, null);
+	}
+
+	/**
+	 * Erstellt einen Speicher.
+	 *
+	 * @param anzahlStellen Länge der Markierungen
+	 * @param budget        Bytes, die die Markierungen im Heap belegen dürfen,
+	 *                      bevor ausgelagert wird
+	 * @param basis         Verzeichnis für die Segmente, null für das temporäre
+	 *                      Verzeichnis des Systems
+	 */
+	public AuslagernderSpeicher(int anzahlStellen, long budget, Path basis) {
+		if (budget < 1)
+			throw new IllegalArgumentException("Budget muss positiv sein: " + budget);
+		this.budget = budget;
+		this.basis = basis;
+		this.kodiert = new byte[Kodierung.maximaleLaenge(anzahlStellen)];
+		for (int i = 0; i < PARTITIONEN; i++)
+			partitionen[i] = new Partition();
+	}
+
+	@Override
+	public boolean fuegeHinzu(int[] marken) {
+		int laenge = Kodierung.kodiere(marken, kodiert);
+		long hash = Kodierung.hash(kodiert, 0, laenge);
+		Partition p = partitionen[(int) (hash >>> 60)];
+		if (p.enthaelt(hash, kodiert, laenge))
+			return false;
+		for (Segment s : p.segmente)
+			if (s.enthaelt(hash, kodiert, laenge))
+				return false;
+
+		p.fuegeEin(hash, kodiert, laenge);
+		anzahl++;
+		heissBytes += VERWALTUNG_JE_EINTRAG + laenge;
+		if (heissBytes > budget && !eingeschraenkt)
+			lagereAus(groesstePartition());
+		return true;
+	}
+
+	@Override
+	public long getAnzahl() {
+		return anzahl;
+	}
+
+	@Override
+	public long getAusgelagert() {
+		return ausgelagert;
+	}
+
+	/**
+	 * Gibt die Bytes zurück, die die Markierungen in den Hash-Tabellen und den
+	 * Segmentdateien belegen, einschließlich Hashwerten und Verwaltung.
+	 */
+	@Override
+	public long getBelegteBytes() {
+		long bytes = heissBytes;
+		for (Partition p : partitionen)
+			for (Segment s : p.segmente)
+				bytes += s.getGroesse();
+		return bytes;
+	}
+
+	@Override
+	public double getAuslassungswahrscheinlichkeit() {
+		return 0;
+	}
+
+	@Override
+	public boolean istEingeschraenkt() {
+		return eingeschraenkt;
+	}
+
+	/**
+	 * Gibt die Meldung des Fehlers zurück, der den Speicher eingeschränkt hat.
+	 *
+	 * @return Fehlermeldung oder null
+	 */
+	public String getFehler() {
+		return fehler;
+	}
+
+	/**
+	 * Gibt die Anzahl der Segmentdateien zurück.
+	 *
+	 * @return Anzahl der Segmente
+	 */
+	public int getAnzahlSegmente() {
+		int n = 0;
+		for (Partition p : partitionen)
+			n += p.segmente.size();
+		return n;
+	}
+
+	/**
+	 * Löscht alle Segmente und das Verzeichnis.
+	 */
+	@Override
+	public synchronized void close() {
+		if (geschlossen)
+			return;
+		geschlossen = true;
+		OFFEN.remove(this);
+		for (Partition p : partitionen) {
+			for (Segment s : p.segmente)
+				s.loesche();
+			p.segmente.clear();
+		}
+		if (verzeichnis != null) {
+			try (Stream<Path> reste = Files.walk(verzeichnis)) {
+				reste.sorted(Comparator.reverseOrder()).forEach(datei -> {
+					try {
+						Files.deleteIfExists(datei);
+					} catch (IOException e) {
+						// nichts mehr zu tun
+					}
+				});
+			} catch (IOException e) {
+				// nichts mehr zu tun
+			}
+		}
+	}
+
+	private Partition groesstePartition() {
+		Partition groesste = partitionen[0];
+		for (Partition p : partitionen)
+			if (p.anzahl > groesste.anzahl)
+				groesste = p;
+		return groesste;
+	}
+
+	/**
+	 * Schreibt die Hash-Tabelle einer Partition als neues Segment und leert sie.
+	 * Schlägt das fehl, bleibt die Tabelle erhalten und es wird nicht mehr
+	 * ausgelagert.
+	 */
+	private void lagereAus(Partition p) {
+		Segment.Schreiber schreiber = null;
+		try {
+			schreiber = new Segment.Schreiber(neueDatei(), p.anzahl, p.anfaenge[p.anzahl]);
+			long[] sortiert = Arrays.copyOf(p.hashes, p.anzahl);
+			Arrays.sort(sortiert);
+			for (int i = 0; i < sortiert.length; i++) {
+				// gleiche Hashwerte werden beim ersten Vorkommen gemeinsam
+				// geschrieben
+				if (i > 0 && sortiert[i] == sortiert[i - 1])
+					continue;
+				p.schreibeAlle(sortiert[i], schreiber);
+			}
+			Segment s = schreiber.schliesse();
+			schreiber = null;
+
+			p.segmente.add(s);
+			ausgelagert += p.anzahl;
+			heissBytes -= (long) p.anzahl * VERWALTUNG_JE_EINTRAG + p.anfaenge[p.anzahl];
+			p.leere();
+			verdichte(p);
+		} catch (IOException | RuntimeException e) {
+			if (schreiber != null)
+				schreiber.verwerfe();
+			schraenkeEin(e);
+		}
+	}
+
+	/**
+	 * Führt die beiden jüngsten Segmente zusammen, solange das jüngere nicht
+	 * kleiner als das ältere ist.
+	 */
+	private void verdichte(Partition p) throws IOException {
+		ArrayList<Segment> liste = p.segmente;
+		while (liste.size() >= 2) {
+			Segment juenger = liste.get(liste.size() - 1);
+			Segment aelter = liste.get(liste.size() - 2);
+			long zusammen = Segment.groesse((long) juenger.getAnzahl() + aelter.getAnzahl(),
+					juenger.getDatenBytes() + aelter.getDatenBytes());
+			if (juenger.getAnzahl() < aelter.getAnzahl() || zusammen > Integer.MAX_VALUE)
+				return;
+
+			Segment s = fuehreZusammen(aelter, juenger);
+			liste.remove(liste.size() - 1);
+			liste.set(liste.size() - 1, s);
+			aelter.loesche();
+			juenger.loesche();
+		}
+	}
+
+	private Segment fuehreZusammen(Segment a, Segment b) throws IOException {
+		Segment.Schreiber schreiber = new Segment.Schreiber(neueDatei(), a.getAnzahl() + b.getAnzahl(),
+				a.getDatenBytes() + b.getDatenBytes());
+		try {
+			// der volle Hashwert für den Bloom-Filter wird aus der Kodierung
+			// neu berechnet
+			byte[] puffer = new byte[kodiert.length];
+			int i = 0;
+			int j = 0;
+			while (i < a.getAnzahl() || j < b.getAnzahl()) {
+				Segment quelle;
+				int k;
+				if (j == b.getAnzahl() || (i < a.getAnzahl() && a.getHashOben(i) <= b.getHashOben(j))) {
+					quelle = a;
+					k = i++;
+				} else {
+					quelle = b;
+					k = j++;
+				}
+				int laenge = quelle.getLaenge(k);
+				quelle.lese(k, puffer);
+				schreiber.schreibe(Kodierung.hash(puffer, 0, laenge), puffer, 0, laenge);
+			}
+			return schreiber.schliesse();
+		} catch (IOException | RuntimeException e) {
+			schreiber.verwerfe();
+			throw e;
+		}
+	}
+
+	private Path neueDatei() throws IOException {
+		if (geschlossen)
+			throw new IOException("Speicher ist geschlossen");
+		if (verzeichnis == null) {
+			verzeichnis = basis == null ? Files.createTempDirectory("petrinets-zustaende-")
+					: Files.createTempDirectory(basis, "petrinets-zustaende-");
+			OFFEN.add(this);
+		}
+		return verzeichnis.resolve("segment-" + (naechsteDatei++) + ".bin");
+	}
+
+	private void schraenkeEin(Exception e) {
+		eingeschraenkt = true;
+		fehler = e.getMessage() == null ? e.toString() : e.getMessage();
+	}
+
+	/**
+	 * Eine Partition mit offener Hash-Tabelle für die Markierungen im Heap. Die
+	 * Kodierungen liegen hintereinander in einem Byte-Array, die Tabelle
+	 * verweist auf ihre Nummer plus eins. Die untersten Bits des Hashwerts
+	 * wählen den Platz in der Tabelle.
+	 */
+	private final class Partition {
+
+		private static final int ANFANG = 16;
+
+		final ArrayList<Segment> segmente = new ArrayList<Segment>();
+		long[] hashes;
+		int[] anfaenge;
+		byte[] daten;
+		int[] tabelle;
+		int anzahl;
+
+		Partition() {
+			leere();
+		}
+
+		void leere() {
+			hashes = new long[ANFANG];
+			anfaenge = new int[ANFANG + 1];
+			daten = new byte[ANFANG * kodiert.length];
+			tabelle = new int[2 * ANFANG];
+			anzahl = 0;
+		}
+
+		boolean enthaelt(long hash, byte[] k, int laenge) {
+			int maske = tabelle.length - 1;
+			for (int i = (int) hash & maske;; i = (i + 1) & maske) {
+				int e = tabelle[i] - 1;
+				if (e < 0)
+					return false;
+				if (hashes[e] == hash
+						&& Kodierung.gleich(daten, anfaenge[e], anfaenge[e + 1] - anfaenge[e], k, 0, laenge))
+					return true;
+			}
+		}
+
+		void fuegeEin(long hash, byte[] k, int laenge) {
+			if (anzahl == hashes.length) {
+				hashes = Arrays.copyOf(hashes, 2 * anzahl);
+				anfaenge = Arrays.copyOf(anfaenge, 2 * anzahl + 1);
+				tabelle = new int[4 * anzahl];
+				for (int e = 0; e < anzahl; e++)
+					ordneEin(e);
+			}
+			int ende = anfaenge[anzahl] + laenge;
+			if (ende > daten.length)
+				daten = Arrays.copyOf(daten, Math.max(ende, 2 * daten.length));
+			hashes[anzahl] = hash;
+			System.arraycopy(k, 0, daten, anfaenge[anzahl], laenge);
+			anfaenge[anzahl + 1] = ende;
+			ordneEin(anzahl++);
+		}
+
+		/**
+		 * Schreibt alle Einträge mit dem übergebenen Hashwert.
+		 */
+		void schreibeAlle(long hash, Segment.Schreiber schreiber) throws IOException {
+			int maske = tabelle.length - 1;
+			for (int i = (int) hash & maske; tabelle[i] != 0; i = (i + 1) & maske) {
+				int e = tabelle[i] - 1;
+				if (hashes[e] == hash)
+					schreiber.schreibe(hash, daten, anfaenge[e], anfaenge[e + 1] - anfaenge[e]);
+			}
+		}
+
+		private void ordneEin(int e) {
+			int maske = tabelle.length - 1;
+			int i = (int) hashes[e] & maske;
+			while (tabelle[i] != 0)
+				i = (i + 1) & maske;
+			tabelle[i] = e + 1;
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+package petrinets.model.speicher;
+
+/**
+ * Ein verlustbehafteter Zustandsspeicher nach dem Bitstate-Verfahren von
+ * Holzmann. Jede Markierung setzt k Bits in einem Bitfeld fester Größe, sie
+ * gilt als bekannt, wenn alle ihre Bits schon gesetzt sind. Der Speicherbedarf
+ * hängt daher nicht von der Anzahl der Markierungen ab.
+ *
+ * Eine neue Markierung, deren Bits zufällig schon gesetzt sind, wird
+ * übergangen und mit ihr alle nur über sie erreichbaren Markierungen. Die
+ * Wahrscheinlichkeit dafür wird je eingefügter Markierung aus dem Füllgrad
+ * des Bitfelds geschätzt und aufsummiert. Gefundene Markierungen sind immer
+ * echt erreichbar.
+ */
+public class BitstateSpeicher implements Zustandsspeicher {
+
+	/** Standardanzahl der Bits je Markierung */
+	public static final int STANDARD_HASHES = 3;
+
+	private final long[] bits;
+	private final long anzahlBits;
+	private final int anzahlHashes;
+	private final byte[] kodiert;
+
+	private long anzahl;
+	private long gesetzt;
+	private double erwarteteAuslassungen;
+
+	/**
+	 * Erstellt einen Speicher mit {@value #STANDARD_HASHES} Bits je Markierung.
+	 *
+	 * @param anzahlStellen Länge der Markierungen
+	 * @param budget        Größe des Bitfelds in Bytes
+	 */
+	public BitstateSpeicher(int anzahlStellen, long budget) {
+		this(anzahlStellen, budget, STANDARD_HASHES);
+	}
+
+	/**
+	 * Erstellt einen Speicher.
+	 *
+	 * @param anzahlStellen Länge der Markierungen
+	 * @param budget        Größe des Bitfelds in Bytes
+	 * @param anzahlHashes  Anzahl der Bits je Markierung
+	 */
+	public BitstateSpeicher(int anzahlStellen, long budget, int anzahlHashes) {
+		if (budget < 8 || budget / 8 > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Ungültiges Budget: " + budget);
+		if (anzahlHashes < 1)
+			throw new IllegalArgumentException("Mindestens ein Hash erforderlich: " + anzahlHashes);
+		bits = new long[(int) (budget / 8)];
+		anzahlBits = 64L * bits.length;
+		this.anzahlHashes = anzahlHashes;
+		kodiert = new byte[Kodierung.maximaleLaenge(anzahlStellen)];
+	}
+
+	@Override
+	public boolean fuegeHinzu(int[] marken) {
+		int laenge = Kodierung.kodiere(marken, kodiert);
+		long h1 = Kodierung.hash(kodiert, 0, laenge);
+		long h2 = Kodierung.mische(h1) | 1;
+
+		// Wahrscheinlichkeit, dass eine neue Markierung vor dem Einfügen schon
+		// als bekannt gegolten hätte
+		double belegung = (double) gesetzt / anzahlBits;
+		boolean neu = false;
+		for (int i = 0; i < anzahlHashes; i++) {
+			long bit = Math.floorMod(h1 + i * h2, anzahlBits);
+			int wort = (int) (bit >>> 6);
+			long maske = 1L << bit;
+			if ((bits[wort] & maske) == 0) {
+				bits[wort] |= maske;
+				gesetzt++;
+				neu = true;
+			}
+		}
+		if (neu) {
+			anzahl++;
+			erwarteteAuslassungen += Math.pow(belegung, anzahlHashes);
+		}
+		return neu;
+	}
+
+	@Override
+	public long getAnzahl() {
+		return anzahl;
+	}
+
+	@Override
+	public long getAusgelagert() {
+		return 0;
+	}
+
+	@Override
+	public long getBelegteBytes() {
+		return 8L * bits.length;
+	}
+
+	/**
+	 * Schätzt die Wahrscheinlichkeit, dass mindestens eine Markierung
+	 * übergangen wurde, aus der erwarteten Anzahl übergangener Markierungen.
+	 */
+	@Override
+	public double getAuslassungswahrscheinlichkeit() {
+		return -Math.expm1(-erwarteteAuslassungen);
+	}
+
+	@Override
+	public boolean istEingeschraenkt() {
+		return false;
+	}
+
+	@Override
+	public void close() {
+	}
+
+}
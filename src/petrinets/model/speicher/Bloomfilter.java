@@ -0,0 +1,50 @@
+package petrinets.model.speicher;
+
+/**
+ * Ein Bloom-Filter über 64-Bit-Hashwerte mit etwa einem Prozent falsch
+ * positiver Antworten. Die Indizes werden durch doppeltes Hashing aus den
+ * beiden Hälften des Hashwerts gebildet.
+ */
+final class Bloomfilter {
+
+	private static final int BITS_JE_EINTRAG = 10;
+	private static final int ANZAHL_HASHES = 7;
+
+	private final long[] bits;
+	private final long anzahlBits;
+
+	/**
+	 * Erstellt einen leeren Filter für die übergebene Anzahl an Einträgen.
+	 *
+	 * @param eintraege erwartete Anzahl an Einträgen
+	 */
+	Bloomfilter(long eintraege) {
+		int woerter = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (eintraege * BITS_JE_EINTRAG + 63) / 64));
+		bits = new long[woerter];
+		anzahlBits = 64L * woerter;
+	}
+
+	void fuegeHinzu(long hash) {
+		long h1 = hash & 0xFFFFFFFFL;
+		long h2 = (hash >>> 32) | 1;
+		for (int i = 0; i < ANZAHL_HASHES; i++) {
+			long bit = (h1 + i * h2) % anzahlBits;
+			bits[(int) (bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * Gibt false zurück, wenn der Hashwert sicher nicht eingefügt wurde.
+	 */
+	boolean vielleicht(long hash) {
+		long h1 = hash & 0xFFFFFFFFL;
+		long h2 = (hash >>> 32) | 1;
+		for (int i = 0; i < ANZAHL_HASHES; i++) {
+			long bit = (h1 + i * h2) % anzahlBits;
+			if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+}
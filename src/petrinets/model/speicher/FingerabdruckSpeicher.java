@@ -0,0 +1,114 @@
+package petrinets.model.speicher;
+
+/**
+ * Ein verlustbehafteter Zustandsspeicher mit Hash-Kompaktierung. Von jeder
+ * Markierung wird nur ein 64-Bit-Fingerabdruck in einer offenen Hash-Tabelle
+ * fester Größe gehalten. Zwei Markierungen mit gleichem Fingerabdruck gelten
+ * als gleich, die zweite wird übergangen. Die Wahrscheinlichkeit dafür ist
+ * nach dem Geburtstagsproblem etwa n²/2^65 bei n Markierungen.
+ *
+ * Ist die Tabelle zu drei Vierteln gefüllt, werden keine weiteren
+ * Markierungen aufgenommen. Sie gelten dann als bekannt, die Suche bricht an
+ * ihnen ab und der Speicher arbeitet eingeschränkt.
+ */
+public class FingerabdruckSpeicher implements Zustandsspeicher {
+
+	private static final double ZWEI_HOCH_64 = 18446744073709551616.0;
+
+	private final long[] tabelle;
+	private final int maske;
+	private final int hoechstens;
+	private final byte[] kodiert;
+
+	private int anzahl;
+	private long verworfen;
+	private double erwarteteAuslassungen;
+
+	/**
+	 * Erstellt einen Speicher.
+	 *
+	 * @param anzahlStellen Länge der Markierungen
+	 * @param budget        Größe der Tabelle in Bytes, abgerundet auf eine
+	 *                      Zweierpotenz
+	 */
+	public FingerabdruckSpeicher(int anzahlStellen, long budget) {
+		if (budget < 128)
+			throw new IllegalArgumentException("Ungültiges Budget: " + budget);
+		int plaetze = (int) Long.highestOneBit(Math.min(budget / 8, 1 << 30));
+		tabelle = new long[plaetze];
+		maske = plaetze - 1;
+		hoechstens = plaetze / 4 * 3;
+		kodiert = new byte[Kodierung.maximaleLaenge(anzahlStellen)];
+	}
+
+	@Override
+	public boolean fuegeHinzu(int[] marken) {
+		int laenge = Kodierung.kodiere(marken, kodiert);
+		// 0 markiert freie Plätze
+		long f = Kodierung.hash(kodiert, 0, laenge);
+		if (f == 0)
+			f = 1;
+
+		int i = (int) f & maske;
+		while (tabelle[i] != 0) {
+			if (tabelle[i] == f)
+				return false;
+			i = (i + 1) & maske;
+		}
+		if (anzahl == hoechstens) {
+			verworfen++;
+			return false;
+		}
+		erwarteteAuslassungen += anzahl / ZWEI_HOCH_64;
+		tabelle[i] = f;
+		anzahl++;
+		return true;
+	}
+
+	@Override
+	public long getAnzahl() {
+		return anzahl;
+	}
+
+	@Override
+	public long getAusgelagert() {
+		return 0;
+	}
+
+	@Override
+	public long getBelegteBytes() {
+		return 8L * tabelle.length;
+	}
+
+	/**
+	 * Schätzt die Wahrscheinlichkeit, dass mindestens eine Markierung wegen
+	 * eines gleichen Fingerabdrucks übergangen wurde. Mussten Markierungen
+	 * verworfen werden, ist sie 1.
+	 */
+	@Override
+	public double getAuslassungswahrscheinlichkeit() {
+		if (verworfen > 0)
+			return 1;
+		return -Math.expm1(-erwarteteAuslassungen);
+	}
+
+	/**
+	 * Gibt die Anzahl der neuen Markierungen zurück, die wegen einer vollen
+	 * Tabelle verworfen wurden.
+	 *
+	 * @return Anzahl der verworfenen Markierungen
+	 */
+	public long getVerworfen() {
+		return verworfen;
+	}
+
+	@Override
+	public boolean istEingeschraenkt() {
+		return verworfen > 0;
+	}
+
+	@Override
+	public void close() {
+	}
+
+}
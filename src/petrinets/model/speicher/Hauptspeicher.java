@@ -0,0 +1,67 @@
+package petrinets.model.speicher;
+
+import java.util.HashSet;
+
+import petrinets.model.eg.Markierung;
+
+/**
+ * Ein Zustandsspeicher, der alle Markierungen in einer Hash-Menge im Heap
+ * hält. Er ist schnell, aber durch den Heap begrenzt.
+ */
+public class Hauptspeicher implements Zustandsspeicher {
+
+	// geschätzte Bytes je Markierung ohne Marken: Eintrag und Platz der
+	// Hash-Tabelle, Markierung und Kopf des Arrays
+	private static final int VERWALTUNG_JE_EINTRAG = 32 + 8 + 24 + 16;
+
+	private final int anzahlStellen;
+	private HashSet<Markierung> markierungen = new HashSet<Markierung>();
+
+	/**
+	 * Erstellt einen leeren Speicher.
+	 *
+	 * @param anzahlStellen Länge der Markierungen
+	 */
+	public Hauptspeicher(int anzahlStellen) {
+		this.anzahlStellen = anzahlStellen;
+	}
+
+	@Override
+	public boolean fuegeHinzu(int[] marken) {
+		return markierungen.add(new Markierung(marken));
+	}
+
+	@Override
+	public long getAnzahl() {
+		return markierungen.size();
+	}
+
+	@Override
+	public long getAusgelagert() {
+		return 0;
+	}
+
+	/**
+	 * Gibt eine Schätzung der im Heap belegten Bytes zurück.
+	 */
+	@Override
+	public long getBelegteBytes() {
+		return markierungen.size() * (VERWALTUNG_JE_EINTRAG + 4L * anzahlStellen);
+	}
+
+	@Override
+	public double getAuslassungswahrscheinlichkeit() {
+		return 0;
+	}
+
+	@Override
+	public boolean istEingeschraenkt() {
+		return false;
+	}
+
+	@Override
+	public void close() {
+		markierungen = null;
+	}
+
+}
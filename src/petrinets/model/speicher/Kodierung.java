@@ -0,0 +1,115 @@
+package petrinets.model.speicher;
+
+/**
+ * Kodiert Markierungen kompakt als Bytefolge. Das erste Byte gibt das Format
+ * an, das sich allein aus der größten Markenzahl ergibt:
+ *
+ * Tragen alle Stellen höchstens 3 Marken, werden je Stelle 2 Bit genutzt, bei
+ * höchstens 15 Marken 4 Bit. Sonst wird jede Markenzahl als Varint in
+ * Gruppen zu 7 Bit geschrieben, das oberste Bit zeigt an, dass eine weitere
+ * Gruppe folgt.
+ *
+ * Die Kodierung ist eindeutig, zwei Markierungen sind daher genau dann gleich,
+ * wenn ihre Bytefolgen gleich sind. Hashwert und Vergleich arbeiten direkt auf
+ * den Bytes.
+ */
+final class Kodierung {
+
+	private static final byte ZWEI_BIT = 0;
+	private static final byte VIER_BIT = 1;
+	private static final byte VARINT = 2;
+
+	private Kodierung() {
+	}
+
+	/**
+	 * Gibt die größtmögliche Länge der Kodierung einer Markierung zurück.
+	 *
+	 * @param anzahlStellen Anzahl der Stellen
+	 * @return Länge in Bytes
+	 */
+	static int maximaleLaenge(int anzahlStellen) {
+		return 1 + 5 * anzahlStellen;
+	}
+
+	/**
+	 * Kodiert die Marken in das übergebene Array.
+	 *
+	 * @param marken nicht negative Marken der Stellen
+	 * @param ziel   Array mit mindestens {@link #maximaleLaenge(int)} Bytes
+	 * @return Länge der Kodierung
+	 */
+	static int kodiere(int[] marken, byte[] ziel) {
+		int oder = 0;
+		for (int m : marken)
+			oder |= m;
+
+		if (oder < 4)
+			return packe(marken, ziel, ZWEI_BIT, 2);
+		if (oder < 16)
+			return packe(marken, ziel, VIER_BIT, 4);
+
+		ziel[0] = VARINT;
+		int laenge = 1;
+		for (int m : marken) {
+			while ((m & ~0x7F) != 0) {
+				ziel[laenge++] = (byte) (m | 0x80);
+				m >>>= 7;
+			}
+			ziel[laenge++] = (byte) m;
+		}
+		return laenge;
+	}
+
+	private static int packe(int[] marken, byte[] ziel, byte format, int bits) {
+		int jeByte = 8 / bits;
+		int laenge = 1 + (marken.length + jeByte - 1) / jeByte;
+		ziel[0] = format;
+		for (int i = 1; i < laenge; i++)
+			ziel[i] = 0;
+		for (int s = 0; s < marken.length; s++)
+			ziel[1 + s / jeByte] |= marken[s] << (bits * (s % jeByte));
+		return laenge;
+	}
+
+	/**
+	 * Bildet eine Kodierung auf 64 Bit ab.
+	 *
+	 * @param kodiert Array mit der Kodierung
+	 * @param von     Anfang der Kodierung
+	 * @param laenge  Länge der Kodierung
+	 * @return Hashwert
+	 */
+	static long hash(byte[] kodiert, int von, int laenge) {
+		long h = 0xCBF29CE484222325L ^ laenge;
+		for (int i = von; i < von + laenge; i++)
+			h = (h ^ (kodiert[i] & 0xFF)) * 0x100000001B3L;
+		return mische(h);
+	}
+
+	/**
+	 * Verteilt die Bits eines Werts umkehrbar auf alle 64 Bit. Aus einem
+	 * Hashwert lässt sich so ein zweiter, davon unabhängig wirkender bilden.
+	 *
+	 * @param h Wert
+	 * @return gemischter Wert
+	 */
+	static long mische(long h) {
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
+	/**
+	 * Vergleicht zwei Kodierungen.
+	 */
+	static boolean gleich(byte[] a, int vonA, int laengeA, byte[] b, int vonB, int laengeB) {
+		if (laengeA != laengeB)
+			return false;
+		for (int i = 0; i < laengeA; i++)
+			if (a[vonA + i] != b[vonB + i])
+				return false;
+		return true;
+	}
+
+}
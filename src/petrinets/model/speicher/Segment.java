@@ -0,0 +1,235 @@
+package petrinets.model.speicher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Ein unveränderlicher, auf die Platte ausgelagerter Lauf von Markierungen in
+ * der {@link Kodierung}. Die Datei beginnt mit einem Kopf, darauf folgen die
+ * oberen 32 Bit der aufsteigend sortierten Hashwerte, die Anfänge der
+ * Kodierungen und die Kodierungen selbst in derselben Reihenfolge. Sie wird
+ * vollständig in den Speicher abgebildet, nach einer Markierung wird binär
+ * über die Hashwerte gesucht. Ein Bloom-Filter über die vollen Hashwerte im
+ * Heap erspart die meisten Zugriffe auf Markierungen, die nicht im Segment
+ * liegen.
+ */
+final class Segment {
+
+	// "PNZS"
+	private static final int KENNUNG = 0x504E5A53;
+	private static final int KOPF = 16;
+
+	private final Path datei;
+	private final MappedByteBuffer puffer;
+	private final Bloomfilter filter;
+	private final int anzahl;
+	private final int anfaengeAnfang;
+	private final int datenAnfang;
+	private final long groesse;
+
+	private Segment(Path datei, MappedByteBuffer puffer, Bloomfilter filter, int anzahl, long groesse) {
+		this.datei = datei;
+		this.puffer = puffer;
+		this.filter = filter;
+		this.anzahl = anzahl;
+		this.anfaengeAnfang = KOPF + 4 * anzahl;
+		this.datenAnfang = anfaengeAnfang + 4 * (anzahl + 1);
+		this.groesse = groesse;
+	}
+
+	/**
+	 * Gibt die Dateigröße eines Segments mit der übergebenen Anzahl an
+	 * Markierungen und Bytes an Kodierungen zurück.
+	 */
+	static long groesse(long anzahl, long datenBytes) {
+		return KOPF + 8 * anzahl + 4 + datenBytes;
+	}
+
+	int getAnzahl() {
+		return anzahl;
+	}
+
+	long getGroesse() {
+		return groesse;
+	}
+
+	long getDatenBytes() {
+		return anfang(anzahl);
+	}
+
+	int getHashOben(int i) {
+		return puffer.getInt(KOPF + 4 * i);
+	}
+
+	int getLaenge(int i) {
+		return anfang(i + 1) - anfang(i);
+	}
+
+	/**
+	 * Kopiert die Kodierung der i-ten Markierung in das übergebene Array.
+	 */
+	void lese(int i, byte[] ziel) {
+		int von = datenAnfang + anfang(i);
+		int laenge = getLaenge(i);
+		for (int j = 0; j < laenge; j++)
+			ziel[j] = puffer.get(von + j);
+	}
+
+	/**
+	 * Prüft, ob die Markierung mit dem übergebenen Hashwert im Segment liegt.
+	 */
+	boolean enthaelt(long hash, byte[] kodiert, int laenge) {
+		if (!filter.vielleicht(hash))
+			return false;
+
+		// ersten Eintrag mit diesen oberen 32 Bit suchen
+		int oben = (int) (hash >>> 32);
+		int links = 0;
+		int rechts = anzahl;
+		while (links < rechts) {
+			int mitte = (links + rechts) >>> 1;
+			if (getHashOben(mitte) < oben)
+				links = mitte + 1;
+			else
+				rechts = mitte;
+		}
+		for (int i = links; i < anzahl && getHashOben(i) == oben; i++)
+			if (gleich(i, kodiert, laenge))
+				return true;
+		return false;
+	}
+
+	private int anfang(int i) {
+		return puffer.getInt(anfaengeAnfang + 4 * i);
+	}
+
+	private boolean gleich(int i, byte[] kodiert, int laenge) {
+		if (getLaenge(i) != laenge)
+			return false;
+		int von = datenAnfang + anfang(i);
+		for (int j = 0; j < laenge; j++)
+			if (puffer.get(von + j) != kodiert[j])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Löscht die Datei des Segments. Die Abbildung wird vom Garbage Collector
+	 * freigegeben, sobald keine Referenz mehr auf das Segment besteht.
+	 */
+	void loesche() {
+		try {
+			Files.deleteIfExists(datei);
+		} catch (IOException e) {
+			// wird beim Schließen des Verzeichnisses erneut versucht
+		}
+	}
+
+	/**
+	 * Schreibt ein neues Segment. Die Markierungen müssen aufsteigend nach den
+	 * oberen 32 Bit ihres Hashwerts übergeben werden, ihre Anzahl und die Summe
+	 * der Längen ihrer Kodierungen stehen vorher fest.
+	 */
+	static final class Schreiber {
+
+		private static final int PUFFERGROESSE = 1 << 16;
+
+		private final Path datei;
+		private final FileChannel kanal;
+		private final Bloomfilter filter;
+		private final int anzahl;
+		private final long datenBytes;
+		private final ByteBuffer hashes = ByteBuffer.allocateDirect(PUFFERGROESSE);
+		private final ByteBuffer anfaenge = ByteBuffer.allocateDirect(PUFFERGROESSE);
+		private final ByteBuffer daten = ByteBuffer.allocateDirect(PUFFERGROESSE);
+		private long hashPosition = KOPF;
+		private long anfaengePosition;
+		private long datenPosition;
+		private int geschrieben;
+		private int datenGeschrieben;
+
+		Schreiber(Path datei, int anzahl, long datenBytes) throws IOException {
+			if (groesse(anzahl, datenBytes) > Integer.MAX_VALUE)
+				throw new IOException("Segment zu groß: " + anzahl + " Markierungen");
+			this.datei = datei;
+			this.anzahl = anzahl;
+			this.datenBytes = datenBytes;
+			this.filter = new Bloomfilter(anzahl);
+			this.anfaengePosition = KOPF + 4L * anzahl;
+			this.datenPosition = anfaengePosition + 4L * (anzahl + 1);
+			kanal = FileChannel.open(datei, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+		}
+
+		void schreibe(long hash, byte[] quelle, int von, int laenge) throws IOException {
+			if (hashes.remaining() < 4)
+				hashPosition = leere(hashes, hashPosition);
+			hashes.putInt((int) (hash >>> 32));
+			if (anfaenge.remaining() < 4)
+				anfaengePosition = leere(anfaenge, anfaengePosition);
+			anfaenge.putInt(datenGeschrieben);
+
+			for (int i = 0; i < laenge;) {
+				if (!daten.hasRemaining())
+					datenPosition = leere(daten, datenPosition);
+				int n = Math.min(laenge - i, daten.remaining());
+				daten.put(quelle, von + i, n);
+				i += n;
+			}
+			datenGeschrieben += laenge;
+			filter.fuegeHinzu(hash);
+			geschrieben++;
+		}
+
+		/**
+		 * Schreibt den Kopf, bildet die Datei in den Speicher ab und gibt das
+		 * fertige Segment zurück.
+		 */
+		Segment schliesse() throws IOException {
+			try {
+				if (geschrieben != anzahl || datenGeschrieben != datenBytes)
+					throw new IllegalStateException(geschrieben + " von " + anzahl + " Markierungen geschrieben");
+				if (anfaenge.remaining() < 4)
+					anfaengePosition = leere(anfaenge, anfaengePosition);
+				anfaenge.putInt(datenGeschrieben);
+				leere(hashes, hashPosition);
+				leere(anfaenge, anfaengePosition);
+				leere(daten, datenPosition);
+				ByteBuffer kopf = ByteBuffer.allocate(KOPF);
+				kopf.putInt(KENNUNG).putInt(anzahl).putInt(datenGeschrieben).putInt(0);
+				leere(kopf, 0);
+				long groesse = groesse(anzahl, datenBytes);
+				MappedByteBuffer puffer = kanal.map(FileChannel.MapMode.READ_ONLY, 0, groesse);
+				return new Segment(datei, puffer, filter, anzahl, groesse);
+			} finally {
+				kanal.close();
+			}
+		}
+
+		/**
+		 * Bricht das Schreiben ab und löscht die unvollständige Datei.
+		 */
+		void verwerfe() {
+			try {
+				kanal.close();
+				Files.deleteIfExists(datei);
+			} catch (IOException e) {
+				// wird beim Schließen des Verzeichnisses erneut versucht
+			}
+		}
+
+		private long leere(ByteBuffer puffer, long position) throws IOException {
+			puffer.flip();
+			while (puffer.hasRemaining())
+				position += kanal.write(puffer, position);
+			puffer.clear();
+			return position;
+		}
+	}
+
+}
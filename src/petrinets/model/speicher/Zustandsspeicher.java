@@ -0,0 +1,74 @@
+package petrinets.model.speicher;
+
+/**
+ * Ein Zustandsspeicher merkt sich die bereits besuchten Markierungen einer
+ * Zustandsraumsuche. Markierungen werden als int-Array mit fester Länge, der
+ * Anzahl der Stellen, übergeben und beim Einfügen kopiert.
+ *
+ * Ein Speicher gehört zu genau einer Suche und wird mit {@link #close()}
+ * freigegeben. Implementierungen sind nicht threadsicher.
+ *
+ * Verlustbehaftete Speicher können eine neue Markierung irrtümlich als bekannt
+ * melden. Die Suche übergeht sie dann, wie wahrscheinlich das ist, gibt
+ * {@link #getAuslassungswahrscheinlichkeit()} an.
+ */
+public interface Zustandsspeicher extends AutoCloseable {
+
+	/**
+	 * Fügt eine Markierung ein, wenn sie noch nicht enthalten ist.
+	 *
+	 * @param marken Marken der Stellen
+	 * @return true, wenn die Markierung neu ist, sonst false
+	 */
+	boolean fuegeHinzu(int[] marken);
+
+	/**
+	 * Gibt die Anzahl der gespeicherten Markierungen zurück.
+	 *
+	 * @return Anzahl der Markierungen
+	 */
+	long getAnzahl();
+
+	/**
+	 * Gibt die Anzahl der Markierungen zurück, die nicht mehr im Heap, sondern
+	 * auf der Platte liegen.
+	 *
+	 * @return Anzahl der ausgelagerten Markierungen
+	 */
+	long getAusgelagert();
+
+	/**
+	 * Gibt die Bytes zurück, die die gespeicherten Markierungen im Heap und auf
+	 * der Platte belegen.
+	 *
+	 * @return belegte Bytes
+	 */
+	long getBelegteBytes();
+
+	/**
+	 * Gibt die geschätzte Wahrscheinlichkeit zurück, dass mindestens eine neue
+	 * Markierung irrtümlich als bekannt gemeldet wurde. Verlustfreie Speicher
+	 * geben 0 zurück.
+	 *
+	 * @return Wahrscheinlichkeit zwischen 0 und 1
+	 */
+	double getAuslassungswahrscheinlichkeit();
+
+	/**
+	 * Gibt zurück, ob der Speicher nur noch eingeschränkt arbeitet, zum
+	 * Beispiel weil nicht mehr ausgelagert werden konnte oder sein Budget
+	 * erschöpft ist. Ob dabei Markierungen verloren gingen, zeigt
+	 * {@link #getAuslassungswahrscheinlichkeit()}.
+	 *
+	 * @return true, wenn der Speicher eingeschränkt arbeitet
+	 */
+	boolean istEingeschraenkt();
+
+	/**
+	 * Gibt alle belegten Ressourcen frei. Danach darf der Speicher nicht mehr
+	 * benutzt werden.
+	 */
+	@Override
+	void close();
+
+}
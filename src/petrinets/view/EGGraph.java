@@ -1,20 +1,51 @@
 package petrinets.view;
 
-import java.util.Observable;
-import java.util.Observer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 
 import org.graphstream.graph.Edge;
 import org.graphstream.graph.Node;
 import org.graphstream.graph.implementations.MultiGraph;
 
+import petrinets.model.eg.EGAenderung;
+import petrinets.model.eg.EGGruppierung;
 import petrinets.model.eg.Erreichbarkeitsgraph;
+import petrinets.model.eg.Markierung;
+import petrinets.model.eg.Uebergang;
+import petrinets.model.ereignis.Beobachter;
 
 /**
  * Die Klasse EGGraph repräsentiert die Visualisierung des
  * Erreichbarkeitsgraphen mittels der GraphStream-Bibliothek.
- * Als Observer holt sie sich ihre Daten direkt aus dem {@link Erreichbarkeitsgraph}
+ * Als Beobachter erhält sie die Änderungen des {@link Erreichbarkeitsgraph} als
+ * {@link EGAenderung} und zieht nur diese nach, der Aufbau eines großen EG
+ * kostet daher Zeit linear in seiner Größe.
+ * 
+ * Erst hier werden die Markierungen in ihre String-Darstellung gebracht, die
+ * als ID und Label der Knoten dient. Die Markierung selbst hängt als Attribut
+ * "markierung" am Knoten.
+ * 
+ * Hat der EG mehr als {@value #SCHWELLE} Knoten, wird er über eine
+ * {@link EGGruppierung} zusammengefasst angezeigt: jede Gruppe als ein
+ * Gruppenknoten mit dem Attribut "gruppe", zwischen den Gruppen eine Kante mit
+ * der Anzahl der Übergänge. Nur aufgeklappte Gruppen werden mit ihren Knoten
+ * in den Graphen übernommen, der Rest des EG bleibt außerhalb von GraphStream.
+ * Spätere Änderungen werden in die bestehende Gruppierung eingetragen, dabei
+ * werden nur die betroffenen Gruppenknoten und Kanten geändert. Neu gruppiert
+ * wird erst beim Neuaufbau oder beim Wechsel der Gruppierungsart.
+ * 
+ * Ist ein {@link EGSchichtenlayout} gesetzt, erhalten die Knoten dessen
+ * Koordinaten als Attribut "xy", Gruppenknoten den Mittelpunkt ihrer Knoten.
+ * Neue Knoten werden eine Schicht unter ihrem Vorgänger eingefügt, bis das
+ * Layout neu berechnet wird. Wird der EG geleert oder ausgetauscht, verfällt
+ * das Layout.
  */
-public class EGGraph extends MultiGraph implements Observer {
+public class EGGraph extends MultiGraph implements Beobachter<Erreichbarkeitsgraph, EGAenderung> {
 
 	// URL-Angabe zur css-Datei, in der das Layout des Graphen angegeben ist.
 	private static String CSS_FILE = "url(" + EGGraph.class.getResource("/eggraph.css") + ")";
@@ -22,6 +53,21 @@ public class EGGraph extends MultiGraph implements Observer {
 	private Edge letzterUebergang;
 	private Node letzterKnoten;
 
+	/** Anzahl der Knoten, ab der der EG zusammengefasst angezeigt wird */
+	public static final int SCHWELLE = 2000;
+
+	private Erreichbarkeitsgraph eg;
+	private EGGruppierung.Art gruppierungsArt = EGGruppierung.Art.TIEFE;
+	// aktuelle Gruppierung, null wenn alle Knoten angezeigt werden
+	private EGGruppierung gruppierung;
+	// je aufgeklappter Gruppe eine ihrer Markierungen, so bleibt die Gruppe
+	// auch bei einer neuen Gruppierung aufgeklappt
+	private HashSet<Markierung> aufgeklappt = new HashSet<Markierung>();
+	// aufgeklappte Gruppen der aktuellen Darstellung
+	private BitSet offen = new BitSet();
+	// berechnetes Layout, null solange das AutoLayout die Knoten anordnet
+	private EGSchichtenlayout layout;
+
 	/**
 	 * Der Konstruktor erstellt einen leeren Multigraphen und setzt den
 	 * zugehörigen Petrinetz-Graphen
@@ -60,15 +106,16 @@ public class EGGraph extends MultiGraph implements Observer {
 	 * @param folge Markierung nach der Schaltung
 	 * @param trans ID der schaltenden Transition
 	 */
-	public void markiereAktuellenUebergang(String aktuell, String folge, String trans) {
+	public void markiereAktuellenUebergang(Markierung aktuell, Markierung folge, String trans) {
 		
-		Edge e = this.getEdge(aktuell + trans + folge);
+		zeige(Arrays.asList(aktuell, folge));
+		Edge e = this.getEdge(aktuell.toString() + trans + folge.toString());
 		if (letzterUebergang != null)
 			letzterUebergang.removeAttribute("ui.class");
 		e.addAttribute("ui.class", "aktuell");
 		letzterUebergang = e;
 
-		Node nach = this.getNode(folge);
+		Node nach = this.getNode(folge.toString());
 		if (letzterKnoten != null) {
 			letzterKnoten.removeAttribute("ui.class");
 			if(letzterKnoten.hasAttribute("anfangsknoten"))
@@ -87,12 +134,13 @@ public class EGGraph extends MultiGraph implements Observer {
 	 * des Übergangs
 	 * @param knoten Markierung auf die das Petrinetz zurück gesetzt wurde
 	 */
-	public void markiereKnoten(String knoten) {
+	public void markiereKnoten(Markierung knoten) {
 		
+		zeige(Collections.singletonList(knoten));
 		if (letzterUebergang != null)
 			letzterUebergang.removeAttribute("ui.class");
 		
-		Node n = this.getNode(knoten);
+		Node n = this.getNode(knoten.toString());
 		if (letzterKnoten != null) {
 			letzterKnoten.removeAttribute("ui.class");
 			if(letzterKnoten.hasAttribute("anfangsknoten"))
@@ -110,10 +158,12 @@ public class EGGraph extends MultiGraph implements Observer {
 	 * um als solcher speziell visualisiert werden zu können
 	 * @param anfangsmarkierung ID des Knotens der als Anfangsmarkierung gekennzeichnet werden soll
 	 */
-	private void erstelleAnfangsknoten(String anfangsmarkierung) {
-		if (this.getNode(anfangsmarkierung) == null) {
-			Node n = this.addNode(anfangsmarkierung);
-			n.addAttribute("ui.label", anfangsmarkierung);
+	private void erstelleAnfangsknoten(Markierung anfangsmarkierung) {
+		String id = anfangsmarkierung.toString();
+		if (this.getNode(id) == null) {
+			Node n = this.addNode(id);
+			n.addAttribute("ui.label", id);
+			n.addAttribute("markierung", anfangsmarkierung);
 			n.addAttribute("anfangsknoten", true);
 			n.addAttribute("ui.class", "anfangsknoten");
 			n.setAttribute("layout.weight", 20);
@@ -124,10 +174,12 @@ public class EGGraph extends MultiGraph implements Observer {
 	 * Erstellt einen neuen Knoten mit der übergebenen Markierung als Label
 	 * @param markierung Markierung zu der ein EGGraph-Knoten erstellt werden soll
 	 */
-	private void erstelleKnoten(String markierung) {
-		if (this.getNode(markierung) == null) {
-			Node n = this.addNode(markierung);
-			n.addAttribute("ui.label", markierung);
+	private void erstelleKnoten(Markierung markierung) {
+		String id = markierung.toString();
+		if (this.getNode(id) == null) {
+			Node n = this.addNode(id);
+			n.addAttribute("ui.label", id);
+			n.addAttribute("markierung", markierung);
 			n.setAttribute("layout.weight", 20);
 		}
 	}
@@ -148,33 +200,330 @@ public class EGGraph extends MultiGraph implements Observer {
 		}
 	}
 
+	/**
+	 * Erstellt einen neuen Übergang zum Übergang des EG, wenn dieser nicht
+	 * bereits existiert. Das Label ist das der Transition im Petrinetz-Graphen.
+	 * 
+	 * @param u Übergang des EG
+	 */
+	private void erstelleUebergang(Uebergang u) {
+		String vor = u.getVorgaengerMarkierung().toString();
+		String nach = u.getFolgemarkierung().toString();
+		String transition = u.getTransition();
+		String label = pnGraph.getNode(transition).getAttribute("ui.label");
+		erstelleUebergang(vor + transition + nach, vor, nach, label);
+	}
+
+	/**
+	 * Erstellt den Gruppenknoten einer zugeklappten Gruppe.
+	 * 
+	 * @param g Nummer der Gruppe
+	 */
+	private void erstelleGruppe(int g) {
+		Node n = this.addNode(gruppenID(g));
+		n.addAttribute("gruppe", g);
+		n.addAttribute("ui.class", g == 0 ? "anfangsgruppe" : "gruppe");
+		n.setAttribute("layout.weight", 20);
+		beschrifteGruppe(g);
+	}
+
+	/**
+	 * Beschriftet den Gruppenknoten mit der Anzahl der Knoten der Gruppe.
+	 * 
+	 * @param g Nummer der Gruppe
+	 */
+	private void beschrifteGruppe(int g) {
+		String name = gruppierung.getArt() == EGGruppierung.Art.TIEFE ? "Tiefe " : "Komponente ";
+		this.getNode(gruppenID(g)).addAttribute("ui.label",
+				name + g + ": " + gruppierung.getKnoten(g).size() + " Zustände");
+	}
+
+	/**
+	 * Erhöht die Anzahl der Übergänge auf einer Kante, die mindestens an einem
+	 * Gruppenknoten hängt, und legt die Kante bei Bedarf an. Die Anzahl steht im
+	 * Attribut "anzahl" und im Label.
+	 * 
+	 * @param von    ID des Vorgängers
+	 * @param nach   ID des Nachfolgers
+	 * @param anzahl Anzahl der hinzukommenden Übergänge
+	 */
+	private void zaehleUebergang(String von, String nach, int anzahl) {
+		String key = von + "-" + nach;
+		Edge e = this.getEdge(key);
+		if (e == null) {
+			e = this.addEdge(key, von, nach, true);
+			e.setAttribute("layout.weight", 2);
+		} else {
+			int bisher = e.getAttribute("anzahl");
+			anzahl += bisher;
+		}
+		e.addAttribute("anzahl", anzahl);
+		e.addAttribute("ui.label", String.valueOf(anzahl));
+	}
+
+	private static String gruppenID(int g) {
+		return "G" + g;
+	}
+
 	@Override
-	public void update(Observable o, Object arg) {
-		
-		Erreichbarkeitsgraph eg = (Erreichbarkeitsgraph) o;
-		
-		// Bei Bedarf vorhandenen Graphen löschen
-		if(arg != null)
-			if (arg.equals("clear"))
-				clearEG();
-		
-		// Anfangsknoten hervorherben
-		if (eg.getAlleKnoten().size() == 1)
+	public void aktualisiere(Erreichbarkeitsgraph eg, EGAenderung aenderung) {
+		this.eg = eg;
+		if (aenderung.istNeuaufbau()) {
+			// vorhandenen Graphen löschen und aus dem EG neu aufbauen
+			aufgeklappt.clear();
+			layout = null;
+			baueAuf(true);
+		} else if (gruppierung != null) {
+			ergaenzeLayout(aenderung);
+			ergaenzeGruppiert(aenderung);
+		} else if (eg.getAnzahlKnoten() > SCHWELLE) {
+			// Schwelle überschritten: einmalig zusammengefasst aufbauen
+			ergaenzeLayout(aenderung);
+			baueAuf(true);
+		} else {
+			ergaenzeLayout(aenderung);
+			for (Markierung m : aenderung.getKnoten()) {
+				erstelleKnoten(m);
+				platziere(this.getNode(m.toString()));
+			}
+			for (Uebergang u : aenderung.getUebergaenge())
+				erstelleUebergang(u);
+		}
+	}
+
+	/**
+	 * Trägt neue Knoten und Übergänge in die bestehende Gruppierung ein und
+	 * ändert nur die betroffenen Knoten und Kanten, der Aufwand hängt so nur von
+	 * der Größe der Änderung ab. Ein neuer Knoten landet in einer aufgeklappten
+	 * Gruppe als eigener Knoten, sonst erhöht er die Anzahl am Gruppenknoten.
+	 * 
+	 * @param aenderung Änderung des EG
+	 */
+	private void ergaenzeGruppiert(EGAenderung aenderung) {
+		for (Uebergang u : aenderung.getUebergaenge()) {
+			Markierung vor = u.getVorgaengerMarkierung();
+			Markierung nach = u.getFolgemarkierung();
+			int von = gruppierung.getGruppe(vor);
+			if (von < 0) {
+				// Vorgänger unbekannt, die Gruppierung passt nicht mehr zum EG
+				baueAuf(true);
+				return;
+			}
+			int zu = gruppierung.getGruppe(nach);
+			if (zu < 0) {
+				zu = gruppierung.ergaenze(nach, vor);
+				if (offen.get(zu)) {
+					erstelleKnoten(nach);
+					platziere(this.getNode(nach.toString()));
+				} else if (this.getNode(gruppenID(zu)) == null) {
+					erstelleGruppe(zu);
+					platziere(this.getNode(gruppenID(zu)));
+				} else
+					beschrifteGruppe(zu);
+			}
+			gruppierung.ergaenzeUebergang(von, zu);
+
+			if (offen.get(von) && offen.get(zu))
+				erstelleUebergang(u);
+			else if (von != zu)
+				zaehleUebergang(offen.get(von) ? vor.toString() : gruppenID(von),
+						offen.get(zu) ? nach.toString() : gruppenID(zu), 1);
+		}
+	}
+
+	/**
+	 * Setzt neue Knoten eine Schicht unter ihren ersten Vorgänger, der bereits
+	 * Koordinaten hat, und dort rechts neben ihn.
+	 */
+	private void ergaenzeLayout(EGAenderung aenderung) {
+		if (layout == null)
+			return;
+		for (Uebergang u : aenderung.getUebergaenge()) {
+			Markierung nach = u.getFolgemarkierung();
+			double[] vor = layout.getKoordinaten(u.getVorgaengerMarkierung());
+			if (vor != null && layout.getKoordinaten(nach) == null)
+				layout.setKoordinaten(nach, new double[] { vor[0] + EGSchichtenlayout.ABSTAND_X / 2,
+						vor[1] - EGSchichtenlayout.ABSTAND_Y });
+		}
+	}
+
+	/**
+	 * Übernimmt ein berechnetes Layout und setzt die Koordinaten aller
+	 * angezeigten Knoten. Das AutoLayout des Viewers muss dazu ausgeschaltet
+	 * sein, sonst verschiebt es die Knoten weiter.
+	 * 
+	 * @param layout berechnetes Layout
+	 */
+	public void setSchichtenlayout(EGSchichtenlayout layout) {
+		this.layout = layout;
+		platziere();
+	}
+
+	/**
+	 * Schreibt die Koordinaten des Layouts als Attribut "xy" an die Knoten.
+	 * Gruppenknoten liegen im Mittelpunkt ihrer Knoten.
+	 */
+	private void platziere() {
+		if (layout == null)
+			return;
+		for (Node n : this.getNodeSet())
+			platziere(n);
+	}
+
+	/**
+	 * Schreibt die Koordinaten des Layouts an einen Knoten, sofern ein Layout
+	 * gesetzt ist und den Knoten kennt.
+	 * 
+	 * @param n Knoten oder Gruppenknoten
+	 */
+	private void platziere(Node n) {
+		if (layout == null)
+			return;
+		double[] xy;
+		if (n.hasAttribute("gruppe")) {
+			xy = new double[2];
+			int anzahl = 0;
+			int g = n.getAttribute("gruppe");
+			for (Markierung m : gruppierung.getKnoten(g)) {
+				double[] k = layout.getKoordinaten(m);
+				if (k != null) {
+					xy[0] += k[0];
+					xy[1] += k[1];
+					anzahl++;
+				}
+			}
+			if (anzahl == 0)
+				return;
+			xy[0] /= anzahl;
+			xy[1] /= anzahl;
+		} else {
+			xy = layout.getKoordinaten(n.getAttribute("markierung"));
+			if (xy == null)
+				return;
+		}
+		n.addAttribute("xy", xy[0], xy[1]);
+	}
+
+	/**
+	 * Baut den Graphen aus dem EG neu auf, vollständig oder zusammengefasst.
+	 * 
+	 * @param neuGruppieren true, wenn sich der EG seit der letzten Gruppierung
+	 *                      geändert haben kann
+	 */
+	private void baueAuf(boolean neuGruppieren) {
+		clearEG();
+		letzterUebergang = null;
+		letzterKnoten = null;
+
+		offen.clear();
+		if (eg.getAnzahlKnoten() <= SCHWELLE) {
+			gruppierung = null;
 			erstelleAnfangsknoten(eg.getAnfangsknotenID());
+			for (Markierung m : eg.getAlleKnoten().keySet())
+				erstelleKnoten(m);
+			for (Uebergang u : eg.getAlleUebergaenge())
+				erstelleUebergang(u);
+			platziere();
+			return;
+		}
+
+		if (neuGruppieren || gruppierung == null)
+			gruppierung = new EGGruppierung(eg, gruppierungsArt);
+		for (Markierung m : aufgeklappt) {
+			int g = gruppierung.getGruppe(m);
+			if (g >= 0)
+				offen.set(g);
+		}
 
-		// Knoten erstellen
-		for (String m : eg.getAlleKnoten().keySet())
-			erstelleKnoten(m);
-
-		// Übergänge erstellen
-		for (String uebergangKey : eg.getAlleUebergaenge().keySet()) {
-			String vor = eg.getUebergang(uebergangKey).getVorgaengerMarkierung();
-			String nach = eg.getUebergang(uebergangKey).getFolgemarkierung();
-			String transition = eg.getUebergang(uebergangKey).getTransition();
-			String label = pnGraph.getNode(transition).getAttribute("ui.label");
-			erstelleUebergang(uebergangKey, vor, nach,label);
+		// aufgeklappte Gruppen mit ihren Knoten, die übrigen als Gruppenknoten
+		for (int g = 0; g < gruppierung.getAnzahlGruppen(); g++) {
+			if (!offen.get(g))
+				erstelleGruppe(g);
+			else
+				for (Markierung m : gruppierung.getKnoten(g))
+					if (m.equals(eg.getAnfangsknotenID()))
+						erstelleAnfangsknoten(m);
+					else
+						erstelleKnoten(m);
 		}
 
+		// Kanten zwischen zugeklappten Gruppen
+		for (int[] k : gruppierung.getGruppenKanten())
+			if (!offen.get(k[0]) && !offen.get(k[1]))
+				zaehleUebergang(gruppenID(k[0]), gruppenID(k[1]), k[2]);
+
+		// Übergänge mit einem aufgeklappten Ende einzeln oder je Gruppe gezählt
+		HashMap<String, Integer> gezaehlt = new HashMap<String, Integer>();
+		for (Uebergang u : eg.getAlleUebergaenge()) {
+			int von = gruppierung.getGruppe(u.getVorgaengerMarkierung());
+			int nach = gruppierung.getGruppe(u.getFolgemarkierung());
+			if (offen.get(von) && offen.get(nach))
+				erstelleUebergang(u);
+			else if (offen.get(von) || offen.get(nach)) {
+				String vonID = offen.get(von) ? u.getVorgaengerMarkierung().toString() : gruppenID(von);
+				String nachID = offen.get(nach) ? u.getFolgemarkierung().toString() : gruppenID(nach);
+				gezaehlt.merge(vonID + " " + nachID, 1, Integer::sum);
+			}
+		}
+		for (Map.Entry<String, Integer> e : gezaehlt.entrySet()) {
+			String[] enden = e.getKey().split(" ");
+			zaehleUebergang(enden[0], enden[1], e.getValue());
+		}
+		platziere();
+	}
+
+	/**
+	 * Klappt die Gruppe auf, zu der der Gruppenknoten gehört. Wird vom
+	 * Controller beim Klick auf einen Gruppenknoten aufgerufen.
+	 * 
+	 * @param gruppenknoten angeklickter Gruppenknoten
+	 */
+	public void klappeAuf(Node gruppenknoten) {
+		int g = gruppenknoten.getAttribute("gruppe");
+		aufgeklappt.add(gruppierung.getKnoten(g).get(0));
+		baueAuf(false);
+	}
+
+	/**
+	 * Klappt alle Gruppen wieder zu.
+	 */
+	public void klappeZu() {
+		aufgeklappt.clear();
+		if (gruppierung != null)
+			baueAuf(false);
+	}
+
+	/**
+	 * Stellt ein, wonach ein großer EG zusammengefasst wird, und baut den
+	 * Graphen bei Bedarf neu auf.
+	 * 
+	 * @param art Art der Gruppierung
+	 */
+	public void setGruppierungsArt(EGGruppierung.Art art) {
+		gruppierungsArt = art;
+		aufgeklappt.clear();
+		if (gruppierung != null)
+			baueAuf(true);
+	}
+
+	/**
+	 * Sorgt dafür, dass die Knoten der übergebenen Markierungen angezeigt
+	 * werden, und klappt dazu ihre Gruppen auf. Ohne Gruppierung passiert
+	 * nichts.
+	 * 
+	 * @param markierungen anzuzeigende Markierungen
+	 */
+	public void zeige(Collection<Markierung> markierungen) {
+		if (gruppierung == null)
+			return;
+		boolean geaendert = false;
+		for (Markierung m : markierungen)
+			if (getNode(m.toString()) == null && gruppierung.getGruppe(m) >= 0) {
+				aufgeklappt.add(m);
+				geaendert = true;
+			}
+		if (geaendert)
+			baueAuf(false);
 	}
 
 }
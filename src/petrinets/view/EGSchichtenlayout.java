@@ -0,0 +1,208 @@
+package petrinets.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import petrinets.model.eg.Erreichbarkeitsgraph;
+import petrinets.model.eg.Knoten;
+import petrinets.model.eg.Markierung;
+import petrinets.model.eg.Uebergang;
+
+/**
+ * Berechnet ein geschichtetes Layout (nach Sugiyama) für den
+ * {@link Erreichbarkeitsgraph}, das ohne die laufende Physik des AutoLayouts
+ * auskommt. Die Schicht eines Knotens ist sein Abstand vom Anfangsknoten in
+ * der Breitensuche, die Schichten liegen untereinander. Innerhalb der
+ * Schichten werden die Knoten in einigen Durchläufen abwechselnd nach unten
+ * und oben nach dem Schwerpunkt ihrer Nachbarn in der angrenzenden Schicht
+ * sortiert, um Kreuzungen zu verringern. Kanten über mehrere Schichten und
+ * Rückwärtskanten gehen in die Sortierung nicht ein.
+ *
+ * Der Konstruktor übernimmt die Struktur des EG und muss im Thread laufen,
+ * der den EG verändert. {@link #berechne()} arbeitet nur auf dieser Kopie und
+ * kann daher in einem Hintergrund-Thread laufen.
+ */
+public class EGSchichtenlayout {
+
+	/** Abstand zweier Knoten innerhalb einer Schicht */
+	public static final double ABSTAND_X = 160;
+	/** Abstand zweier Schichten */
+	public static final double ABSTAND_Y = 60;
+
+	// Anzahl der Sortierdurchläufe, je einer nach unten und oben
+	private static final int DURCHLAEUFE = 4;
+
+	private final Markierung[] markierungen;
+	private final int[] start;
+	private final int[] ziele;
+	private HashMap<Markierung, double[]> koordinaten;
+
+	/**
+	 * Übernimmt Knoten und Übergänge des EG.
+	 *
+	 * @param eg EG, für den das Layout berechnet wird
+	 */
+	public EGSchichtenlayout(Erreichbarkeitsgraph eg) {
+		int n = eg.getAnzahlKnoten();
+		markierungen = new Markierung[n];
+		Knoten[] knoten = new Knoten[n];
+		HashMap<Markierung, Integer> index = new HashMap<Markierung, Integer>(n * 2);
+		knoten[0] = eg.getAlleKnoten().get(eg.getAnfangsknotenID());
+		index.put(knoten[0].getMarkierung(), 0);
+		int i = 1;
+		for (Knoten k : eg.getAlleKnoten().values())
+			if (!index.containsKey(k.getMarkierung())) {
+				index.put(k.getMarkierung(), i);
+				knoten[i++] = k;
+			}
+		start = new int[n + 1];
+		ziele = new int[eg.getAnzahlUebergaenge()];
+		int m = 0;
+		for (int v = 0; v < n; v++) {
+			markierungen[v] = knoten[v].getMarkierung();
+			start[v] = m;
+			for (Uebergang u : knoten[v].getUebergaenge().values())
+				ziele[m++] = index.get(u.getFolgemarkierung());
+		}
+		start[n] = m;
+	}
+
+	/**
+	 * Berechnet die Koordinaten aller Knoten.
+	 *
+	 * @return this, für die Verkettung
+	 */
+	public EGSchichtenlayout berechne() {
+		int n = markierungen.length;
+
+		// Schichten aus der Breitensuche, die Reihenfolge der Entdeckung
+		// ist die Anfangsreihenfolge innerhalb der Schichten
+		int[] schicht = new int[n];
+		Arrays.fill(schicht, -1);
+		int[] reihenfolge = new int[n];
+		int kopf = 0, ende = 0;
+		schicht[0] = 0;
+		reihenfolge[ende++] = 0;
+		while (kopf < n) {
+			if (kopf == ende) {
+				// nicht erreichbare Knoten in eine eigene Schicht hinter der tiefsten
+				int tiefste = schicht[reihenfolge[ende - 1]];
+				for (int v = 0; v < n; v++)
+					if (schicht[v] < 0) {
+						schicht[v] = tiefste + 1;
+						reihenfolge[ende++] = v;
+					}
+				break;
+			}
+			int v = reihenfolge[kopf++];
+			for (int j = start[v]; j < start[v + 1]; j++) {
+				int w = ziele[j];
+				if (schicht[w] < 0) {
+					schicht[w] = schicht[v] + 1;
+					reihenfolge[ende++] = w;
+				}
+			}
+		}
+		int anzahlSchichten = schicht[reihenfolge[n - 1]] + 1;
+		ArrayList<ArrayList<Integer>> schichten = new ArrayList<ArrayList<Integer>>(anzahlSchichten);
+		for (int s = 0; s < anzahlSchichten; s++)
+			schichten.add(new ArrayList<Integer>());
+		for (int v : reihenfolge)
+			schichten.get(schicht[v]).add(v);
+
+		// Vorgänger in der Schicht darüber sammeln
+		int[] vorStart = new int[n + 1];
+		for (int v = 0; v < n; v++)
+			for (int j = start[v]; j < start[v + 1]; j++)
+				if (schicht[ziele[j]] == schicht[v] + 1)
+					vorStart[ziele[j] + 1]++;
+		for (int v = 0; v < n; v++)
+			vorStart[v + 1] += vorStart[v];
+		int[] vorgaenger = new int[vorStart[n]];
+		int[] fuellstand = Arrays.copyOf(vorStart, n);
+		for (int v = 0; v < n; v++)
+			for (int j = start[v]; j < start[v + 1]; j++)
+				if (schicht[ziele[j]] == schicht[v] + 1)
+					vorgaenger[fuellstand[ziele[j]]++] = v;
+
+		// Position jedes Knotens innerhalb seiner Schicht
+		double[] position = new double[n];
+		for (ArrayList<Integer> s : schichten)
+			for (int p = 0; p < s.size(); p++)
+				position[s.get(p)] = p;
+
+		double[] schwerpunkt = new double[n];
+		for (int d = 0; d < DURCHLAEUFE; d++) {
+			// nach unten: Schwerpunkt der Vorgänger
+			for (int s = 1; s < anzahlSchichten; s++) {
+				for (int v : schichten.get(s)) {
+					double summe = 0;
+					int anzahl = vorStart[v + 1] - vorStart[v];
+					for (int j = vorStart[v]; j < vorStart[v + 1]; j++)
+						summe += position[vorgaenger[j]];
+					schwerpunkt[v] = anzahl > 0 ? summe / anzahl : position[v];
+				}
+				sortiere(schichten.get(s), schwerpunkt, position);
+			}
+			// nach oben: Schwerpunkt der Nachfolger in der Schicht darunter
+			for (int s = anzahlSchichten - 2; s >= 0; s--) {
+				for (int v : schichten.get(s)) {
+					double summe = 0;
+					int anzahl = 0;
+					for (int j = start[v]; j < start[v + 1]; j++)
+						if (schicht[ziele[j]] == s + 1) {
+							summe += position[ziele[j]];
+							anzahl++;
+						}
+					schwerpunkt[v] = anzahl > 0 ? summe / anzahl : position[v];
+				}
+				sortiere(schichten.get(s), schwerpunkt, position);
+			}
+		}
+
+		// Koordinaten: Schichten zentriert untereinander
+		koordinaten = new HashMap<Markierung, double[]>(n * 2);
+		for (int s = 0; s < anzahlSchichten; s++) {
+			ArrayList<Integer> knoten = schichten.get(s);
+			double mitte = (knoten.size() - 1) / 2.0;
+			for (int p = 0; p < knoten.size(); p++)
+				koordinaten.put(markierungen[knoten.get(p)],
+						new double[] { (p - mitte) * ABSTAND_X, -s * ABSTAND_Y });
+		}
+		return this;
+	}
+
+	/**
+	 * Sortiert eine Schicht stabil nach den Schwerpunkten und vergibt die
+	 * Positionen neu.
+	 */
+	private static void sortiere(ArrayList<Integer> knoten, double[] schwerpunkt, double[] position) {
+		knoten.sort((a, b) -> Double.compare(schwerpunkt[a], schwerpunkt[b]));
+		for (int p = 0; p < knoten.size(); p++)
+			position[knoten.get(p)] = p;
+	}
+
+	/**
+	 * Gibt die berechneten Koordinaten eines Knotens zurück.
+	 *
+	 * @param markierung Markierung des Knotens
+	 * @return x und y, oder null, wenn der Knoten bei der Berechnung noch nicht
+	 *         im EG lag
+	 */
+	public double[] getKoordinaten(Markierung markierung) {
+		return koordinaten.get(markierung);
+	}
+
+	/**
+	 * Legt die Koordinaten eines Knotens fest, der nach der Berechnung
+	 * hinzugekommen ist.
+	 *
+	 * @param markierung Markierung des Knotens
+	 * @param xy         x und y
+	 */
+	public void setKoordinaten(Markierung markierung, double[] xy) {
+		koordinaten.put(markierung, xy);
+	}
+
+}
@@ -12,6 +12,7 @@ import java.io.File;
 
 import javax.imageio.ImageIO;
 import javax.swing.Box;
+import javax.swing.ButtonGroup;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JFileChooser;
@@ -21,6 +22,8 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.JTextArea;
@@ -34,6 +37,7 @@ import org.graphstream.ui.view.ViewerPipe;
 
 import petrinets.controller.ClickListener;
 import petrinets.controller.Controller;
+import petrinets.model.eg.EGGruppierung;
 
 /**
  * Diese Klasse stellt das Hauptfenster der Anwendung dar.
@@ -64,6 +68,13 @@ public class Hauptfenster extends JFrame {
 
 	private Viewer egViewer;
 	private boolean autoLayoutAn;
+	private JButton autolayoutToggleButton;
+
+	/** Fortschrittsanzeige einer laufenden Analyse mit Abbrechen-Button */
+	private JPanel fortschrittPanel;
+	private JProgressBar fortschritt;
+	private JButton abbrechen;
+	private Runnable abbruch;
 
 	/**
 	 * Im Konstruktor wird der Haupt-Frame erzeugt und angezeigt.
@@ -111,7 +122,46 @@ public class Hauptfenster extends JFrame {
 		datei.add(analyseStapel);
 		datei.add(beenden);
 
+		JMenu analyseMenu = new JMenu("Analyse");
+
+		JMenuItem ueberdeckung = new JMenuItem("Überdeckungsgraph erstellen");
+		ueberdeckung.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_U, ActionEvent.CTRL_MASK));
+		ueberdeckung.addActionListener((event) -> pnController.ueberdeckungsAnalyse());
+
+		JMenuItem symbolisch = new JMenuItem("Symbolische Analyse (BDD)");
+		symbolisch.addActionListener((event) -> pnController.symbolischeAnalyse());
+
+		analyseMenu.add(ueberdeckung);
+		analyseMenu.add(symbolisch);
+
+		// Zusammenfassung großer EG
+		JMenu ansicht = new JMenu("Ansicht");
+
+		JRadioButtonMenuItem nachTiefe = new JRadioButtonMenuItem("Großen EG nach Tiefe zusammenfassen", true);
+		nachTiefe.addActionListener((event) -> pnController.setGruppierung(EGGruppierung.Art.TIEFE));
+
+		JRadioButtonMenuItem nachKomponenten = new JRadioButtonMenuItem("Großen EG nach Komponenten zusammenfassen");
+		nachKomponenten.addActionListener((event) -> pnController.setGruppierung(EGGruppierung.Art.KOMPONENTEN));
+
+		ButtonGroup gruppierung = new ButtonGroup();
+		gruppierung.add(nachTiefe);
+		gruppierung.add(nachKomponenten);
+
+		JMenuItem zuklappen = new JMenuItem("EG-Gruppen zuklappen");
+		zuklappen.addActionListener((event) -> pnController.klappeEGZu());
+
+		JMenuItem schichtenlayout = new JMenuItem("EG in Schichten anordnen");
+		schichtenlayout.addActionListener((event) -> pnController.berechneLayout());
+
+		ansicht.add(nachTiefe);
+		ansicht.add(nachKomponenten);
+		ansicht.addSeparator();
+		ansicht.add(zuklappen);
+		ansicht.add(schichtenlayout);
+
 		menu.add(datei);
+		menu.add(analyseMenu);
+		menu.add(ansicht);
 		menu.add(Box.createHorizontalGlue());
 
 		this.setJMenuBar(menu);
@@ -161,10 +211,10 @@ public class Hauptfenster extends JFrame {
 		egScreenshot.addActionListener((event) -> screenshot(egJPanel));
 
 		// ToggleButton zum Ausschalten des AutoLayouts im EG
-		JButton autolayoutToggleButton = new JButton(new ImageIcon("resources/images/layoutOff.png"));
+		autolayoutToggleButton = new JButton(new ImageIcon("resources/images/layoutOff.png"));
 		autolayoutToggleButton.setToolTipText("Schaltet das AutoLayout im EG aus und ein. [Alt-T]");
 		autolayoutToggleButton.setMnemonic('T');
-		autolayoutToggleButton.addActionListener((event) -> autoLayoutUmschalten(autolayoutToggleButton));
+		autolayoutToggleButton.addActionListener((event) -> autoLayoutUmschalten());
 
 		toolbar.add(resetPN);
 		toolbar.add(loescheEG);
@@ -208,6 +258,17 @@ public class Hauptfenster extends JFrame {
 		// verticalSplitPane zum Haupt-Frame hinzufügen
 		this.add(verticalSplitPane);
 
+		// Fortschrittsanzeige, nur während einer Analyse sichtbar
+		fortschritt = new JProgressBar();
+		fortschritt.setStringPainted(true);
+		abbrechen = new JButton("Abbrechen");
+		abbrechen.addActionListener((event) -> abbrechen());
+		fortschrittPanel = new JPanel(new BorderLayout());
+		fortschrittPanel.add(fortschritt, BorderLayout.CENTER);
+		fortschrittPanel.add(abbrechen, BorderLayout.LINE_END);
+		fortschrittPanel.setVisible(false);
+		add(fortschrittPanel, BorderLayout.PAGE_END);
+
 		// Konfiguriere Haupt-Frame
 		this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		this.setSize(1000, 700);
@@ -374,7 +435,8 @@ public class Hauptfenster extends JFrame {
 	/**
 	 * Schaltet das AutoLayout im EG an bzw aus
 	 */
-	private void autoLayoutUmschalten(JButton button) {
+	private void autoLayoutUmschalten() {
+		JButton button = autolayoutToggleButton;
 		if (autoLayoutAn) {
 			egViewer.disableAutoLayout();
 			autoLayoutAn = false;
@@ -388,6 +450,15 @@ public class Hauptfenster extends JFrame {
 		}
 	}
 
+	/**
+	 * Wird vom Controller aufgerufen, wenn ein berechnetes Layout in den EG
+	 * übernommen wurde, damit das AutoLayout es nicht wieder verschiebt.
+	 */
+	public void schalteAutoLayoutAus() {
+		if (autoLayoutAn)
+			autoLayoutUmschalten();
+	}
+
 	/**
 	 * Erzeugt einen Screenshot des aktuellen Erreichbarkeitsgraphen und speichert
 	 * ihn
@@ -426,6 +497,58 @@ public class Hauptfenster extends JFrame {
 		textArea.append(text);
 	}
 
+	/**
+	 * Wird vom Controller zu Beginn einer Analyse aufgerufen und zeigt die
+	 * Fortschrittsanzeige an.
+	 * 
+	 * @param maximum Anzahl der Schritte, 0 wenn sie unbekannt ist
+	 * @param abbruch wird beim Klick auf "Abbrechen" ausgeführt, ohne Abbruch
+	 *                null, dann wird der Button ausgeblendet
+	 */
+	public void zeigeFortschritt(int maximum, Runnable abbruch) {
+		this.abbruch = abbruch;
+		fortschritt.setIndeterminate(maximum == 0);
+		fortschritt.setMaximum(maximum);
+		fortschritt.setValue(0);
+		fortschritt.setString("");
+		abbrechen.setEnabled(true);
+		abbrechen.setVisible(abbruch != null);
+		fortschrittPanel.setVisible(true);
+		revalidate();
+	}
+
+	/**
+	 * Wird vom Controller während einer Analyse aufgerufen, um den Fortschritt
+	 * anzuzeigen.
+	 * 
+	 * @param wert erledigte Schritte
+	 * @param text Beschriftung der Fortschrittsanzeige
+	 */
+	public void setFortschritt(int wert, String text) {
+		fortschritt.setValue(wert);
+		fortschritt.setString(abbrechen.isEnabled() ? text : text + " - wird abgebrochen");
+	}
+
+	/**
+	 * Wird vom Controller am Ende einer Analyse aufgerufen und blendet die
+	 * Fortschrittsanzeige aus.
+	 */
+	public void verbergeFortschritt() {
+		abbruch = null;
+		fortschrittPanel.setVisible(false);
+		revalidate();
+	}
+
+	/**
+	 * Bittet die laufende Analyse, sich zu beenden.
+	 */
+	private void abbrechen() {
+		if (abbruch != null) {
+			abbrechen.setEnabled(false);
+			abbruch.run();
+		}
+	}
+
 	/**
 	 * Öffnet nach der Analyse ein Dialogfenster, das über die (Un-)Beschränktheit
 	 * des Petrinetzes informiert.
@@ -1,23 +1,23 @@
 package petrinets.view;
 
-import java.util.Observable;
-import java.util.Observer;
-
 import org.graphstream.graph.Edge;
 import org.graphstream.graph.Node;
 import org.graphstream.graph.implementations.MultiGraph;
 
+import petrinets.model.ereignis.Beobachter;
 import petrinets.model.pn.Kante;
+import petrinets.model.pn.PNAenderung;
 import petrinets.model.pn.Petrinetz;
 import petrinets.model.pn.Stelle;
 import petrinets.model.pn.Transition;
 
 /**
  * Die Klasse PNGraph repräsentiert die Visualisierung des Petrinetzes mittels der 
- * GraphStream-Bibliothek. Als Observer holt sie sich ihre Daten direkt aus dem 
- * {@link Petrinetz}
+ * GraphStream-Bibliothek. Als Beobachter holt sie sich ihre Daten direkt aus dem 
+ * {@link Petrinetz}. Nach dem Schalten werden nur die Knoten aus der
+ * {@link PNAenderung} aktualisiert, nicht der ganze Graph.
  */
-public class PNGraph extends MultiGraph implements Observer{
+public class PNGraph extends MultiGraph implements Beobachter<Petrinetz, PNAenderung> {
 	
 	// URL-Angabe zur css-Datei, in der das Layout des Graphen angegeben ist.
     private static String CSS_FILE = "url(" + PNGraph.class.getResource("/pngraph.css") + ")";
@@ -112,7 +112,10 @@ public class PNGraph extends MultiGraph implements Observer{
 		String quellID = kante.getQuellID();
 		String zielID = kante.getZielID();
 		Edge e = this.addEdge(id, nodeMap.get(quellID), nodeMap.get(zielID), true);
-		e.addAttribute("ui.label", "["+id+"]");
+		if (kante.getGewicht() > 1)
+			e.addAttribute("ui.label", "["+id+"] "+kante.getGewicht());
+		else
+			e.addAttribute("ui.label", "["+id+"]");
 	}
 	
 	
@@ -140,33 +143,32 @@ public class PNGraph extends MultiGraph implements Observer{
 	}
 
 	@Override
-	public void update(Observable o, Object arg) {
-		if(arg == null) 
-			updateGraph((Petrinetz)o);
-		else if(arg.equals("init")) 
-			initPNGraph((Petrinetz)o);
+	public void aktualisiere(Petrinetz pn, PNAenderung aenderung) {
+		if (aenderung.istNeuaufbau())
+			initPNGraph(pn);
+		else
+			updateGraph(aenderung);
 	}
 	
 	/**
-	 * Bringt das aktuelle Petrinetz erneut in die Graph-Struktur, um Änderungen darzustellen
-	 * @param pn das Petrinetz, das die Daten für diesen Graphen bereithält
+	 * Bringt die geänderten Stellen und Transitionen erneut in die
+	 * Graph-Struktur, um Änderungen darzustellen
+	 * @param aenderung geänderte Stellen und umgeschaltete Transitionen
 	 */
-	private void updateGraph(Petrinetz pn) {
-		for (Node n : this.getNodeSet()) {
-			// Markierungen der Stellen neu einlesen
-			if (n.hasAttribute("stelle")) {
-				Stelle s = (Stelle) pn.getKnoten(n.getId());
-				n.changeAttribute("ui.label", "[" + s.getID() + "] " + s.getName() + " <" + s.getMarken() + ">");
-				n.changeAttribute("ui.class", "m" + String.valueOf(s.getMarken()));
-			}
-			// Aktivierungen der Transitionenneu einlesen
-			if (n.hasAttribute("transition")) {
-				Transition t = (Transition) pn.getKnoten(n.getId());
-				if (t.istAktiviert())
-					n.addAttribute("ui.class", "aktiv");
-				else
-					n.removeAttribute("ui.class");
-			}
+	private void updateGraph(PNAenderung aenderung) {
+		// Markierungen der Stellen neu einlesen
+		for (Stelle s : aenderung.getStellen()) {
+			Node n = getNode(s.getID());
+			n.changeAttribute("ui.label", "[" + s.getID() + "] " + s.getName() + " <" + s.getMarken() + ">");
+			n.changeAttribute("ui.class", "m" + String.valueOf(s.getMarken()));
+		}
+		// Aktivierungen der Transitionen neu einlesen
+		for (Transition t : aenderung.getTransitionen()) {
+			Node n = getNode(t.getID());
+			if (t.istAktiviert())
+				n.addAttribute("ui.class", "aktiv");
+			else
+				n.removeAttribute("ui.class");
 		}
 	}
 }